@@ -0,0 +1,53 @@
+package br.inatel.benchmark;
+
+import br.inatel.models.Conteudo;
+import br.inatel.models.Usuario;
+import br.inatel.services.Gerenciador;
+import br.inatel.services.Rankings;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Alterações no catálogo. Remover sozinho esvaziaria o catálogo durante a medição, então cada
+//operação remove um título e o coloca de volta (passando pelos índices e classificações duas vezes).
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class AlteracaoBenchmark {
+
+    @Param({"100000"})
+    int conteudos;
+
+    @Param({"10"})
+    int avaliacoesPorTitulo;
+
+    Gerenciador gerenciador;
+    List<Conteudo> todos;
+    Usuario usuario;
+    int proximo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        gerenciador = GeradorCatalogo.padrao(conteudos, avaliacoesPorTitulo).gerar();
+        todos = gerenciador.getConteudos();
+        usuario = gerenciador.obterUsuario("Benchmark", "benchmark@exemplo.com");
+        gerenciador.recomendarTop(10, Rankings.BAYESIANA); //alterações também mantêm a classificação
+    }
+
+    @Benchmark
+    public boolean removerConteudoEReadicionar() {
+        Conteudo conteudo = todos.get(proximo++ % todos.size());
+        gerenciador.removerConteudo(conteudo.getTitulo());
+        return gerenciador.adicionarConteudo(conteudo);
+    }
+
+    @Benchmark
+    public void avaliar() {
+        int i = proximo++;
+        gerenciador.avaliar(todos.get(i % todos.size()), usuario, 1 + i % 5, "bom");
+    }
+}
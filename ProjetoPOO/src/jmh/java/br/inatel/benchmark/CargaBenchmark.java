@@ -0,0 +1,102 @@
+package br.inatel.benchmark;
+
+import br.inatel.models.Avaliacao;
+import br.inatel.models.Conteudo;
+import br.inatel.services.Gerenciador;
+import br.inatel.services.ParserRegistros;
+import br.inatel.services.RegistroUsuarios;
+import br.inatel.services.SnapshotBinario;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+//Salvar e carregar o catálogo em texto e no snapshot binário. Os tamanhos dos arquivos
+//aparecem na saída ao final de cada rodada (MB/s = tamanho / tempo médio).
+//Com -prof gc, gc.alloc.rate.norm mostra quanto cada gravação aloca: compare salvarConteudosComoTexto
+//com salvarTextoPorLinhas, que é o jeito antigo (String.format por linha + Files.write).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CargaBenchmark {
+
+    @Param({"100000"})
+    int conteudos;
+
+    @Param({"10"})
+    int avaliacoesPorTitulo;
+
+    Path pasta;
+    Path texto;
+    Path binario;
+    Gerenciador carregado;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        pasta = Files.createTempDirectory("benchmark-carga");
+        texto = pasta.resolve("conteudos.txt");
+        binario = pasta.resolve("conteudos.bin");
+        carregado = GeradorCatalogo.padrao(conteudos, avaliacoesPorTitulo).gerar();
+        carregado.salvarConteudosComoTexto(texto.toString());
+        carregado.salvarSnapshotBinario(binario.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void limpar() throws IOException {
+        System.out.printf("%n[arquivos] texto: %d bytes, binário: %d bytes%n", Files.size(texto), Files.size(binario));
+        try (Stream<Path> arquivos = Files.walk(pasta)) {
+            for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(arquivo);
+            }
+        }
+    }
+
+    @Benchmark
+    public Gerenciador carregarConteudosDeTexto() throws IOException {
+        Gerenciador gerenciador = new Gerenciador();
+        gerenciador.carregarConteudosDeTexto(texto.toString());
+        return gerenciador;
+    }
+
+    @Benchmark
+    public Path salvarConteudosComoTexto() throws IOException {
+        Path saida = pasta.resolve("saida.txt");
+        carregado.salvarConteudosComoTexto(saida.toString());
+        return saida;
+    }
+
+    @Benchmark
+    public Path salvarTextoPorLinhas() throws IOException {
+        Path saida = pasta.resolve("saida-linhas.txt");
+        List<String> linhas = new ArrayList<>();
+        for (Conteudo conteudo : carregado.getConteudos()) {
+            linhas.add(ParserRegistros.formatarConteudo(conteudo));
+            for (Avaliacao avaliacao : conteudo.getAvaliacoes()) {
+                linhas.add(ParserRegistros.formatarAvaliacao(avaliacao));
+            }
+        }
+        Files.write(saida, linhas);
+        return saida;
+    }
+
+    @Benchmark
+    public List<Conteudo> carregarSnapshotBinario() throws IOException {
+        return SnapshotBinario.carregar(binario, new RegistroUsuarios());
+    }
+
+    @Benchmark
+    public Path salvarSnapshotBinario() throws IOException {
+        Path saida = pasta.resolve("saida.bin");
+        SnapshotBinario.salvar(carregado.getConteudos(), saida);
+        return saida;
+    }
+}
@@ -0,0 +1,49 @@
+package br.inatel.benchmark;
+
+import br.inatel.services.Gerenciador;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+//Escalabilidade da carga paralela (arquivo mapeado em memória) de 1 até N threads,
+//comparada com a carga sequencial do mesmo arquivo
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CargaParalelaBenchmark {
+
+    @Param({"200000"})
+    int conteudos;
+
+    @Param({"10"})
+    int avaliacoesPorTitulo;
+
+    @Param({"1", "2", "4", "8"})
+    int threads;
+
+    Path texto;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        texto = Files.createTempFile("benchmark-paralelo", ".txt");
+        GeradorCatalogo.padrao(conteudos, avaliacoesPorTitulo).gerarArquivoTexto(texto);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpar() throws IOException {
+        Files.deleteIfExists(texto);
+    }
+
+    @Benchmark
+    public Gerenciador carregarEmParalelo() throws IOException {
+        Gerenciador gerenciador = new Gerenciador();
+        gerenciador.carregarConteudosEmParalelo(texto.toString(), threads);
+        return gerenciador;
+    }
+}
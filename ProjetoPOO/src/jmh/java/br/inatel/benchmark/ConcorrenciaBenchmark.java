@@ -0,0 +1,65 @@
+package br.inatel.benchmark;
+
+import br.inatel.models.Conteudo;
+import br.inatel.models.Usuario;
+import br.inatel.services.Gerenciador;
+import br.inatel.services.Rankings;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//Mistura de leitura e escrita no mesmo Gerenciador: três threads consultando (top, gênero e
+//pesquisa, alternados) enquanto uma avalia conteúdos aleatórios
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Group)
+public class ConcorrenciaBenchmark {
+
+    @Param({"100000"})
+    int conteudos;
+
+    @Param({"10"})
+    int avaliacoesPorTitulo;
+
+    @Param({"true", "false"})
+    boolean cache;
+
+    Gerenciador gerenciador;
+    List<Conteudo> todos;
+    Usuario usuario;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        gerenciador = GeradorCatalogo.padrao(conteudos, avaliacoesPorTitulo).gerar();
+        gerenciador.setCacheConsultasAtivo(cache);
+        todos = gerenciador.getConteudos();
+        usuario = gerenciador.obterUsuario("Benchmark", "benchmark@exemplo.com");
+        gerenciador.recomendarPorGenero(GeradorCatalogo.genero(0));
+    }
+
+    @Benchmark
+    @Group("mistura")
+    @GroupThreads(3)
+    public List<Conteudo> consultar() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        return switch (aleatorio.nextInt(3)) {
+            case 0 -> gerenciador.recomendarTop(10);
+            case 1 -> gerenciador.recomendarPorGenero(GeradorCatalogo.genero(aleatorio.nextInt(20)),
+                    Rankings.MEDIA, 0, 20);
+            default -> gerenciador.pesquisarPorTitulo(GeradorCatalogo.PALAVRAS[aleatorio.nextInt(GeradorCatalogo.PALAVRAS.length)], 0, 20);
+        };
+    }
+
+    @Benchmark
+    @Group("mistura")
+    @GroupThreads(1)
+    public void avaliar() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        gerenciador.avaliar(todos.get(aleatorio.nextInt(todos.size())), usuario, 1 + aleatorio.nextInt(5), "bom");
+    }
+}
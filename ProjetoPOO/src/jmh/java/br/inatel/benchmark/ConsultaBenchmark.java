@@ -0,0 +1,105 @@
+package br.inatel.benchmark;
+
+import br.inatel.models.Conteudo;
+import br.inatel.services.Gerenciador;
+import br.inatel.services.Rankings;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+//Consultas do Gerenciador sobre um catálogo já carregado. Com cache=true mede o caminho quente
+//(a mesma consulta repetida, sem alterações); com cache=false mede o cálculo em si.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ConsultaBenchmark {
+
+    @Param({"100000"})
+    int conteudos;
+
+    @Param({"10"})
+    int avaliacoesPorTitulo;
+
+    @Param({"true", "false"})
+    boolean cache;
+
+    Gerenciador gerenciador;
+    List<Conteudo> todos;
+    String tituloExistente;
+    String tituloInexistente;
+    Conteudo maisAvaliado;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        gerenciador = GeradorCatalogo.padrao(conteudos, avaliacoesPorTitulo).gerar();
+        gerenciador.setCacheConsultasAtivo(cache);
+        todos = gerenciador.getConteudos();
+        tituloExistente = todos.get(todos.size() / 2).getTitulo().toUpperCase();
+        tituloInexistente = "Título que não existe";
+        maisAvaliado = todos.get(0);
+        gerenciador.recomendarTop(10, Rankings.BAYESIANA); //monta as classificações fora da medição
+        gerenciador.recomendarPorGenero(GeradorCatalogo.genero(0));
+    }
+
+    @Benchmark
+    public List<Conteudo> recomendarTop() {
+        return gerenciador.recomendarTop(10);
+    }
+
+    @Benchmark
+    public List<Conteudo> recomendarTopBayesiano() {
+        return gerenciador.recomendarTop(10, Rankings.BAYESIANA);
+    }
+
+    //Como o top era calculado antes das médias mantidas por avaliação: média recalculada
+    //dentro do comparador e o catálogo inteiro ordenado
+    @Benchmark
+    public List<Conteudo> recomendarTopOrdenandoTudo() {
+        return todos.stream()
+                .sorted(Comparator.comparingDouble((Conteudo c) -> c.getAvaliacoes().stream()
+                        .mapToInt(a -> a.getNota()).average().orElse(0.0)).reversed())
+                .limit(10)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Conteudo> recomendarPorGeneroPrimeiraPagina() {
+        return gerenciador.recomendarPorGenero(GeradorCatalogo.genero(3), Rankings.MEDIA, 0, 20);
+    }
+
+    @Benchmark
+    public List<Conteudo> recomendarPorGeneroCompleto() {
+        return gerenciador.recomendarPorGenero(GeradorCatalogo.genero(3));
+    }
+
+    @Benchmark
+    public List<Conteudo> pesquisarPorTituloParcial() {
+        return gerenciador.pesquisarPorTitulo("coração", 0, 20);
+    }
+
+    @Benchmark
+    public List<Conteudo> pesquisarPorTituloExato() {
+        return gerenciador.pesquisarPorTitulo(tituloExistente);
+    }
+
+    @Benchmark
+    public boolean contemConteudoExistente() {
+        return gerenciador.contemConteudo(tituloExistente);
+    }
+
+    @Benchmark
+    public boolean contemConteudoInexistente() {
+        return gerenciador.contemConteudo(tituloInexistente);
+    }
+
+    @Benchmark
+    public double getNotaMedia() {
+        return maisAvaliado.getNotaMedia();
+    }
+}
@@ -0,0 +1,148 @@
+package br.inatel.benchmark;
+
+import br.inatel.exceptions.ConteudoNaoEncontradoException;
+import br.inatel.models.Avaliacao;
+import br.inatel.models.Conteudo;
+import br.inatel.models.Filme;
+import br.inatel.models.Usuario;
+import br.inatel.services.FiltroConteudos;
+import br.inatel.services.Gerenciador;
+import br.inatel.services.Rankings;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Teste de estresse do Gerenciador (não é um benchmark JMH): várias threads misturando consultas (top,
+//gênero, pesquisa, filtro, avaliações do usuário), avaliações, entradas e saídas de conteúdos por um tempo.
+//No fim confere que nenhuma operação falhou e que os contadores de cada conteúdo batem com a sua lista.
+//Só os conteúdos criados durante o teste saem do catálogo, então o total de avaliações também é conferido.
+//Avaliações nos criados disputam com a remoção: entram antes dela ou são recusadas, e no fim nenhum
+//usuário pode ter avaliação de conteúdo fora do catálogo.
+//Termina com status 1 se algo não bater.
+//  java -cp target/benchmarks.jar br.inatel.benchmark.EstresseConcorrencia [threads] [segundos] [conteudos]
+public class EstresseConcorrencia {
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        long segundos = args.length > 1 ? Long.parseLong(args[1]) : 3;
+        int conteudos = args.length > 2 ? Integer.parseInt(args[2]) : 60_000;
+
+        Gerenciador gerenciador = GeradorCatalogo.padrao(conteudos, 5).gerar();
+        List<Conteudo> iniciais = gerenciador.getConteudos();
+        long avaliacoesIniciais = gerenciador.getTotalAvaliacoes();
+
+        ConcurrentLinkedQueue<Throwable> falhas = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<String> criados = new ConcurrentLinkedQueue<>();
+        AtomicLong avaliacoesFeitas = new AtomicLong();
+        AtomicLong recusadas = new AtomicLong();
+        AtomicLong operacoes = new AtomicLong();
+        AtomicInteger proximoTitulo = new AtomicInteger();
+        long fim = System.nanoTime() + segundos * 1_000_000_000L;
+
+        Thread[] trabalhadoras = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int numero = t;
+            trabalhadoras[t] = new Thread(() -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                Usuario usuario = gerenciador.obterUsuario("Estresse " + numero, "estresse" + numero + "@exemplo.com");
+                while (System.nanoTime() < fim) {
+                    try {
+                        switch (aleatorio.nextInt(9)) {
+                            case 0 -> gerenciador.recomendarTop(10);
+                            case 1 -> gerenciador.recomendarPorGenero(GeradorCatalogo.genero(aleatorio.nextInt(20)),
+                                    Rankings.MEDIA, 0, 20);
+                            case 2 -> gerenciador.pesquisarPorTitulo(
+                                    GeradorCatalogo.PALAVRAS[aleatorio.nextInt(GeradorCatalogo.PALAVRAS.length)], 0, 20);
+                            case 3 -> gerenciador.filtrar(new FiltroConteudos()
+                                    .genero(GeradorCatalogo.genero(aleatorio.nextInt(20))).notaMinima(3));
+                            case 4 -> gerenciador.avaliacoesDoUsuario(usuario.getEmail());
+                            case 5 -> {
+                                String titulo = "Estresse " + proximoTitulo.getAndIncrement();
+                                if (gerenciador.adicionarConteudo(new Filme(titulo, GeradorCatalogo.genero(0), 2000, "Diretor", 90))) {
+                                    criados.add(titulo);
+                                }
+                            }
+                            case 6 -> {
+                                String titulo = criados.poll();
+                                if (titulo != null) gerenciador.removerConteudo(titulo);
+                            }
+                            case 7 -> {
+                                Conteudo criado = criados.isEmpty() ? null
+                                        : gerenciador.buscarPorTitulo(criados.peek()).orElse(null);
+                                if (criado != null) {
+                                    try {
+                                        gerenciador.avaliar(criado, usuario, 1 + aleatorio.nextInt(5), "estresse");
+                                    } catch (ConteudoNaoEncontradoException e) {
+                                        recusadas.incrementAndGet(); //removido entre a busca e a avaliação
+                                    }
+                                }
+                            }
+                            default -> {
+                                Conteudo conteudo = iniciais.get(aleatorio.nextInt(iniciais.size()));
+                                gerenciador.avaliar(conteudo, usuario, 1 + aleatorio.nextInt(5), "estresse");
+                                avaliacoesFeitas.incrementAndGet();
+                            }
+                        }
+                        operacoes.incrementAndGet();
+                    } catch (Throwable e) {
+                        falhas.add(e);
+                    }
+                }
+            }, "estresse-" + t);
+            trabalhadoras[t].start();
+        }
+        for (Thread trabalhadora : trabalhadoras) {
+            trabalhadora.join();
+        }
+
+        int inconsistentes = 0;
+        for (Conteudo conteudo : gerenciador.getConteudos()) {
+            if (!contadoresBatem(conteudo)) {
+                if (inconsistentes++ < 10) System.out.println("Contadores diferentes da lista: " + conteudo.getTitulo());
+            }
+        }
+        for (int t = 0; t < threads; t++) {
+            for (Avaliacao avaliacao : gerenciador.avaliacoesDoUsuario("estresse" + t + "@exemplo.com")) {
+                if (avaliacao.getConteudo().isRemovido()) {
+                    if (inconsistentes++ < 10) System.out.println("Avaliação viva de conteúdo removido: "
+                            + avaliacao.getConteudo().getTitulo());
+                }
+            }
+        }
+        long esperado = avaliacoesIniciais + avaliacoesFeitas.get();
+        long total = gerenciador.getTotalAvaliacoes();
+        for (String titulo : criados) { //os criados que ficaram no catálogo não entram na conta
+            total -= gerenciador.buscarPorTitulo(titulo).map(Conteudo::getTotalAvaliacoes).orElse(0);
+        }
+
+        System.out.printf("%d threads, %d s: %,d operações, %,d avaliações, %d recusadas, %d falhas, %d inconsistências%n",
+                threads, segundos, operacoes.get(), avaliacoesFeitas.get(), recusadas.get(), falhas.size(), inconsistentes);
+        for (Throwable falha : falhas.stream().limit(5).toList()) {
+            falha.printStackTrace(System.out);
+        }
+        if (total != esperado) {
+            System.out.println("Total de avaliações " + total + ", esperado " + esperado);
+        }
+        if (!falhas.isEmpty() || inconsistentes > 0 || total != esperado) {
+            System.exit(1);
+        }
+    }
+
+    //Total, soma e contagem por nota contra o que está na lista
+    private static boolean contadoresBatem(Conteudo conteudo) {
+        List<Avaliacao> avaliacoes = conteudo.getAvaliacoes();
+        int[] porNota = new int[5];
+        long soma = 0;
+        for (Avaliacao avaliacao : avaliacoes) {
+            porNota[avaliacao.getNota() - 1]++;
+            soma += avaliacao.getNota();
+        }
+        for (int nota = 1; nota <= 5; nota++) {
+            if (conteudo.getQuantidadePorNota(nota) != porNota[nota - 1]) return false;
+        }
+        return conteudo.getTotalAvaliacoes() == avaliacoes.size() && conteudo.getSomaNotas() == soma;
+    }
+}
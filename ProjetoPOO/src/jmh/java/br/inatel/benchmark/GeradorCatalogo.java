@@ -0,0 +1,92 @@
+package br.inatel.benchmark;
+
+import br.inatel.models.*;
+import br.inatel.services.Gerenciador;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+//Catálogo sintético determinístico: a mesma semente e as mesmas quantidades geram sempre os mesmos
+//títulos, gêneros, usuários e notas. Cada título tem uma "qualidade" própria e as notas variam em
+//torno dela, para os rankings não ficarem todos empatados.
+public class GeradorCatalogo {
+    static final String[] PALAVRAS = {"amor", "guerra", "noite", "cidade", "rio", "estrela", "sombra", "mar",
+            "tempo", "fogo", "ação", "coração", "lua", "vento", "caminho", "segredo"};
+
+    private final long semente;
+    private final int filmes;
+    private final int series;
+    private final int livros;
+    private final int generos;
+    private final int avaliacoesPorTitulo;
+    private final int usuarios;
+
+    public GeradorCatalogo(long semente, int filmes, int series, int livros,
+                           int generos, int avaliacoesPorTitulo, int usuarios) {
+        this.semente = semente;
+        this.filmes = filmes;
+        this.series = series;
+        this.livros = livros;
+        this.generos = generos;
+        this.avaliacoesPorTitulo = avaliacoesPorTitulo;
+        this.usuarios = usuarios;
+    }
+
+    //Metade filmes, 30% séries e 20% livros
+    public static GeradorCatalogo padrao(int conteudos, int avaliacoesPorTitulo) {
+        int filmes = conteudos / 2;
+        int series = conteudos * 3 / 10;
+        return new GeradorCatalogo(42, filmes, series, conteudos - filmes - series,
+                20, avaliacoesPorTitulo, Math.max(1000, conteudos / 2));
+    }
+
+    public Gerenciador gerar() {
+        Gerenciador gerenciador = new Gerenciador();
+        SplittableRandom aleatorio = new SplittableRandom(semente);
+        int total = filmes + series + livros;
+        int restantesFilmes = filmes;
+        int restantesSeries = series;
+        for (int i = 0; i < total; i++) {
+            //Intercala os tipos na proporção pedida, para cada trecho do catálogo ter os três
+            int sorteio = aleatorio.nextInt(total - i);
+            Conteudo conteudo;
+            if (sorteio < restantesFilmes) {
+                restantesFilmes--;
+                conteudo = new Filme(titulo("Filme", i, aleatorio), genero(aleatorio.nextInt(generos)),
+                        1950 + aleatorio.nextInt(75), "Diretor " + aleatorio.nextInt(500), 80 + aleatorio.nextInt(100));
+            } else if (sorteio < restantesFilmes + restantesSeries) {
+                restantesSeries--;
+                conteudo = new Serie(titulo("Série", i, aleatorio), genero(aleatorio.nextInt(generos)),
+                        1950 + aleatorio.nextInt(75), 1 + aleatorio.nextInt(10), 6 + aleatorio.nextInt(20));
+            } else {
+                conteudo = new Livro(titulo("Livro", i, aleatorio), genero(aleatorio.nextInt(generos)),
+                        1800 + aleatorio.nextInt(225), "Autor " + aleatorio.nextInt(2000), "Editora " + aleatorio.nextInt(50));
+            }
+
+            double qualidade = 1 + 4 * aleatorio.nextDouble();
+            for (int j = 0; j < avaliacoesPorTitulo; j++) {
+                int u = aleatorio.nextInt(usuarios);
+                int nota = (int) Math.round(qualidade + aleatorio.nextDouble() * 2 - 1);
+                Usuario usuario = gerenciador.obterUsuario("Usuário " + u, "usuario" + u + "@exemplo.com");
+                conteudo.adicionarAvaliacao(new Avaliacao(usuario, Math.max(1, Math.min(5, nota)),
+                        "comentário " + aleatorio.nextInt(100)));
+            }
+            gerenciador.adicionarConteudo(conteudo);
+        }
+        return gerenciador;
+    }
+
+    public void gerarArquivoTexto(Path caminho) throws IOException {
+        gerar().salvarConteudosComoTexto(caminho.toString());
+    }
+
+    public static String genero(int indice) {
+        return "Gênero " + indice;
+    }
+
+    private static String titulo(String tipo, int indice, SplittableRandom aleatorio) {
+        return tipo + " " + indice + " " + PALAVRAS[aleatorio.nextInt(PALAVRAS.length)]
+                + " " + PALAVRAS[aleatorio.nextInt(PALAVRAS.length)];
+    }
+}
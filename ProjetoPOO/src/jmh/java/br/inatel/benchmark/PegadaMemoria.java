@@ -0,0 +1,35 @@
+package br.inatel.benchmark;
+
+import br.inatel.models.Conteudo;
+import br.inatel.services.Gerenciador;
+
+//Memória ocupada pelo catálogo carregado, com as avaliações em objetos e em colunas.
+//Não é um benchmark JMH: mede o heap retido depois de coletar o lixo.
+//  java -Xmx8g -cp target/benchmarks.jar br.inatel.benchmark.PegadaMemoria [conteudos] [avaliacoesPorTitulo]
+public class PegadaMemoria {
+
+    public static void main(String[] args) {
+        int conteudos = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int avaliacoesPorTitulo = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        long avaliacoes = (long) conteudos * avaliacoesPorTitulo;
+
+        for (boolean colunar : new boolean[]{false, true}) {
+            Conteudo.setArmazenamentoColunar(colunar);
+            long antes = usado();
+            Gerenciador gerenciador = GeradorCatalogo.padrao(conteudos, avaliacoesPorTitulo).gerar();
+            long depois = usado();
+            System.out.printf("%-8s %,d conteúdos, %,d avaliações: %,d MiB (%d bytes por avaliação, com o catálogo)%n",
+                    colunar ? "colunar" : "objetos", gerenciador.getConteudos().size(), avaliacoes,
+                    (depois - antes) >> 20, (depois - antes) / avaliacoes);
+        }
+        Conteudo.setArmazenamentoColunar(false);
+    }
+
+    private static long usado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
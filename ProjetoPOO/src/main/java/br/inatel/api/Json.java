@@ -0,0 +1,233 @@
+package br.inatel.api;
+
+import br.inatel.models.*;
+import br.inatel.services.ResultadoFiltro;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Conversão mínima para JSON, sem dependências: escreve conteúdos e lê objetos planos (sem aninhamento)
+public final class Json {
+
+    private Json() {
+    }
+
+    public static String conteudo(Conteudo conteudo) {
+        StringBuilder sb = new StringBuilder(128);
+        escreverConteudo(sb, conteudo);
+        return sb.toString();
+    }
+
+    public static String lista(List<Conteudo> conteudos) {
+        StringBuilder sb = new StringBuilder(64 + conteudos.size() * 128);
+        sb.append('[');
+        for (int i = 0; i < conteudos.size(); i++) {
+            if (i > 0) sb.append(',');
+            escreverConteudo(sb, conteudos.get(i));
+        }
+        return sb.append(']').toString();
+    }
+
+    public static String avaliacoes(List<Avaliacao> avaliacoes) {
+        StringBuilder sb = new StringBuilder(64 + avaliacoes.size() * 64);
+        sb.append('[');
+        for (int i = 0; i < avaliacoes.size(); i++) {
+            Avaliacao a = avaliacoes.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"titulo\":");
+            texto(sb, a.getConteudo().getTitulo());
+            sb.append(",\"nota\":").append(a.getNota());
+            sb.append(",\"comentario\":");
+            texto(sb, a.getComentario());
+            sb.append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    //{"total":n,"conteudos":[...],"facetas":{"tipo":{...},"genero":{...},"decada":{...}}}
+    public static String resultadoFiltro(ResultadoFiltro resultado) {
+        StringBuilder sb = new StringBuilder(256 + resultado.conteudos().size() * 128);
+        sb.append("{\"total\":").append(resultado.total());
+        sb.append(",\"conteudos\":").append(lista(resultado.conteudos()));
+        sb.append(",\"facetas\":{\"tipo\":{");
+        boolean primeiro = true;
+        for (Map.Entry<TipoConteudo, Integer> entrada : resultado.porTipo().entrySet()) {
+            primeiro = contagem(sb, primeiro, entrada.getKey().getNome(), entrada.getValue());
+        }
+        sb.append("},\"genero\":{");
+        primeiro = true;
+        for (Map.Entry<String, Integer> entrada : resultado.porGenero().entrySet()) {
+            primeiro = contagem(sb, primeiro, entrada.getKey(), entrada.getValue());
+        }
+        sb.append("},\"decada\":{");
+        primeiro = true;
+        for (Map.Entry<Integer, Integer> entrada : resultado.porDecada().entrySet()) {
+            primeiro = contagem(sb, primeiro, String.valueOf(entrada.getKey()), entrada.getValue());
+        }
+        return sb.append("}}}").toString();
+    }
+
+    public static String mensagem(String chave, String valor) {
+        StringBuilder sb = new StringBuilder("{");
+        texto(sb, chave);
+        sb.append(':');
+        texto(sb, valor);
+        return sb.append('}').toString();
+    }
+
+    private static void escreverConteudo(StringBuilder sb, Conteudo c) {
+        sb.append("{\"tipo\":");
+        texto(sb, c.getTipo());
+        sb.append(",\"id\":").append(c.getId());
+        sb.append(",\"titulo\":");
+        texto(sb, c.getTitulo());
+        sb.append(",\"genero\":");
+        texto(sb, c.getGenero());
+        sb.append(",\"anoLancamento\":").append(c.getAnoLancamento());
+        if (c instanceof Filme filme) {
+            sb.append(",\"diretor\":");
+            texto(sb, filme.getDiretor());
+            sb.append(",\"duracao\":").append(filme.getDuracao());
+        } else if (c instanceof Serie serie) {
+            sb.append(",\"temporadas\":").append(serie.getTemporadas());
+            sb.append(",\"episodios\":").append(serie.getEpisodios());
+        } else if (c instanceof Livro livro) {
+            sb.append(",\"autor\":");
+            texto(sb, livro.getAutor());
+            sb.append(",\"editora\":");
+            texto(sb, livro.getEditora());
+        }
+        sb.append(",\"notaMedia\":").append(c.getNotaMedia());
+        sb.append(",\"totalAvaliacoes\":").append(c.getTotalAvaliacoes());
+        sb.append('}');
+    }
+
+    private static boolean contagem(StringBuilder sb, boolean primeiro, String chave, int valor) {
+        if (!primeiro) sb.append(',');
+        texto(sb, chave);
+        sb.append(':').append(valor);
+        return false;
+    }
+
+    private static void texto(StringBuilder sb, String valor) {
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    //Lê um objeto JSON plano, {"chave": "texto" | número | true | false | null, ...}, como texto
+    public static Map<String, String> lerObjeto(String json) {
+        return lerObjeto(new Leitor(json));
+    }
+
+    //Lê uma lista de objetos planos, como a devolvida pelo servidor
+    public static List<Map<String, String>> lerLista(String json) {
+        Leitor leitor = new Leitor(json);
+        List<Map<String, String>> objetos = new ArrayList<>();
+        leitor.esperar('[');
+        if (leitor.proximo() == ']') return objetos;
+        while (true) {
+            objetos.add(lerObjeto(leitor));
+            char c = leitor.proximo();
+            leitor.posicao++;
+            if (c == ']') return objetos;
+            if (c != ',') throw new IllegalArgumentException("JSON inválido na posição " + leitor.posicao);
+        }
+    }
+
+    private static Map<String, String> lerObjeto(Leitor leitor) {
+        Map<String, String> campos = new HashMap<>();
+        leitor.esperar('{');
+        if (leitor.proximo() == '}') {
+            leitor.posicao++;
+            return campos;
+        }
+        while (true) {
+            String chave = leitor.texto();
+            leitor.esperar(':');
+            String valor = leitor.proximo() == '"' ? leitor.texto() : leitor.literal();
+            campos.put(chave, valor);
+            char c = leitor.proximo();
+            leitor.posicao++;
+            if (c == '}') return campos;
+            if (c != ',') throw new IllegalArgumentException("JSON inválido na posição " + leitor.posicao);
+        }
+    }
+
+    private static class Leitor {
+        private final String json;
+        private int posicao;
+
+        Leitor(String json) {
+            this.json = json;
+        }
+
+        char proximo() {
+            while (posicao < json.length() && Character.isWhitespace(json.charAt(posicao))) posicao++;
+            if (posicao >= json.length()) throw new IllegalArgumentException("JSON incompleto.");
+            return json.charAt(posicao);
+        }
+
+        void esperar(char esperado) {
+            if (proximo() != esperado) {
+                throw new IllegalArgumentException("JSON inválido: esperado '" + esperado + "' na posição " + posicao);
+            }
+            posicao++;
+        }
+
+        String texto() {
+            esperar('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                if (posicao >= json.length()) throw new IllegalArgumentException("JSON incompleto.");
+                char c = json.charAt(posicao++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char escape = json.charAt(posicao++);
+                switch (escape) {
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        sb.append((char) Integer.parseInt(json, posicao, posicao + 4, 16));
+                        posicao += 4;
+                    }
+                    default -> sb.append(escape); // \" \\ \/
+                }
+            }
+        }
+
+        String literal() {
+            proximo();
+            int inicio = posicao;
+            while (posicao < json.length() && ",}".indexOf(json.charAt(posicao)) < 0
+                    && !Character.isWhitespace(json.charAt(posicao))) {
+                posicao++;
+            }
+            return json.substring(inicio, posicao);
+        }
+    }
+}
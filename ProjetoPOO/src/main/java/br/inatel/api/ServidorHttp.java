@@ -0,0 +1,318 @@
+package br.inatel.api;
+
+import br.inatel.exceptions.ConteudoNaoEncontradoException;
+import br.inatel.exceptions.NotaInvalidaException;
+import br.inatel.models.*;
+import br.inatel.services.EstrategiaRanking;
+import br.inatel.services.FiltroConteudos;
+import br.inatel.services.Gerenciador;
+import br.inatel.services.ParserRegistros;
+import br.inatel.services.Rankings;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//API HTTP/JSON local sobre o Gerenciador. Cada requisição roda na sua própria thread virtual,
+//então milhares de clientes simultâneos não precisam de milhares de threads do sistema.
+//  GET    /conteudos?q=texto&pagina=0&tamanho=20   pesquisa por título
+//  GET    /conteudos?titulo=X                      um conteúdo pelo título exato
+//  POST   /conteudos                               {"tipo":"Filme|Serie|Livro","titulo":..., ...}
+//  DELETE /conteudos?titulo=X
+//  GET    /top?n=5&ranking=bayesiana                ranking: media, bayesiana, wilson ou recente (opcional)
+//  GET    /genero?nome=Drama&ranking=wilson&pagina=0&tamanho=20   sem pagina: o gênero inteiro
+//  GET    /tipo?nome=Filme&ranking=media&pagina=0&tamanho=20
+//  GET    /filtro?tipo=Filme&genero=Drama&anoMin=1990&anoMax=1999&duracaoMin=90&notaMinima=4&ordem=nota&pagina=0&tamanho=20
+//         também autor, duracaoMax, temporadasMin/Max e episodiosMin/Max; todos opcionais.
+//         ordem: insercao, titulo, ano_crescente, ano_decrescente ou nota. Devolve a página e as contagens.
+//  GET    /avaliacoes?email=X                      avaliações feitas pelo usuário
+//  POST   /avaliacoes                              {"titulo","nome","email","nota","comentario"}
+//Campos de texto com ';' ou quebra de linha (no comentário, só a quebra) dão 400: não voltariam do arquivo de dados.
+public class ServidorHttp {
+    private static final int FILA_CONEXOES = 1024;
+
+    static {
+        //Sem TCP_NODELAY o corpo da resposta espera o ACK atrasado do cliente (~40 ms por requisição)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private HttpServer servidor;
+    private ExecutorService executor;
+    private Gerenciador gerenciador;
+
+    public ServidorHttp(Gerenciador gerenciador, int porta) throws IOException {
+        this.gerenciador = gerenciador;
+        this.servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta), FILA_CONEXOES);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        servidor.setExecutor(executor);
+        servidor.createContext("/conteudos", tratar(this::conteudos));
+        servidor.createContext("/top", tratar(this::top));
+        servidor.createContext("/genero", tratar(this::genero));
+        servidor.createContext("/tipo", tratar(this::tipo));
+        servidor.createContext("/filtro", tratar(this::filtro));
+        servidor.createContext("/avaliacoes", tratar(this::avaliacoes));
+    }
+
+    public void iniciar() {
+        servidor.start();
+    }
+
+    public void parar() {
+        servidor.stop(1);
+        executor.shutdown();
+    }
+
+    public int getPorta() {
+        return servidor.getAddress().getPort();
+    }
+
+    private interface Rota {
+        void atender(HttpExchange troca) throws IOException;
+    }
+
+    //Converte as exceções do domínio em códigos HTTP
+    private HttpHandler tratar(Rota rota) {
+        return troca -> {
+            try (troca) {
+                try {
+                    rota.atender(troca);
+                } catch (ConteudoNaoEncontradoException e) {
+                    responder(troca, 404, Json.mensagem("erro", e.getMessage()));
+                } catch (NotaInvalidaException | IllegalArgumentException e) {
+                    responder(troca, 400, Json.mensagem("erro", e.getMessage()));
+                } catch (Exception e) {
+                    System.err.println("Erro na requisição " + troca.getRequestURI() + ": " + e.getMessage());
+                    responder(troca, 500, Json.mensagem("erro", "Erro interno."));
+                }
+            }
+        };
+    }
+
+    private void conteudos(HttpExchange troca) throws IOException {
+        Map<String, String> parametros = parametros(troca);
+        switch (troca.getRequestMethod()) {
+            case "GET" -> {
+                String titulo = parametros.get("titulo");
+                if (titulo != null) {
+                    Conteudo conteudo = gerenciador.buscarPorTitulo(titulo)
+                            .orElseThrow(() -> new ConteudoNaoEncontradoException("Conteúdo não encontrado."));
+                    responder(troca, 200, Json.conteudo(conteudo));
+                } else {
+                    int pagina = inteiro(parametros, "pagina", 0);
+                    int tamanho = inteiro(parametros, "tamanho", 20);
+                    responder(troca, 200, Json.lista(gerenciador.pesquisarPorTitulo(parametros.getOrDefault("q", ""), pagina, tamanho)));
+                }
+            }
+            case "POST" -> {
+                Conteudo conteudo = paraConteudo(Json.lerObjeto(corpo(troca)));
+                if (gerenciador.adicionarConteudo(conteudo)) {
+                    responder(troca, 201, Json.conteudo(conteudo));
+                } else {
+                    responder(troca, 409, Json.mensagem("erro", "O conteúdo com esse título já está adicionado."));
+                }
+            }
+            case "DELETE" -> {
+                if (!gerenciador.removerConteudo(obrigatorio(parametros, "titulo"))) {
+                    throw new ConteudoNaoEncontradoException("Conteúdo não encontrado.");
+                }
+                responder(troca, 204, null);
+            }
+            default -> metodoNaoPermitido(troca);
+        }
+    }
+
+    private void top(HttpExchange troca) throws IOException {
+        if (!troca.getRequestMethod().equals("GET")) {
+            metodoNaoPermitido(troca);
+            return;
+        }
+        Map<String, String> parametros = parametros(troca);
+        int n = inteiro(parametros, "n", 5);
+        EstrategiaRanking ranking = ranking(parametros);
+        responder(troca, 200, Json.lista(ranking == null ? gerenciador.recomendarTop(n) : gerenciador.recomendarTop(n, ranking)));
+    }
+
+    private void genero(HttpExchange troca) throws IOException {
+        if (!troca.getRequestMethod().equals("GET")) {
+            metodoNaoPermitido(troca);
+            return;
+        }
+        Map<String, String> parametros = parametros(troca);
+        String nome = obrigatorio(parametros, "nome");
+        EstrategiaRanking ranking = ranking(parametros);
+        if (ranking == null) ranking = Rankings.MEDIA;
+        if (parametros.containsKey("pagina")) {
+            int pagina = inteiro(parametros, "pagina", 0);
+            int tamanho = inteiro(parametros, "tamanho", 20);
+            responder(troca, 200, Json.lista(gerenciador.recomendarPorGenero(nome, ranking, pagina, tamanho)));
+        } else {
+            responder(troca, 200, Json.lista(gerenciador.recomendarPorGenero(nome, ranking)));
+        }
+    }
+
+    private void tipo(HttpExchange troca) throws IOException {
+        if (!troca.getRequestMethod().equals("GET")) {
+            metodoNaoPermitido(troca);
+            return;
+        }
+        Map<String, String> parametros = parametros(troca);
+        EstrategiaRanking ranking = ranking(parametros);
+        int pagina = inteiro(parametros, "pagina", 0);
+        int tamanho = inteiro(parametros, "tamanho", 20);
+        responder(troca, 200, Json.lista(gerenciador.recomendarPorTipo(obrigatorio(parametros, "nome"),
+                ranking == null ? Rankings.MEDIA : ranking, pagina, tamanho)));
+    }
+
+    private void filtro(HttpExchange troca) throws IOException {
+        if (!troca.getRequestMethod().equals("GET")) {
+            metodoNaoPermitido(troca);
+            return;
+        }
+        Map<String, String> parametros = parametros(troca);
+        FiltroConteudos filtro = new FiltroConteudos()
+                .genero(parametros.get("genero"))
+                .autor(parametros.get("autor"))
+                .anos(inteiro(parametros, "anoMin", Integer.MIN_VALUE), inteiro(parametros, "anoMax", Integer.MAX_VALUE))
+                .duracao(inteiro(parametros, "duracaoMin", Integer.MIN_VALUE), inteiro(parametros, "duracaoMax", Integer.MAX_VALUE))
+                .temporadas(inteiro(parametros, "temporadasMin", Integer.MIN_VALUE), inteiro(parametros, "temporadasMax", Integer.MAX_VALUE))
+                .episodios(inteiro(parametros, "episodiosMin", Integer.MIN_VALUE), inteiro(parametros, "episodiosMax", Integer.MAX_VALUE))
+                .notaMinima(decimal(parametros, "notaMinima", 0))
+                .pagina(inteiro(parametros, "pagina", 0), inteiro(parametros, "tamanho", 20));
+        String tipo = parametros.get("tipo");
+        if (tipo != null) {
+            filtro.tipo(TipoConteudo.deNome(tipo).orElseThrow(() -> new IllegalArgumentException("Tipo inválido: " + tipo)));
+        }
+        String ordem = parametros.get("ordem");
+        if (ordem != null) {
+            try {
+                filtro.ordenarPor(FiltroConteudos.Ordem.valueOf(ordem.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Ordem inválida: " + ordem);
+            }
+        }
+        responder(troca, 200, Json.resultadoFiltro(gerenciador.filtrar(filtro)));
+    }
+
+    private void avaliacoes(HttpExchange troca) throws IOException {
+        if (troca.getRequestMethod().equals("GET")) {
+            responder(troca, 200, Json.avaliacoes(gerenciador.avaliacoesDoUsuario(obrigatorio(parametros(troca), "email"))));
+            return;
+        }
+        if (!troca.getRequestMethod().equals("POST")) {
+            metodoNaoPermitido(troca);
+            return;
+        }
+        Map<String, String> campos = Json.lerObjeto(corpo(troca));
+        Conteudo conteudo = gerenciador.buscarPorTitulo(obrigatorio(campos, "titulo"))
+                .orElseThrow(() -> new ConteudoNaoEncontradoException("Conteúdo não encontrado."));
+        int nota = inteiro(campos, "nota", 0);
+        if (nota < 1 || nota > 5) {
+            throw new NotaInvalidaException("Nota deve estar entre 1 e 5.");
+        }
+        String nome = obrigatorio(campos, "nome");
+        String email = obrigatorio(campos, "email");
+        String comentario = campos.getOrDefault("comentario", "");
+        ParserRegistros.validarAvaliacao(nome, email, comentario); //antes de o usuário entrar no registro
+        Usuario usuario = gerenciador.obterUsuario(nome, email);
+        gerenciador.avaliar(conteudo, usuario, nome, email, nota, comentario);
+        responder(troca, 201, Json.conteudo(conteudo));
+    }
+
+    private static Conteudo paraConteudo(Map<String, String> campos) {
+        String titulo = obrigatorio(campos, "titulo");
+        String genero = obrigatorio(campos, "genero");
+        int ano = inteiro(campos, "anoLancamento", 0);
+        TipoConteudo tipo = TipoConteudo.deNome(obrigatorio(campos, "tipo"))
+                .orElseThrow(() -> new IllegalArgumentException("Tipo inválido."));
+        return switch (tipo) {
+            case FILME -> new Filme(titulo, genero, ano, obrigatorio(campos, "diretor"), inteiro(campos, "duracao", 0));
+            case SERIE -> new Serie(titulo, genero, ano, inteiro(campos, "temporadas", 0), inteiro(campos, "episodios", 0));
+            case LIVRO -> new Livro(titulo, genero, ano, obrigatorio(campos, "autor"), obrigatorio(campos, "editora"));
+        };
+    }
+
+    private static EstrategiaRanking ranking(Map<String, String> parametros) {
+        String valor = parametros.get("ranking");
+        if (valor == null) return null;
+        try {
+            return Rankings.valueOf(valor.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Ranking inválido: " + valor);
+        }
+    }
+
+    private static String obrigatorio(Map<String, String> campos, String nome) {
+        String valor = campos.get(nome);
+        if (valor == null) {
+            throw new IllegalArgumentException("Campo obrigatório ausente: " + nome);
+        }
+        return valor;
+    }
+
+    private static int inteiro(Map<String, String> campos, String nome, int padrao) {
+        String valor = campos.get(nome);
+        if (valor == null) return padrao;
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para " + nome + ": " + valor);
+        }
+    }
+
+    private static double decimal(Map<String, String> campos, String nome, double padrao) {
+        String valor = campos.get(nome);
+        if (valor == null) return padrao;
+        try {
+            return Double.parseDouble(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para " + nome + ": " + valor);
+        }
+    }
+
+    private static Map<String, String> parametros(HttpExchange troca) {
+        Map<String, String> parametros = new HashMap<>();
+        String consulta = troca.getRequestURI().getRawQuery();
+        if (consulta == null) return parametros;
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            String chave = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(URLDecoder.decode(chave, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+
+    private static String corpo(HttpExchange troca) throws IOException {
+        return new String(troca.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static void metodoNaoPermitido(HttpExchange troca) throws IOException {
+        responder(troca, 405, Json.mensagem("erro", "Método não permitido."));
+    }
+
+    private static void responder(HttpExchange troca, int status, String json) throws IOException {
+        if (json == null) {
+            troca.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        troca.sendResponseHeaders(status, bytes.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package br.inatel.app;
+
+import br.inatel.api.Json;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+//Gera carga contra o ServidorHttp e mede vazão e latência (p50/p99).
+//Uso: GeradorDeCarga [url base] [clientes simultâneos] [segundos]
+//Mistura: 40% pesquisa, 30% top 5, 20% por gênero, 10% avaliações.
+public class GeradorDeCarga {
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clientes = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        //Títulos e gêneros reais para montar as requisições
+        String catalogo = cliente.send(HttpRequest.newBuilder(URI.create(base + "/conteudos?q=&tamanho=500")).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        List<String> titulos = valores(catalogo, "titulo");
+        List<String> generos = new ArrayList<>(new LinkedHashSet<>(valores(catalogo, "genero")));
+        if (titulos.isEmpty()) {
+            System.err.println("O servidor não tem conteúdos para usar no teste.");
+            return;
+        }
+
+        long fim = System.nanoTime() + segundos * 1_000_000_000L;
+        List<Future<Medicoes>> tarefas = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clientes; i++) {
+                tarefas.add(executor.submit(() -> simularCliente(cliente, base, titulos, generos, fim)));
+            }
+        }
+
+        Medicoes total = new Medicoes();
+        for (Future<Medicoes> tarefa : tarefas) {
+            total.juntar(tarefa.get());
+        }
+        long[] latencias = Arrays.copyOf(total.latencias, total.quantidade);
+        Arrays.sort(latencias);
+
+        System.out.println("Clientes: " + clientes + ", duração: " + segundos + " s");
+        System.out.println("Requisições: " + latencias.length + " (erros: " + total.erros + ")");
+        System.out.printf("Vazão: %.1f req/s%n", latencias.length / (double) segundos);
+        if (latencias.length > 0) {
+            System.out.printf("Latência p50: %.2f ms, p99: %.2f ms, máx: %.2f ms%n",
+                    percentil(latencias, 0.50), percentil(latencias, 0.99), latencias[latencias.length - 1] / 1e6);
+        }
+    }
+
+    private static Medicoes simularCliente(HttpClient cliente, String base, List<String> titulos,
+                                           List<String> generos, long fim) {
+        Medicoes medicoes = new Medicoes();
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        while (System.nanoTime() < fim) {
+            String titulo = titulos.get(aleatorio.nextInt(titulos.size()));
+            int sorteio = aleatorio.nextInt(100);
+            HttpRequest requisicao;
+            if (sorteio < 40) {
+                String parte = titulo.substring(0, Math.min(titulo.length(), 4));
+                requisicao = HttpRequest.newBuilder(URI.create(base + "/conteudos?q=" + codificar(parte))).build();
+            } else if (sorteio < 70) {
+                requisicao = HttpRequest.newBuilder(URI.create(base + "/top?n=5")).build();
+            } else if (sorteio < 90) {
+                String genero = generos.get(aleatorio.nextInt(generos.size()));
+                requisicao = HttpRequest.newBuilder(URI.create(base + "/genero?nome=" + codificar(genero))).build();
+            } else {
+                String corpo = "{\"titulo\":" + texto(titulo) + ",\"nome\":\"Carga\",\"email\":\"carga@teste.com\","
+                        + "\"nota\":" + (1 + aleatorio.nextInt(5)) + ",\"comentario\":\"gerado\"}";
+                requisicao = HttpRequest.newBuilder(URI.create(base + "/avaliacoes"))
+                        .POST(HttpRequest.BodyPublishers.ofString(corpo)).build();
+            }
+
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<Void> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+                if (resposta.statusCode() >= 400) medicoes.erros++;
+            } catch (Exception e) {
+                medicoes.erros++;
+            }
+            medicoes.registrar(System.nanoTime() - inicio);
+        }
+        return medicoes;
+    }
+
+    private static class Medicoes {
+        private long[] latencias = new long[1024];
+        private int quantidade;
+        private long erros;
+
+        void registrar(long nanos) {
+            if (quantidade == latencias.length) latencias = Arrays.copyOf(latencias, quantidade * 2);
+            latencias[quantidade++] = nanos;
+        }
+
+        void juntar(Medicoes outra) {
+            for (int i = 0; i < outra.quantidade; i++) registrar(outra.latencias[i]);
+            erros += outra.erros;
+        }
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)] / 1e6;
+    }
+
+    //Extrai os valores de um campo texto da lista JSON devolvida pelo servidor
+    private static List<String> valores(String lista, String campo) {
+        List<String> valores = new ArrayList<>();
+        for (Map<String, String> objeto : Json.lerLista(lista)) {
+            if (objeto.containsKey(campo)) valores.add(objeto.get(campo));
+        }
+        return valores;
+    }
+
+    private static String codificar(String texto) {
+        return URLEncoder.encode(texto, StandardCharsets.UTF_8);
+    }
+
+    private static String texto(String valor) {
+        return "\"" + valor.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
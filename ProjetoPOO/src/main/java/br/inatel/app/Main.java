@@ -1,26 +1,93 @@
 package br.inatel.app;
 
+import br.inatel.api.ServidorHttp;
+import br.inatel.metricas.GerenciadorInstrumentado;
+import br.inatel.models.Conteudo;
 import br.inatel.services.Gerenciador;
 import br.inatel.ui.InterfaceUsuario;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Scanner;
+import javax.management.JMException;
 
 public class Main {
 
     private static final String ARQUIVO_DADOS = "dados/conteudos.txt";
+    private static final String ARQUIVO_DIARIO = "dados/diario.log";
+    private static final long INTERVALO_COMPACTACAO_SEGUNDOS = 60;
+    private static final long TAMANHO_COMPACTACAO = 8L * 1024 * 1024; //compacta o diário quando passar disso
+    private static final long INTERVALO_SNAPSHOT_SEGUNDOS = 300; //-Dsnapshot.intervalo=N muda; 0 desliga
+    private static final int PORTA_PADRAO = 8080;
+    private static final long TAMANHO_CARGA_PARALELA = 64L * 1024 * 1024; //a partir daqui compensa carregar em paralelo
+    private static final long LIMITE_AVALIACOES_EM_CACHE = 500_000; //carga sob demanda; -Davaliacoes.cache=N muda
 
     public static void main(String[] args) {
+        // -Davaliacoes.colunar=true: guarda as avaliações em colunas (menos memória com muitos milhões delas)
+        Conteudo.setArmazenamentoColunar(Boolean.getBoolean("avaliacoes.colunar"));
+
         Scanner scanner = new Scanner(System.in);
-        Gerenciador gerenciador = new Gerenciador();
+        GerenciadorInstrumentado gerenciador = new GerenciadorInstrumentado();
+
+        // Métricas por JMX (jconsole/VisualVM) e, com -Dmetricas.intervalo=N, um relatório a cada N segundos
+        try {
+            gerenciador.getMetricas().registrarNoJmx();
+        } catch (JMException e) {
+            System.err.println("Erro ao registrar as métricas no JMX: " + e.getMessage());
+        }
+        long intervaloMetricas = Long.getLong("metricas.intervalo", 0);
+        if (intervaloMetricas > 0) {
+            gerenciador.getMetricas().iniciarRelatorioPeriodico(intervaloMetricas, System.out);
+        }
 
         // Carregar dados salvos (se existir)
         try {
-            gerenciador.carregarConteudosDeTexto(ARQUIVO_DADOS);
+            // -Davaliacoes.sobDemanda=true: as listas de avaliações só são lidas do arquivo quando pedidas
+            if (Boolean.getBoolean("avaliacoes.sobDemanda")) {
+                gerenciador.carregarConteudosSobDemanda(ARQUIVO_DADOS, Long.getLong("avaliacoes.cache", LIMITE_AVALIACOES_EM_CACHE));
+            } else if (Files.exists(Paths.get(ARQUIVO_DADOS)) && Files.size(Paths.get(ARQUIVO_DADOS)) >= TAMANHO_CARGA_PARALELA) {
+                gerenciador.carregarConteudosEmParalelo(ARQUIVO_DADOS, Runtime.getRuntime().availableProcessors());
+            } else {
+                gerenciador.carregarConteudosDeTexto(ARQUIVO_DADOS);
+            }
             System.out.println("Dados carregados com sucesso!");
         } catch (IOException e) {
             System.out.println("Nenhum dado salvo encontrado, iniciando com dados vazios.");
         }
 
+        // Reaplicar as operações que ficaram só no diário (ex.: o programa caiu antes de salvar)
+        try {
+            gerenciador.abrirDiario(ARQUIVO_DIARIO, ARQUIVO_DADOS, INTERVALO_COMPACTACAO_SEGUNDOS, TAMANHO_COMPACTACAO);
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir o diário de operações: " + e.getMessage());
+        }
+
+        // Salvar em segundo plano de tempos em tempos (só se algo mudou), sem parar quem está usando
+        long intervaloSnapshot = Long.getLong("snapshot.intervalo", INTERVALO_SNAPSHOT_SEGUNDOS);
+        if (intervaloSnapshot > 0) {
+            gerenciador.iniciarSnapshotsPeriodicos(ARQUIVO_DADOS, intervaloSnapshot);
+        }
+
+        if (args.length > 0 && args[0].equals("--http")) {
+            // Modo servidor: atende a API HTTP até o processo receber Ctrl+C
+            int porta = args.length > 1 ? Integer.parseInt(args[1]) : PORTA_PADRAO;
+            try {
+                ServidorHttp servidor = new ServidorHttp(gerenciador, porta);
+                servidor.iniciar();
+                System.out.println("Servidor HTTP em http://localhost:" + servidor.getPorta());
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    servidor.parar();
+                    salvar(gerenciador);
+                }));
+                Thread.currentThread().join();
+            } catch (IOException e) {
+                System.err.println("Erro ao iniciar o servidor HTTP: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+
         // Inicializar UI
         InterfaceUsuario ui = new InterfaceUsuario(scanner, gerenciador);
 
@@ -28,14 +95,20 @@ public class Main {
         ui.iniciar();
 
         // Salvar dados ao final da execução
+        salvar(gerenciador);
+
+        scanner.close();
+    }
+
+    private static void salvar(Gerenciador gerenciador) {
+        gerenciador.pararSnapshotsPeriodicos();
         try {
             gerenciador.salvarConteudosComoTexto(ARQUIVO_DADOS);
             System.out.println("Dados salvos com sucesso!");
+            gerenciador.fecharDiario();
         } catch (IOException e) {
             System.err.println("Erro ao salvar dados: " + e.getMessage());
         }
-
-        scanner.close();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,465 @@
+package br.inatel.metricas;
+
+import br.inatel.models.Avaliacao;
+import br.inatel.models.Conteudo;
+import br.inatel.models.TipoConteudo;
+import br.inatel.models.Usuario;
+import br.inatel.services.EstrategiaRanking;
+import br.inatel.services.FiltroConteudos;
+import br.inatel.services.Gerenciador;
+import br.inatel.services.RegistroAvaliacao;
+import br.inatel.services.ResultadoFiltro;
+import br.inatel.services.ResultadoImportacao;
+import br.inatel.services.ResultadoSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+//Gerenciador que mede cada operação pública: tempo (histograma), chamadas e exceções lançadas.
+//As sobrecargas de conveniência (ex.: recomendarPorGenero(genero), listarPorTipo("Serie")) caem na versão completa
+//e contam uma vez só.
+//O custo por chamada são dois System.nanoTime() e alguns incrementos atômicos, sem lock nem alocação.
+public class GerenciadorInstrumentado extends Gerenciador {
+    private final Metricas metricas;
+    private final MetricasOperacao contem;
+    private final MetricasOperacao busca;
+    private final MetricasOperacao porGenero;
+    private final MetricasOperacao porTipo;
+    private final MetricasOperacao listagemPorTipo;
+    private final MetricasOperacao filtragem;
+    private final MetricasOperacao top;
+    private final MetricasOperacao topPorRanking;
+    private final MetricasOperacao pesquisa;
+    private final MetricasOperacao paraUsuario;
+    private final MetricasOperacao avaliacoesUsuario;
+    private final MetricasOperacao obtencaoUsuario;
+    private final MetricasOperacao adicao;
+    private final MetricasOperacao avaliacao;
+    private final MetricasOperacao remocao;
+    private final MetricasOperacao remocaoEmMassa;
+    private final MetricasOperacao salvarTexto;
+    private final MetricasOperacao snapshot;
+    private final MetricasOperacao snapshotSemAlteracao;
+    private final MetricasOperacao pausaSnapshot;
+    private final MetricasOperacao carregarTexto;
+    private final MetricasOperacao carregarParalelo;
+    private final MetricasOperacao carregarSobDemanda;
+    private final MetricasOperacao salvarBinario;
+    private final MetricasOperacao carregarBinario;
+    private final MetricasOperacao compactacao;
+    private final MetricasOperacao importacao;
+    private final MetricasOperacao importacaoArquivo;
+
+    public GerenciadorInstrumentado() {
+        this.metricas = new Metricas(this);
+        this.contem = metricas.operacao("contemConteudo");
+        this.busca = metricas.operacao("buscarPorTitulo");
+        this.porGenero = metricas.operacao("recomendarPorGenero");
+        this.porTipo = metricas.operacao("recomendarPorTipo");
+        this.listagemPorTipo = metricas.operacao("listarPorTipo");
+        this.filtragem = metricas.operacao("filtrar");
+        this.top = metricas.operacao("recomendarTop");
+        this.topPorRanking = metricas.operacao("recomendarTopPorRanking");
+        this.pesquisa = metricas.operacao("pesquisarPorTitulo");
+        this.paraUsuario = metricas.operacao("recomendarParaUsuario");
+        this.avaliacoesUsuario = metricas.operacao("avaliacoesDoUsuario");
+        this.obtencaoUsuario = metricas.operacao("obterUsuario");
+        this.adicao = metricas.operacao("adicionarConteudo");
+        this.avaliacao = metricas.operacao("avaliar");
+        this.remocao = metricas.operacao("removerConteudo");
+        this.remocaoEmMassa = metricas.operacao("removerConteudos");
+        this.salvarTexto = metricas.operacao("salvarConteudosComoTexto");
+        this.snapshot = metricas.operacao("salvarSeAlterado");
+        this.snapshotSemAlteracao = metricas.operacao("salvarSeAlterado.semAlteracao");
+        this.pausaSnapshot = metricas.operacao("salvarSeAlterado.pausa");
+        this.carregarTexto = metricas.operacao("carregarConteudosDeTexto");
+        this.carregarParalelo = metricas.operacao("carregarConteudosEmParalelo");
+        this.carregarSobDemanda = metricas.operacao("carregarConteudosSobDemanda");
+        this.salvarBinario = metricas.operacao("salvarSnapshotBinario");
+        this.carregarBinario = metricas.operacao("carregarSnapshotBinario");
+        this.compactacao = metricas.operacao("compactarDiario");
+        this.importacao = metricas.operacao("importarAvaliacoes");
+        this.importacaoArquivo = metricas.operacao("importarAvaliacoesDeArquivo");
+    }
+
+    public Metricas getMetricas() {
+        return metricas;
+    }
+
+    @Override
+    public boolean contemConteudo(String titulo) {
+        long inicio = System.nanoTime();
+        try {
+            return super.contemConteudo(titulo);
+        } catch (RuntimeException e) {
+            contem.registrarErro();
+            throw e;
+        } finally {
+            contem.registrar(inicio);
+        }
+    }
+
+    @Override
+    public Optional<Conteudo> buscarPorTitulo(String titulo) {
+        long inicio = System.nanoTime();
+        try {
+            return super.buscarPorTitulo(titulo);
+        } catch (RuntimeException e) {
+            busca.registrarErro();
+            throw e;
+        } finally {
+            busca.registrar(inicio);
+        }
+    }
+
+    @Override
+    public List<Conteudo> recomendarPorGenero(String genero, EstrategiaRanking estrategia, int pagina, int tamanhoPagina) {
+        long inicio = System.nanoTime();
+        try {
+            return super.recomendarPorGenero(genero, estrategia, pagina, tamanhoPagina);
+        } catch (RuntimeException e) {
+            porGenero.registrarErro();
+            throw e;
+        } finally {
+            porGenero.registrar(inicio);
+        }
+    }
+
+    @Override
+    public List<Conteudo> recomendarPorTipo(TipoConteudo tipo, EstrategiaRanking estrategia, int pagina, int tamanhoPagina) {
+        long inicio = System.nanoTime();
+        try {
+            return super.recomendarPorTipo(tipo, estrategia, pagina, tamanhoPagina);
+        } catch (RuntimeException e) {
+            porTipo.registrarErro();
+            throw e;
+        } finally {
+            porTipo.registrar(inicio);
+        }
+    }
+
+    @Override
+    public ResultadoFiltro filtrar(FiltroConteudos filtro) {
+        long inicio = System.nanoTime();
+        try {
+            return super.filtrar(filtro);
+        } catch (RuntimeException e) {
+            filtragem.registrarErro();
+            throw e;
+        } finally {
+            filtragem.registrar(inicio);
+        }
+    }
+
+    @Override
+    public List<Conteudo> listarPorTipo(TipoConteudo tipo) {
+        long inicio = System.nanoTime();
+        try {
+            return super.listarPorTipo(tipo);
+        } catch (RuntimeException e) {
+            listagemPorTipo.registrarErro();
+            throw e;
+        } finally {
+            listagemPorTipo.registrar(inicio);
+        }
+    }
+
+    @Override
+    public List<Conteudo> recomendarTop(int topN) {
+        long inicio = System.nanoTime();
+        try {
+            return super.recomendarTop(topN);
+        } catch (RuntimeException e) {
+            top.registrarErro();
+            throw e;
+        } finally {
+            top.registrar(inicio);
+        }
+    }
+
+    @Override
+    public List<Conteudo> recomendarTop(int topN, EstrategiaRanking estrategia) {
+        long inicio = System.nanoTime();
+        try {
+            return super.recomendarTop(topN, estrategia);
+        } catch (RuntimeException e) {
+            topPorRanking.registrarErro();
+            throw e;
+        } finally {
+            topPorRanking.registrar(inicio);
+        }
+    }
+
+    @Override
+    public List<Conteudo> pesquisarPorTitulo(String titulo, int pagina, int tamanhoPagina) {
+        long inicio = System.nanoTime();
+        try {
+            return super.pesquisarPorTitulo(titulo, pagina, tamanhoPagina);
+        } catch (RuntimeException e) {
+            pesquisa.registrarErro();
+            throw e;
+        } finally {
+            pesquisa.registrar(inicio);
+        }
+    }
+
+    @Override
+    public List<Conteudo> recomendarParaUsuario(String email, int quantidade) {
+        long inicio = System.nanoTime();
+        try {
+            return super.recomendarParaUsuario(email, quantidade);
+        } catch (RuntimeException e) {
+            paraUsuario.registrarErro();
+            throw e;
+        } finally {
+            paraUsuario.registrar(inicio);
+        }
+    }
+
+    @Override
+    public List<Avaliacao> avaliacoesDoUsuario(String email) {
+        long inicio = System.nanoTime();
+        try {
+            return super.avaliacoesDoUsuario(email);
+        } catch (RuntimeException e) {
+            avaliacoesUsuario.registrarErro();
+            throw e;
+        } finally {
+            avaliacoesUsuario.registrar(inicio);
+        }
+    }
+
+    @Override
+    public Usuario obterUsuario(String nome, String email) {
+        long inicio = System.nanoTime();
+        try {
+            return super.obterUsuario(nome, email);
+        } catch (RuntimeException e) {
+            obtencaoUsuario.registrarErro();
+            throw e;
+        } finally {
+            obtencaoUsuario.registrar(inicio);
+        }
+    }
+
+    @Override
+    public boolean adicionarConteudo(Conteudo conteudo) {
+        long inicio = System.nanoTime();
+        try {
+            return super.adicionarConteudo(conteudo);
+        } catch (RuntimeException e) {
+            adicao.registrarErro();
+            throw e;
+        } finally {
+            adicao.registrar(inicio);
+        }
+    }
+
+    @Override //a versão sem nome e email passa por esta
+    public void avaliar(Conteudo conteudo, Usuario usuario, String nome, String email, int nota, String comentario) {
+        long inicio = System.nanoTime();
+        try {
+            super.avaliar(conteudo, usuario, nome, email, nota, comentario);
+        } catch (RuntimeException e) {
+            avaliacao.registrarErro();
+            throw e;
+        } finally {
+            avaliacao.registrar(inicio);
+        }
+    }
+
+    @Override
+    public boolean removerConteudo(String titulo) {
+        long inicio = System.nanoTime();
+        try {
+            return super.removerConteudo(titulo);
+        } catch (RuntimeException e) {
+            remocao.registrarErro();
+            throw e;
+        } finally {
+            remocao.registrar(inicio);
+        }
+    }
+
+    @Override
+    public int removerConteudos(Collection<String> titulos) {
+        long inicio = System.nanoTime();
+        try {
+            int removidos = super.removerConteudos(titulos);
+            remocaoEmMassa.registrarVolume(removidos, 0);
+            return removidos;
+        } catch (RuntimeException e) {
+            remocaoEmMassa.registrarErro();
+            throw e;
+        } finally {
+            remocaoEmMassa.registrar(inicio);
+        }
+    }
+
+    //Cargas e gravações também contam conteúdos e bytes do arquivo, para a vazão
+    @Override
+    public void salvarConteudosComoTexto(String caminho) throws IOException {
+        long inicio = System.nanoTime();
+        try {
+            super.salvarConteudosComoTexto(caminho);
+            salvarTexto.registrarVolume(getQuantidadeConteudos(), tamanho(caminho));
+        } catch (IOException | RuntimeException e) {
+            salvarTexto.registrarErro();
+            throw e;
+        } finally {
+            salvarTexto.registrar(inicio);
+        }
+    }
+
+    //Três medidas: os snapshots gravados (tempo total, conteúdos e bytes), as chamadas que não gravaram nada
+    //porque não houve alteração e, à parte, a pausa das alterações enquanto o retrato era tirado
+    @Override
+    public ResultadoSnapshot salvarSeAlterado(String caminho) throws IOException {
+        long inicio = System.nanoTime();
+        ResultadoSnapshot resultado;
+        try {
+            resultado = super.salvarSeAlterado(caminho);
+        } catch (IOException | RuntimeException e) {
+            snapshot.registrarErro();
+            snapshot.registrar(inicio);
+            throw e;
+        }
+        if (resultado.gravado()) {
+            snapshot.registrarVolume(resultado.conteudos(), resultado.bytes());
+            snapshot.registrar(inicio);
+            pausaSnapshot.registrar(System.nanoTime() - resultado.pausaNanos()); //registrar mede até agora
+        } else {
+            snapshotSemAlteracao.registrar(inicio);
+        }
+        return resultado;
+    }
+
+    @Override
+    public void carregarConteudosDeTexto(String caminhoArquivo) throws IOException {
+        int antes = getQuantidadeConteudos();
+        long inicio = System.nanoTime();
+        try {
+            super.carregarConteudosDeTexto(caminhoArquivo);
+            carregarTexto.registrarVolume(getQuantidadeConteudos() - antes, tamanho(caminhoArquivo));
+        } catch (IOException | RuntimeException e) {
+            carregarTexto.registrarErro();
+            throw e;
+        } finally {
+            carregarTexto.registrar(inicio);
+        }
+    }
+
+    @Override
+    public void carregarConteudosEmParalelo(String caminhoArquivo, int paralelismo) throws IOException {
+        int antes = getQuantidadeConteudos();
+        long inicio = System.nanoTime();
+        try {
+            super.carregarConteudosEmParalelo(caminhoArquivo, paralelismo);
+            carregarParalelo.registrarVolume(getQuantidadeConteudos() - antes, tamanho(caminhoArquivo));
+        } catch (IOException | RuntimeException e) {
+            carregarParalelo.registrarErro();
+            throw e;
+        } finally {
+            carregarParalelo.registrar(inicio);
+        }
+    }
+
+    @Override
+    public void carregarConteudosSobDemanda(String caminhoArquivo, long limiteAvaliacoesEmCache) throws IOException {
+        int antes = getQuantidadeConteudos();
+        long inicio = System.nanoTime();
+        try {
+            super.carregarConteudosSobDemanda(caminhoArquivo, limiteAvaliacoesEmCache);
+            carregarSobDemanda.registrarVolume(getQuantidadeConteudos() - antes, tamanho(caminhoArquivo));
+        } catch (IOException | RuntimeException e) {
+            carregarSobDemanda.registrarErro();
+            throw e;
+        } finally {
+            carregarSobDemanda.registrar(inicio);
+        }
+    }
+
+    @Override
+    public void salvarSnapshotBinario(String caminho) throws IOException {
+        long inicio = System.nanoTime();
+        try {
+            super.salvarSnapshotBinario(caminho);
+            salvarBinario.registrarVolume(getQuantidadeConteudos(), tamanho(caminho));
+        } catch (IOException | RuntimeException e) {
+            salvarBinario.registrarErro();
+            throw e;
+        } finally {
+            salvarBinario.registrar(inicio);
+        }
+    }
+
+    @Override
+    public void carregarSnapshotBinario(String caminho) throws IOException {
+        int antes = getQuantidadeConteudos();
+        long inicio = System.nanoTime();
+        try {
+            super.carregarSnapshotBinario(caminho);
+            carregarBinario.registrarVolume(getQuantidadeConteudos() - antes, tamanho(caminho));
+        } catch (IOException | RuntimeException e) {
+            carregarBinario.registrarErro();
+            throw e;
+        } finally {
+            carregarBinario.registrar(inicio);
+        }
+    }
+
+    @Override
+    public void compactarDiario() throws IOException {
+        long inicio = System.nanoTime();
+        try {
+            super.compactarDiario();
+        } catch (IOException | RuntimeException e) {
+            compactacao.registrarErro();
+            throw e;
+        } finally {
+            compactacao.registrar(inicio);
+        }
+    }
+
+    //Na importação os itens da vazão são avaliações, não conteúdos
+    @Override
+    public ResultadoImportacao importarAvaliacoes(Stream<RegistroAvaliacao> registros, int paralelismo) {
+        long inicio = System.nanoTime();
+        try {
+            ResultadoImportacao resultado = super.importarAvaliacoes(registros, paralelismo);
+            importacao.registrarVolume(resultado.aplicadas(), 0);
+            return resultado;
+        } catch (RuntimeException e) {
+            importacao.registrarErro();
+            throw e;
+        } finally {
+            importacao.registrar(inicio);
+        }
+    }
+
+    @Override
+    public ResultadoImportacao importarAvaliacoes(String caminhoArquivo, int paralelismo) throws IOException {
+        long inicio = System.nanoTime();
+        try {
+            ResultadoImportacao resultado = super.importarAvaliacoes(caminhoArquivo, paralelismo);
+            importacaoArquivo.registrarVolume(resultado.aplicadas(), tamanho(caminhoArquivo));
+            return resultado;
+        } catch (IOException | RuntimeException e) {
+            importacaoArquivo.registrarErro();
+            throw e;
+        } finally {
+            importacaoArquivo.registrar(inicio);
+        }
+    }
+
+    private static long tamanho(String caminho) throws IOException {
+        Path path = Paths.get(caminho);
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+}
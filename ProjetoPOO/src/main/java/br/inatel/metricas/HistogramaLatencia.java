@@ -0,0 +1,76 @@
+package br.inatel.metricas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+//Histograma de latências no estilo HDR: faixas log-lineares, 8 por potência de 2 (erro de no máximo 12,5%).
+//Memória fixa e registro sem lock, só incrementos atômicos, então pode ficar ligado em produção.
+public class HistogramaLatencia {
+    private static final int BITS_SUBFAIXA = 3;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+    private static final int FAIXAS = (64 - BITS_SUBFAIXA) * SUBFAIXAS; //cobre qualquer long positivo
+
+    private final AtomicLongArray contagens = new AtomicLongArray(FAIXAS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder soma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    public void registrar(long nanos) {
+        if (nanos < 0) nanos = 0;
+        contagens.incrementAndGet(faixa(nanos));
+        total.increment();
+        soma.add(nanos);
+        maximo.accumulate(nanos);
+    }
+
+    //Valores abaixo de 8 têm faixa própria; acima, os 3 bits seguintes ao mais alto escolhem a subfaixa
+    static int faixa(long valor) {
+        if (valor < SUBFAIXAS) return (int) valor;
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        int subfaixa = (int) (valor >>> (expoente - BITS_SUBFAIXA)) & (SUBFAIXAS - 1);
+        return (expoente - BITS_SUBFAIXA + 1) * SUBFAIXAS + subfaixa;
+    }
+
+    static long limiteSuperior(int faixa) {
+        if (faixa < SUBFAIXAS) return faixa;
+        int deslocamento = faixa / SUBFAIXAS - 1;
+        long inicio = (long) (SUBFAIXAS + faixa % SUBFAIXAS) << deslocamento;
+        return inicio + (1L << deslocamento) - 1;
+    }
+
+    //Menor valor que cobre a fração p (0 a 1) das medições, arredondado para o fim da faixa
+    public long percentil(double p) {
+        long quantidade = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            quantidade += contagens.get(i);
+        }
+        if (quantidade == 0) return 0;
+        long alvo = Math.max(1, (long) Math.ceil(p * quantidade));
+        long acumulado = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            acumulado += contagens.get(i);
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), getMaximo());
+            }
+        }
+        return getMaximo();
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public double getMedia() {
+        long quantidade = total.sum();
+        return quantidade == 0 ? 0 : (double) soma.sum() / quantidade;
+    }
+
+    public long getSoma() {
+        return soma.sum();
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+}
@@ -0,0 +1,121 @@
+package br.inatel.metricas;
+
+import br.inatel.services.Gerenciador;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+//Registro das métricas de um Gerenciador: uma MetricasOperacao por operação e os totais do catálogo.
+//Publica tudo como MBeans em "br.inatel:type=..." e, se pedido, imprime um relatório de tempos em tempos.
+public class Metricas {
+    private static final String DOMINIO_JMX = "br.inatel";
+
+    private final Map<String, MetricasOperacao> operacoes;
+    private final MetricasCatalogo catalogo;
+    private final List<ObjectName> registrados;
+    private volatile MBeanServer servidor;
+    private ScheduledExecutorService relator;
+
+    public Metricas(Gerenciador gerenciador) {
+        this.operacoes = new ConcurrentHashMap<>();
+        this.catalogo = new MetricasCatalogo(gerenciador);
+        this.registrados = new ArrayList<>();
+    }
+
+    public MetricasOperacao operacao(String nome) {
+        MetricasOperacao metricas = operacoes.get(nome);
+        if (metricas != null) return metricas;
+        metricas = operacoes.computeIfAbsent(nome, MetricasOperacao::new);
+        if (servidor != null) registrar(metricas);
+        return metricas;
+    }
+
+    public MetricasCatalogo getCatalogo() {
+        return catalogo;
+    }
+
+    //Operações criadas depois disso entram no JMX assim que aparecem
+    public synchronized void registrarNoJmx() throws JMException {
+        if (servidor != null) return;
+        MBeanServer plataforma = ManagementFactory.getPlatformMBeanServer();
+        ObjectName nome = new ObjectName(DOMINIO_JMX + ":type=Catalogo");
+        plataforma.registerMBean(catalogo, nome);
+        registrados.add(nome);
+        servidor = plataforma;
+        for (MetricasOperacao metricas : operacoes.values()) {
+            registrar(metricas);
+        }
+    }
+
+    public synchronized void removerDoJmx() throws JMException {
+        if (servidor == null) return;
+        for (ObjectName nome : registrados) {
+            if (servidor.isRegistered(nome)) servidor.unregisterMBean(nome);
+        }
+        registrados.clear();
+        servidor = null;
+    }
+
+    private synchronized void registrar(MetricasOperacao metricas) {
+        if (servidor == null) return;
+        try {
+            ObjectName nome = new ObjectName(DOMINIO_JMX + ":type=Operacao,name=" + ObjectName.quote(metricas.getNome()));
+            if (!servidor.isRegistered(nome)) {
+                servidor.registerMBean(metricas, nome);
+                registrados.add(nome);
+            }
+        } catch (JMException e) {
+            System.err.println("Erro ao registrar métricas no JMX: " + e.getMessage());
+        }
+    }
+
+    public String relatorio() {
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format(Locale.ROOT, "--- Métricas: %d conteúdos, %d avaliações, %d usuários, cache %.1f%% de acertos ---%n",
+                catalogo.getConteudos(), catalogo.getAvaliacoes(), catalogo.getUsuarios(), catalogo.getTaxaAcertoCache() * 100));
+        texto.append(String.format(Locale.ROOT, "%-28s %10s %7s %10s %10s %10s %10s %10s%n",
+                "operação", "chamadas", "erros", "média(us)", "p50(us)", "p99(us)", "p99.9(us)", "máx(us)"));
+        for (MetricasOperacao m : new TreeMap<>(operacoes).values()) {
+            if (m.getChamadas() == 0) continue;
+            texto.append(String.format(Locale.ROOT, "%-28s %10d %7d %10.1f %10.1f %10.1f %10.1f %10.1f",
+                    m.getNome(), m.getChamadas(), m.getErros(), m.getMediaMicros(),
+                    m.getP50Micros(), m.getP99Micros(), m.getP999Micros(), m.getMaximoMicros()));
+            if (m.getItensProcessados() > 0) {
+                texto.append(String.format(Locale.ROOT, "  %.0f itens/s, %.1f MB/s",
+                        m.getItensPorSegundo(), m.getMegabytesPorSegundo()));
+            }
+            texto.append(System.lineSeparator());
+        }
+        return texto.toString();
+    }
+
+    public synchronized void iniciarRelatorioPeriodico(long intervaloSegundos, PrintStream saida) {
+        if (relator != null) {
+            throw new IllegalStateException("O relatório periódico já foi iniciado.");
+        }
+        relator = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "relatorio-metricas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        relator.scheduleAtFixedRate(() -> saida.print(relatorio()), intervaloSegundos, intervaloSegundos, TimeUnit.SECONDS);
+    }
+
+    public synchronized void pararRelatorioPeriodico() {
+        if (relator == null) return;
+        relator.shutdownNow();
+        relator = null;
+    }
+}
@@ -0,0 +1,46 @@
+package br.inatel.metricas;
+
+import br.inatel.services.Gerenciador;
+
+public class MetricasCatalogo implements MetricasCatalogoMBean {
+    private final Gerenciador gerenciador;
+
+    public MetricasCatalogo(Gerenciador gerenciador) {
+        this.gerenciador = gerenciador;
+    }
+
+    @Override
+    public int getConteudos() {
+        return gerenciador.getQuantidadeConteudos();
+    }
+
+    @Override
+    public long getAvaliacoes() {
+        return gerenciador.getTotalAvaliacoes();
+    } //percorre o catálogo, por isso só é calculado quando alguém lê
+
+    @Override
+    public int getUsuarios() {
+        return gerenciador.getQuantidadeUsuarios();
+    }
+
+    @Override
+    public long getAcertosCache() {
+        return gerenciador.getCacheConsultas().getAcertos();
+    }
+
+    @Override
+    public long getFalhasCache() {
+        return gerenciador.getCacheConsultas().getFalhas();
+    }
+
+    @Override
+    public double getTaxaAcertoCache() {
+        return gerenciador.getCacheConsultas().getTaxaAcerto();
+    }
+
+    @Override
+    public int getTamanhoCache() {
+        return gerenciador.getCacheConsultas().getTamanho();
+    }
+}
@@ -0,0 +1,18 @@
+package br.inatel.metricas;
+
+//Tamanho do catálogo e estado do cache de consultas, lidos na hora por JMX
+public interface MetricasCatalogoMBean {
+    int getConteudos();
+
+    long getAvaliacoes();
+
+    int getUsuarios();
+
+    long getAcertosCache();
+
+    long getFalhasCache();
+
+    double getTaxaAcertoCache();
+
+    int getTamanhoCache();
+}
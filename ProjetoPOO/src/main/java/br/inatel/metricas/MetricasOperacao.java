@@ -0,0 +1,107 @@
+package br.inatel.metricas;
+
+import java.util.concurrent.atomic.LongAdder;
+
+//Chamadas, erros e latência de uma operação; cargas e gravações também somam itens e bytes para a vazão
+public class MetricasOperacao implements MetricasOperacaoMBean {
+    private static final double NANOS_POR_MICRO = 1_000.0;
+    private static final double NANOS_POR_SEGUNDO = 1_000_000_000.0;
+
+    private final String nome;
+    private final HistogramaLatencia latencias;
+    private final LongAdder erros;
+    private final LongAdder itens;
+    private final LongAdder bytes;
+
+    public MetricasOperacao(String nome) {
+        this.nome = nome;
+        this.latencias = new HistogramaLatencia();
+        this.erros = new LongAdder();
+        this.itens = new LongAdder();
+        this.bytes = new LongAdder();
+    }
+
+    //inicio vem de System.nanoTime() tirado antes da operação
+    public void registrar(long inicio) {
+        latencias.registrar(System.nanoTime() - inicio);
+    }
+
+    public void registrarErro() {
+        erros.increment();
+    }
+
+    public void registrarVolume(long itensProcessados, long bytesProcessados) {
+        itens.add(itensProcessados);
+        bytes.add(bytesProcessados);
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public HistogramaLatencia getLatencias() {
+        return latencias;
+    }
+
+    @Override
+    public long getChamadas() {
+        return latencias.getTotal();
+    }
+
+    @Override
+    public long getErros() {
+        return erros.sum();
+    }
+
+    @Override
+    public double getMediaMicros() {
+        return latencias.getMedia() / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latencias.percentil(0.50) / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return latencias.percentil(0.90) / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latencias.percentil(0.99) / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latencias.percentil(0.999) / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getMaximoMicros() {
+        return latencias.getMaximo() / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public long getItensProcessados() {
+        return itens.sum();
+    }
+
+    @Override
+    public long getBytesProcessados() {
+        return bytes.sum();
+    }
+
+    @Override
+    public double getItensPorSegundo() {
+        long nanos = latencias.getSoma();
+        return nanos == 0 ? 0 : itens.sum() * NANOS_POR_SEGUNDO / nanos;
+    }
+
+    @Override
+    public double getMegabytesPorSegundo() {
+        long nanos = latencias.getSoma();
+        return nanos == 0 ? 0 : bytes.sum() / (1024.0 * 1024.0) * NANOS_POR_SEGUNDO / nanos;
+    }
+}
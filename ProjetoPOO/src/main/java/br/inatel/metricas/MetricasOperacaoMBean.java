@@ -0,0 +1,28 @@
+package br.inatel.metricas;
+
+//Interface exposta por JMX (jconsole/VisualVM) para cada operação medida
+public interface MetricasOperacaoMBean {
+    long getChamadas();
+
+    long getErros();
+
+    double getMediaMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaximoMicros();
+
+    long getItensProcessados();
+
+    long getBytesProcessados();
+
+    double getItensPorSegundo();
+
+    double getMegabytesPorSegundo();
+}
@@ -0,0 +1,25 @@
+package br.inatel.models;
+
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+//Onde um conteúdo guarda suas avaliações. A lista é somente leitura para quem está fora do pacote.
+interface ArmazemAvaliacoes extends List<Avaliacao> {
+
+    //Acrescenta no final e devolve a posição da avaliação
+    int acrescentar(Avaliacao avaliacao);
+
+    //Acrescenta todas de uma vez (um só lock e no máximo um crescimento) e devolve a posição da primeira
+    int acrescentarTodos(List<Avaliacao> novas);
+
+    //Autor da avaliação na posição, sem montar o Avaliacao
+    Usuario usuario(int indice);
+
+    //Autor e posição de cada avaliação a partir de de, numa só passada pela lista
+    default void paraCadaAutor(int de, ObjIntConsumer<Usuario> acao) {
+        int n = size();
+        for (int i = de; i < n; i++) {
+            acao.accept(usuario(i), i);
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package br.inatel.models;
 
+import java.util.Objects;
+
 public class Avaliacao {
     private Usuario usuario;
     private int nota;
     private String comentario;
+    private volatile Conteudo conteudo; //conteúdo que recebeu a avaliação
+    //Nome e email como foram gravados, só quando diferem dos do usuário do registro (que é por email,
+    //sem diferenciar maiúsculas, e fica com o primeiro nome visto); null na grande maioria das avaliações
+    private String nomeGravado;
+    private String emailGravado;
 
     public Avaliacao(Usuario usuario, int nota, String comentario) {
         if (nota < 1 || nota > 5) {
@@ -14,9 +21,30 @@ public class Avaliacao {
         this.comentario = comentario;
     }
 
+    //Para avaliações lidas de arquivo: nome e email exatamente como estavam lá
+    public Avaliacao(Usuario usuario, String nome, String email, int nota, String comentario) {
+        this(usuario, nota, comentario);
+        this.nomeGravado = Objects.equals(nome, usuario.getNome()) ? null : nome;
+        this.emailGravado = Objects.equals(email, usuario.getEmail()) ? null : email;
+    }
+
+    void vincular(Conteudo conteudo) {
+        this.conteudo = conteudo;
+    }
+
+    String nomeGravado() {
+        return nomeGravado;
+    }
+
+    String emailGravado() {
+        return emailGravado;
+    }
+
     // Getters
     public Usuario getUsuario() { return usuario; }
     public int getNota() { return nota; }
     public String getComentario() { return comentario; }
+    public Conteudo getConteudo() { return conteudo; }
+    public String getNomeAutor() { return nomeGravado != null ? nomeGravado : usuario.getNome(); } //o que vai para os arquivos
+    public String getEmailAutor() { return emailGravado != null ? emailGravado : usuario.getEmail(); }
 }
-
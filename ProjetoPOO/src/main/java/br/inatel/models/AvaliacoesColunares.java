@@ -0,0 +1,148 @@
+package br.inatel.models;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+//Armazenamento em colunas: um array por campo e os comentários concatenados num único byte[] (UTF-8).
+//Por avaliação ficam ~9 bytes mais o texto do comentário, em vez de um objeto Avaliacao, uma String
+//e o array dela. O Avaliacao é montado na leitura (get), então cada chamada devolve uma instância nova.
+//Mesmo esquema de publicação da ListaAcrescimo: o escritor grava tudo antes de aumentar o tamanho,
+//e o leitor lê o tamanho antes dos arrays.
+class AvaliacoesColunares extends AbstractList<Avaliacao> implements ArmazemAvaliacoes, RandomAccess {
+    private static final byte[] VAZIO = new byte[0];
+
+    private final Conteudo conteudo;
+    private volatile Usuario[] usuarios; //instâncias do registro, compartilhadas entre avaliações
+    private volatile byte[] notas;
+    private volatile int[] fimComentario; //o comentário i vai de fimComentario[i - 1] até fimComentario[i]
+                                          //(~fim, negativo, quando o comentário é null: trecho vazio)
+    private volatile byte[] comentarios;
+    private volatile String[] grafias; //nome e email gravados (2 por avaliação), criado na primeira que difere do usuário
+    private volatile int tamanho;
+
+    AvaliacoesColunares(Conteudo conteudo) {
+        this.conteudo = conteudo;
+        this.usuarios = new Usuario[4];
+        this.notas = new byte[4];
+        this.fimComentario = new int[4];
+        this.comentarios = new byte[64];
+    }
+
+    @Override
+    public synchronized int acrescentar(Avaliacao avaliacao) {
+        int n = tamanho;
+        if (n == usuarios.length) {
+            usuarios = Arrays.copyOf(usuarios, n * 2);
+            notas = Arrays.copyOf(notas, n * 2);
+            fimComentario = Arrays.copyOf(fimComentario, n * 2);
+        }
+        byte[] texto = bytes(avaliacao.getComentario());
+        int inicio = n == 0 ? 0 : fim(fimComentario, n - 1);
+        int fim = inicio + texto.length;
+        if (fim > comentarios.length) {
+            comentarios = Arrays.copyOf(comentarios, Math.max(fim, comentarios.length * 2));
+        }
+        System.arraycopy(texto, 0, comentarios, inicio, texto.length);
+        usuarios[n] = avaliacao.getUsuario();
+        notas[n] = (byte) avaliacao.getNota();
+        fimComentario[n] = avaliacao.getComentario() == null ? ~fim : fim;
+        guardarGrafia(n, avaliacao);
+        tamanho = n + 1; //publica a avaliação para os leitores
+        return n;
+    }
+
+    @Override
+    public synchronized int acrescentarTodos(List<Avaliacao> novas) {
+        int n = tamanho;
+        int total = n + novas.size();
+        if (total > usuarios.length) {
+            int capacidade = Math.max(total, n * 2);
+            usuarios = Arrays.copyOf(usuarios, capacidade);
+            notas = Arrays.copyOf(notas, capacidade);
+            fimComentario = Arrays.copyOf(fimComentario, capacidade);
+        }
+        byte[][] textos = new byte[novas.size()][];
+        int fim = n == 0 ? 0 : fim(fimComentario, n - 1);
+        int inicioLote = fim;
+        for (int i = 0; i < textos.length; i++) {
+            textos[i] = bytes(novas.get(i).getComentario());
+            fim += textos[i].length;
+        }
+        if (fim > comentarios.length) {
+            comentarios = Arrays.copyOf(comentarios, Math.max(fim, comentarios.length * 2));
+        }
+        int posicao = inicioLote;
+        for (int i = 0; i < textos.length; i++) {
+            Avaliacao avaliacao = novas.get(i);
+            System.arraycopy(textos[i], 0, comentarios, posicao, textos[i].length);
+            posicao += textos[i].length;
+            usuarios[n + i] = avaliacao.getUsuario();
+            notas[n + i] = (byte) avaliacao.getNota();
+            fimComentario[n + i] = avaliacao.getComentario() == null ? ~posicao : posicao;
+            guardarGrafia(n + i, avaliacao);
+        }
+        tamanho = total; //publica o lote inteiro de uma vez
+        return n;
+    }
+
+    @Override
+    public Avaliacao get(int indice) {
+        int n = tamanho;
+        Objects.checkIndex(indice, n);
+        int[] fins = fimComentario;
+        int inicio = indice == 0 ? 0 : fim(fins, indice - 1);
+        String comentario = fins[indice] < 0 ? null
+                : new String(comentarios, inicio, fins[indice] - inicio, StandardCharsets.UTF_8);
+        String[] gravadas = grafias;
+        Avaliacao avaliacao = gravadas == null || indice * 2 >= gravadas.length
+                ? new Avaliacao(usuarios[indice], notas[indice], comentario)
+                : new Avaliacao(usuarios[indice], nomeOuDoUsuario(gravadas[indice * 2], usuarios[indice]),
+                        emailOuDoUsuario(gravadas[indice * 2 + 1], usuarios[indice]), notas[indice], comentario);
+        avaliacao.vincular(conteudo);
+        return avaliacao;
+    }
+
+    private static int fim(int[] fins, int indice) {
+        int fim = fins[indice];
+        return fim < 0 ? ~fim : fim;
+    }
+
+    private static byte[] bytes(String comentario) {
+        return comentario == null ? VAZIO : comentario.getBytes(StandardCharsets.UTF_8);
+    }
+
+    //Chamado com o lock, antes de publicar o tamanho
+    private void guardarGrafia(int indice, Avaliacao avaliacao) {
+        if (avaliacao.nomeGravado() == null && avaliacao.emailGravado() == null) return;
+        String[] gravadas = grafias;
+        if (gravadas == null || indice * 2 >= gravadas.length) {
+            gravadas = gravadas == null ? new String[usuarios.length * 2] : Arrays.copyOf(gravadas, usuarios.length * 2);
+        }
+        gravadas[indice * 2] = avaliacao.nomeGravado();
+        gravadas[indice * 2 + 1] = avaliacao.emailGravado();
+        grafias = gravadas;
+    }
+
+    private static String nomeOuDoUsuario(String gravado, Usuario usuario) {
+        return gravado != null ? gravado : usuario.getNome();
+    }
+
+    private static String emailOuDoUsuario(String gravado, Usuario usuario) {
+        return gravado != null ? gravado : usuario.getEmail();
+    }
+
+    @Override
+    public Usuario usuario(int indice) {
+        Objects.checkIndex(indice, tamanho);
+        return usuarios[indice];
+    }
+
+    @Override
+    public int size() {
+        return tamanho;
+    }
+}
@@ -0,0 +1,10 @@
+package br.inatel.models;
+
+//Armazenamento padrão: guarda os próprios objetos Avaliacao
+class AvaliacoesEmObjetos extends ListaAcrescimo<Avaliacao> implements ArmazemAvaliacoes {
+
+    @Override
+    public Usuario usuario(int indice) {
+        return get(indice).getUsuario();
+    }
+}
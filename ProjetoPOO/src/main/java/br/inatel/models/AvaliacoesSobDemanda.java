@@ -0,0 +1,113 @@
+package br.inatel.models;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.ObjIntConsumer;
+
+//As primeiras avaliações (as do arquivo) só são lidas quando alguém pede uma delas, e quem guarda a lista
+//lida é a fonte; as feitas depois da carga ficam em memória, em seguida, como no armazenamento em objetos.
+//As do arquivo entram nas listas dos autores já na carga (Conteudo.carregarSobDemanda), só com a posição.
+//Quem percorre a lista (iterator, subList, stream, paraCadaAutor) lê o trecho uma vez só, mesmo que ele não caiba no cache.
+class AvaliacoesSobDemanda extends AbstractList<Avaliacao> implements ArmazemAvaliacoes, RandomAccess {
+    private final Conteudo conteudo;
+    private final TrechoAvaliacoes trecho;
+    private final AvaliacoesEmObjetos novas;
+
+    AvaliacoesSobDemanda(Conteudo conteudo, TrechoAvaliacoes trecho) {
+        this.conteudo = conteudo;
+        this.trecho = trecho;
+        this.novas = new AvaliacoesEmObjetos();
+    }
+
+    TrechoAvaliacoes getTrecho() {
+        return trecho;
+    }
+
+    @Override
+    public int acrescentar(Avaliacao avaliacao) {
+        return trecho.quantidade() + novas.acrescentar(avaliacao);
+    }
+
+    @Override
+    public int acrescentarTodos(List<Avaliacao> lote) {
+        return trecho.quantidade() + novas.acrescentarTodos(lote);
+    }
+
+    @Override
+    public Avaliacao get(int indice) {
+        int doArquivo = trecho.quantidade();
+        if (indice >= doArquivo) {
+            Objects.checkIndex(indice, size());
+            return novas.get(indice - doArquivo);
+        }
+        Objects.checkIndex(indice, doArquivo);
+        Avaliacao avaliacao = trecho.fonte().ler(trecho).get(indice);
+        avaliacao.vincular(conteudo);
+        return avaliacao;
+    }
+
+    @Override
+    public Usuario usuario(int indice) {
+        return get(indice).getUsuario();
+    }
+
+    @Override
+    public void paraCadaAutor(int de, ObjIntConsumer<Usuario> acao) {
+        int doArquivo = trecho.quantidade();
+        if (de < doArquivo) {
+            List<Avaliacao> lidas = trecho.fonte().ler(trecho);
+            for (int i = de; i < doArquivo; i++) {
+                acao.accept(lidas.get(i).getUsuario(), i);
+            }
+        }
+        int n = novas.size();
+        for (int i = Math.max(0, de - doArquivo); i < n; i++) {
+            acao.accept(novas.usuario(i), doArquivo + i);
+        }
+    }
+
+    @Override
+    public Iterator<Avaliacao> iterator() {
+        return new Leitura().listIterator();
+    }
+
+    @Override
+    public ListIterator<Avaliacao> listIterator(int indice) {
+        return new Leitura().listIterator(indice); //subList também passa por aqui
+    }
+
+    @Override
+    public Spliterator<Avaliacao> spliterator() {
+        return new Leitura().spliterator(); //o padrão para RandomAccess chamaria get a cada posição
+    }
+
+    @Override
+    public int size() {
+        return trecho.quantidade() + novas.size();
+    }
+
+    //A lista com o trecho já lido, para um percurso não reler o arquivo a cada posição
+    private class Leitura extends AbstractList<Avaliacao> implements RandomAccess {
+        private final List<Avaliacao> doArquivo = trecho.fonte().ler(trecho);
+
+        @Override
+        public Avaliacao get(int indice) {
+            if (indice >= doArquivo.size()) {
+                return AvaliacoesSobDemanda.this.get(indice);
+            }
+            Avaliacao avaliacao = doArquivo.get(indice);
+            avaliacao.vincular(conteudo);
+            return avaliacao;
+        }
+
+        @Override
+        public int size() {
+            return AvaliacoesSobDemanda.this.size();
+        }
+    }
+}
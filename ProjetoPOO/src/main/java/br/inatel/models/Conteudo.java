@@ -1,37 +1,208 @@
 package br.inatel.models;
 
-import java.util.ArrayList;
+import br.inatel.exceptions.ConteudoNaoEncontradoException;
+
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
 
 public abstract class Conteudo {
     protected String titulo;
     protected String genero;
     protected int anoLancamento;
-    protected List<Avaliacao> avaliacoes;
+    protected ArmazemAvaliacoes avaliacoes;
+    private volatile int id;
+
+    //Quantidade de avaliações por nota, mantida a cada nova avaliação: a média não precisa percorrer a lista.
+    //Mudam junto com a lista (no lock de vinculos); atômicos para a leitura não precisar do lock.
+    private AtomicLongArray quantidadePorNota;
+    private volatile ObservadorAvaliacoes observador;
+
+    //Cada remoção do catálogo muda a geração: as entradas dos usuários feitas antes viram lápides
+    private volatile int geracao;
+    private volatile boolean removido;
+    //Avaliação nova e remoção não se cruzam: ou a avaliação entra antes e vira lápide junto com as outras,
+    //ou chega depois e é recusada (não fica como avaliação viva de um conteúdo fora do catálogo)
+    private final Object vinculos = new Object();
+
+    //Vale para os conteúdos criados depois da chamada (ver AvaliacoesColunares)
+    private static volatile boolean armazenamentoColunar;
 
     public Conteudo(String titulo, String genero, int anoLancamento) {
         this.titulo = titulo;
         this.genero = genero;
         this.anoLancamento = anoLancamento;
-        this.avaliacoes = new ArrayList<>();
+        this.id = -1;
+        this.avaliacoes = armazenamentoColunar ? new AvaliacoesColunares(this) : new AvaliacoesEmObjetos();
+        this.quantidadePorNota = new AtomicLongArray(5); //notas de 1 a 5
     }
 
+    //Lança ConteudoNaoEncontradoException se o conteúdo já saiu do catálogo
     public void adicionarAvaliacao(Avaliacao avaliacao) {
-        avaliacoes.add(avaliacao); //Adiciona avaliacao na lista
+        synchronized (vinculos) {
+            recusarSeRemovido();
+            int posicao = avaliacoes.acrescentar(avaliacao); //Adiciona avaliacao na lista
+            avaliacao.vincular(this);
+            avaliacao.getUsuario().registrar(this, posicao, geracao); //índice por usuário
+            quantidadePorNota.incrementAndGet(avaliacao.getNota() - 1);
+        }
+        ObservadorAvaliacoes atual = observador;
+        if (atual != null) {
+            atual.avaliacaoAdicionada(this, avaliacao);
+        }
+    }
+
+    //Mesmo efeito de chamar adicionarAvaliacao para cada uma, mas com um só acréscimo na lista,
+    //uma atualização por nota nos contadores e um único aviso ao observador no final
+    public void adicionarAvaliacoes(List<Avaliacao> novas) {
+        if (novas.isEmpty()) return;
+        long[] porNota = new long[5];
+        synchronized (vinculos) {
+            recusarSeRemovido();
+            int primeira = avaliacoes.acrescentarTodos(novas);
+            int atual = geracao;
+            for (int i = 0; i < novas.size(); i++) {
+                Avaliacao avaliacao = novas.get(i);
+                avaliacao.vincular(this);
+                avaliacao.getUsuario().registrar(this, primeira + i, atual);
+                porNota[avaliacao.getNota() - 1]++;
+            }
+            for (int i = 0; i < porNota.length; i++) {
+                if (porNota[i] > 0) quantidadePorNota.addAndGet(i, porNota[i]);
+            }
+        }
+        ObservadorAvaliacoes observadorAtual = observador;
+        if (observadorAtual != null) {
+            observadorAtual.avaliacoesAdicionadas(this, novas);
+        }
+    }
+
+    //Quem tira o conteúdo do catálogo chama isto: as avaliações dele somem das listas dos usuários.
+    //Custa uma passada pelas avaliações deste conteúdo; cada autor é passado para "afetados"
+    //(uma vez por avaliação), que decide quando compactar a lista dele.
+    public void marcarRemovido(Consumer<Usuario> afetados) {
+        synchronized (vinculos) {
+            if (removido) return;
+            geracao++;
+            removido = true;
+            avaliacoes.paraCadaAutor(0, (usuario, i) -> {
+                usuario.avaliacaoRemovida();
+                afetados.accept(usuario);
+            });
+        }
+    }
+
+    //Volta ao catálogo: as entradas antigas continuam lápides (outra geração) e cada avaliação ganha uma nova
+    public void reativar() {
+        synchronized (vinculos) {
+            if (!removido) return;
+            int nova = geracao + 1;
+            geracao = nova;
+            removido = false;
+            avaliacoes.paraCadaAutor(0, (usuario, i) -> usuario.registrar(this, i, nova));
+        }
+    }
+
+    //Carga sob demanda: o conteúdo fica só com as contagens por nota e o trecho do arquivo com as avaliações,
+    //que são lidas quando alguém percorre a lista. Chamado antes de o conteúdo entrar no catálogo.
+    //autores[i] é o autor da avaliação i do trecho: ela já entra na lista dele, sem ler o arquivo de novo.
+    public void carregarSobDemanda(TrechoAvaliacoes trecho, long[] quantidadePorNota, Usuario[] autores) {
+        if (!avaliacoes.isEmpty()) {
+            throw new IllegalStateException("O conteúdo já tem avaliações: " + titulo);
+        }
+        synchronized (vinculos) {
+            avaliacoes = new AvaliacoesSobDemanda(this, trecho);
+            for (int i = 0; i < trecho.quantidade(); i++) {
+                autores[i].registrar(this, i, geracao);
+            }
+            for (int i = 0; i < 5; i++) {
+                this.quantidadePorNota.addAndGet(i, quantidadePorNota[i]);
+            }
+        }
+    }
+
+    //Trecho do arquivo com as primeiras avaliações, ou null se a lista inteira está em memória
+    public TrechoAvaliacoes getTrechoAvaliacoes() {
+        return avaliacoes instanceof AvaliacoesSobDemanda sobDemanda ? sobDemanda.getTrecho() : null;
+    }
+
+    private void recusarSeRemovido() {
+        if (removido) {
+            throw new ConteudoNaoEncontradoException("Conteúdo removido do catálogo: " + titulo);
+        }
+    }
+
+    public boolean isRemovido() {
+        return removido;
+    }
+
+    boolean vinculoValido(int geracaoDoVinculo) {
+        return !removido && geracaoDoVinculo == geracao;
+    }
+
+    public static void setArmazenamentoColunar(boolean colunar) {
+        armazenamentoColunar = colunar;
+    }
+
+    public void setObservador(ObservadorAvaliacoes observador) {
+        this.observador = observador;
     }
 
     public double getNotaMedia() {
-        if (avaliacoes.isEmpty()) return 0.0;
-        return avaliacoes.stream().mapToDouble(Avaliacao::getNota).average().orElse(0.0);
+        long total = 0;
+        long soma = 0;
+        for (int i = 0; i < 5; i++) {
+            long quantidade = quantidadePorNota.get(i);
+            total += quantidade;
+            soma += quantidade * (i + 1);
+        }
+        if (total == 0) return 0.0;
+        return (double) soma / total;
+    }
+
+    public int getTotalAvaliacoes() {
+        long total = 0;
+        for (int i = 0; i < 5; i++) {
+            total += quantidadePorNota.get(i);
+        }
+        return (int) total;
+    }
+
+    public long getSomaNotas() {
+        long soma = 0;
+        for (int i = 0; i < 5; i++) {
+            soma += quantidadePorNota.get(i) * (i + 1);
+        }
+        return soma;
+    }
+
+    public int getQuantidadePorNota(int nota) {
+        if (nota < 1 || nota > 5) {
+            throw new IllegalArgumentException("A nota deve estar entre 1 e 5.");
+        }
+        return (int) quantidadePorNota.get(nota - 1);
     }
 
     //metodo abstrato
-    public abstract String getTipo();
+    public abstract TipoConteudo getTipoConteudo();
+
+    public String getTipo() {
+        return getTipoConteudo().getNome();
+    } //Filme, Série ou Livro, para exibição
+
+    //Id denso dado pelo catálogo quando o conteúdo entra (-1 fora do catálogo); muda se sair e entrar de novo
+    //ou quando o catálogo é compactado
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
 
     // Getters
     public String getTitulo() { return titulo; }
     public String getGenero() { return genero; }
     public int getAnoLancamento() { return anoLancamento; }
-    public List<Avaliacao> getAvaliacoes() { return avaliacoes; }
+    public List<Avaliacao> getAvaliacoes() { return avaliacoes; } //Somente leitura, a lista só muda via adicionarAvaliacao
 }
-
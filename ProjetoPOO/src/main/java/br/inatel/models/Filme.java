@@ -11,8 +11,8 @@ public class Filme extends Conteudo {
     }
 
     @Override
-    public String getTipo() {
-        return "Filme";
+    public TipoConteudo getTipoConteudo() {
+        return TipoConteudo.FILME;
     }
 
     // Getters
@@ -0,0 +1,10 @@
+package br.inatel.models;
+
+import java.util.List;
+
+//De onde vêm as avaliações de um conteúdo carregado sob demanda (ver Conteudo.carregarSobDemanda).
+//ler devolve as avaliações do trecho na ordem gravada (sem vincular ao conteúdo) e pode lançar
+//UncheckedIOException; quem implementa decide quanto guardar em memória entre uma leitura e outra.
+public interface FonteAvaliacoes {
+    List<Avaliacao> ler(TrechoAvaliacoes trecho);
+}
@@ -0,0 +1,107 @@
+package br.inatel.models;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+//Avaliações de um usuário guardadas como (conteúdo, posição na lista do conteúdo), sem manter
+//objetos Avaliacao vivos: funciona igual com o armazenamento em objetos e com o colunar.
+//Cada entrada guarda a geração do conteúdo quando foi feita; se o conteúdo sai do catálogo a entrada
+//vira lápide (continua no array, mas não aparece em vivas) até a próxima compactação.
+class IndiceUsuario extends AbstractList<Avaliacao> implements RandomAccess {
+    //Arrays e tamanho andam juntos: quem lê pega um Entradas e usa só o tamanho dele,
+    //então a troca feita ao crescer ou compactar nunca mistura arrays de duas versões
+    private static final class Entradas {
+        final Conteudo[] conteudos;
+        final int[] posicoes;
+        final int[] geracoes;
+        volatile int tamanho;
+
+        Entradas(int capacidade) {
+            this.conteudos = new Conteudo[capacidade];
+            this.posicoes = new int[capacidade];
+            this.geracoes = new int[capacidade];
+        }
+    }
+
+    private volatile Entradas entradas;
+    private volatile int mortas; //lápides contadas pelas remoções; só muda com o lock
+
+    IndiceUsuario() {
+        this.entradas = new Entradas(2);
+    }
+
+    synchronized void acrescentar(Conteudo conteudo, int posicao, int geracao) {
+        Entradas atual = entradas;
+        int n = atual.tamanho;
+        if (n == atual.conteudos.length) {
+            atual = copiar(atual, n * 2, false);
+            entradas = atual;
+        }
+        atual.conteudos[n] = conteudo;
+        atual.posicoes[n] = posicao;
+        atual.geracoes[n] = geracao;
+        atual.tamanho = n + 1;
+    }
+
+    synchronized void marcarMorta() {
+        mortas++;
+    }
+
+    int getMortas() {
+        return mortas;
+    }
+
+    //Sem lápides devolve a própria lista (visão ao vivo); com lápides, uma cópia só com as vivas
+    List<Avaliacao> vivas() {
+        if (mortas == 0) return this;
+        Entradas atual = entradas;
+        int n = atual.tamanho;
+        List<Avaliacao> resultado = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if (atual.conteudos[i].vinculoValido(atual.geracoes[i])) {
+                resultado.add(atual.conteudos[i].getAvaliacoes().get(atual.posicoes[i]));
+            }
+        }
+        return Collections.unmodifiableList(resultado);
+    }
+
+    //Reescreve as entradas sem as lápides e devolve quantas saíram
+    synchronized int compactar() {
+        Entradas atual = entradas;
+        Entradas compactadas = copiar(atual, Math.max(2, atual.tamanho), true);
+        entradas = compactadas;
+        mortas = 0;
+        return atual.tamanho - compactadas.tamanho;
+    }
+
+    private static Entradas copiar(Entradas origem, int capacidade, boolean soVivas) {
+        Entradas destino = new Entradas(capacidade);
+        int n = origem.tamanho;
+        int copiadas = 0;
+        for (int i = 0; i < n; i++) {
+            if (soVivas && !origem.conteudos[i].vinculoValido(origem.geracoes[i])) continue;
+            destino.conteudos[copiadas] = origem.conteudos[i];
+            destino.posicoes[copiadas] = origem.posicoes[i];
+            destino.geracoes[copiadas] = origem.geracoes[i];
+            copiadas++;
+        }
+        destino.tamanho = copiadas;
+        return destino;
+    }
+
+    @Override
+    public Avaliacao get(int indice) {
+        Entradas atual = entradas;
+        Objects.checkIndex(indice, atual.tamanho);
+        return atual.conteudos[indice].getAvaliacoes().get(atual.posicoes[indice]);
+    }
+
+    @Override
+    public int size() {
+        return entradas.tamanho;
+    }
+}
@@ -0,0 +1,57 @@
+package br.inatel.models;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+//Lista que só aceita acréscimos no final. Quem escreve sincroniza entre si; quem lê não usa lock
+//e enxerga sempre um prefixo consistente, sem ConcurrentModificationException durante a iteração.
+class ListaAcrescimo<E> extends AbstractList<E> implements RandomAccess {
+    private volatile Object[] elementos;
+    private volatile int tamanho;
+
+    ListaAcrescimo() {
+        this.elementos = new Object[4];
+    }
+
+    public synchronized int acrescentar(E elemento) {
+        Object[] atual = elementos;
+        int n = tamanho;
+        if (n == atual.length) {
+            atual = Arrays.copyOf(atual, n * 2);
+            elementos = atual;
+        }
+        atual[n] = elemento;
+        tamanho = n + 1; //publica o elemento para os leitores
+        return n;
+    }
+
+    public synchronized int acrescentarTodos(List<E> novos) {
+        Object[] atual = elementos;
+        int n = tamanho;
+        if (n + novos.size() > atual.length) {
+            atual = Arrays.copyOf(atual, Math.max(n + novos.size(), n * 2));
+            elementos = atual;
+        }
+        for (int i = 0; i < novos.size(); i++) {
+            atual[n + i] = novos.get(i);
+        }
+        tamanho = n + novos.size(); //publica o lote inteiro de uma vez
+        return n;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int indice) {
+        int n = tamanho; //lê o tamanho antes do array: o array visto tem pelo menos n elementos
+        Objects.checkIndex(indice, n);
+        return (E) elementos[indice];
+    }
+
+    @Override
+    public int size() {
+        return tamanho;
+    }
+}
@@ -11,8 +11,8 @@ public class Livro extends Conteudo {
     }
 
     @Override
-    public String getTipo() {
-        return "Livro";
+    public TipoConteudo getTipoConteudo() {
+        return TipoConteudo.LIVRO;
     }
 
     // Getters
@@ -0,0 +1,15 @@
+package br.inatel.models;
+
+import java.util.List;
+
+//Recebe cada avaliação adicionada a um conteúdo (usado pelos índices que dependem das notas)
+public interface ObservadorAvaliacoes {
+    void avaliacaoAdicionada(Conteudo conteudo, Avaliacao avaliacao);
+
+    //Lote já aplicado por Conteudo.adicionarAvaliacoes, com os totais do conteúdo já atualizados
+    default void avaliacoesAdicionadas(Conteudo conteudo, List<Avaliacao> avaliacoes) {
+        for (Avaliacao avaliacao : avaliacoes) {
+            avaliacaoAdicionada(conteudo, avaliacao);
+        }
+    }
+}
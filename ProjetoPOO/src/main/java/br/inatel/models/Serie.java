@@ -11,8 +11,8 @@ public class Serie extends Conteudo {
     }
 
     @Override
-    public String getTipo() {
-        return "Série";
+    public TipoConteudo getTipoConteudo() {
+        return TipoConteudo.SERIE;
     }
 
     // Getters
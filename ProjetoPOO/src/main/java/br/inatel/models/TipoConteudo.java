@@ -0,0 +1,39 @@
+package br.inatel.models;
+
+import java.util.Locale;
+import java.util.Optional;
+
+//Tipo de conteúdo. O nome é o que aparece para o usuário; o registro é o prefixo das linhas do arquivo
+//(sem acento, como sempre foi gravado). Os dois são aceitos na volta, sem diferenciar maiúsculas.
+public enum TipoConteudo {
+    FILME("Filme", "Filme"),
+    SERIE("Série", "Serie"),
+    LIVRO("Livro", "Livro");
+
+    private final String nome;
+    private final String registro;
+
+    TipoConteudo(String nome, String registro) {
+        this.nome = nome;
+        this.registro = registro;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getRegistro() {
+        return registro;
+    }
+
+    public static Optional<TipoConteudo> deNome(String texto) {
+        if (texto == null) return Optional.empty();
+        String procurado = texto.trim().toLowerCase(Locale.ROOT);
+        for (TipoConteudo tipo : values()) {
+            if (tipo.nome.toLowerCase(Locale.ROOT).equals(procurado) || tipo.registro.toLowerCase(Locale.ROOT).equals(procurado)) {
+                return Optional.of(tipo);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,5 @@
+package br.inatel.models;
+
+//As "quantidade" avaliações de um conteúdo que ficaram no arquivo: "bytes" bytes a partir de "inicio"
+public record TrechoAvaliacoes(FonteAvaliacoes fonte, long inicio, int bytes, int quantidade) {
+}
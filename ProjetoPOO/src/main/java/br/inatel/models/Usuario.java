@@ -1,27 +1,51 @@
 package br.inatel.models;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class Usuario {
     private String nome;
     private String email;
-    private List<Avaliacao> avaliacoes;
+    private IndiceUsuario avaliacoes;
 
     public Usuario(String nome, String email) {
         this.nome = nome;
         this.email = email;
-        this.avaliacoes = new ArrayList<>();
+        this.avaliacoes = new IndiceUsuario();
     }
 
-    public void avaliar(Conteudo conteudo, int nota, String comentario) {
+    public Avaliacao avaliar(Conteudo conteudo, int nota, String comentario) {
         Avaliacao avaliacao = new Avaliacao(this, nota, comentario);
+        conteudo.adicionarAvaliacao(avaliacao); //o conteúdo registra a avaliação também aqui
+        return avaliacao;
+    }
+
+    //nome e email como a pessoa digitou; a avaliação os guarda se a grafia for outra que a deste usuário
+    public Avaliacao avaliar(Conteudo conteudo, String nome, String email, int nota, String comentario) {
+        Avaliacao avaliacao = new Avaliacao(this, nome, email, nota, comentario);
         conteudo.adicionarAvaliacao(avaliacao);
-        avaliacoes.add(avaliacao);
+        return avaliacao;
+    }
+
+    void registrar(Conteudo conteudo, int posicao, int geracao) {
+        avaliacoes.acrescentar(conteudo, posicao, geracao);
+    }
+
+    void avaliacaoRemovida() {
+        avaliacoes.marcarMorta();
+    } //uma das avaliações ficou num conteúdo que saiu do catálogo
+
+    public int getAvaliacoesRemovidas() {
+        return avaliacoes.getMortas();
+    }
+
+    //Tira da lista as avaliações de conteúdos removidos e devolve quantas saíram
+    public int compactarAvaliacoes() {
+        return avaliacoes.compactar();
     }
 
     // Getters
     public String getNome() { return nome; }
     public String getEmail() { return email; }
+    public List<Avaliacao> getAvaliacoes() { return avaliacoes.vivas(); } //somente leitura, sem as de conteúdos removidos
 }
 
@@ -0,0 +1,132 @@
+package br.inatel.services;
+
+import br.inatel.models.Avaliacao;
+import br.inatel.models.FonteAvaliacoes;
+import br.inatel.models.TrechoAvaliacoes;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+//Avaliações que ficaram no arquivo de dados de uma carga sob demanda (ver CarregadorSobDemanda).
+//Cada trecho lido vira uma lista guardada num cache LRU limitado pelo total de avaliações em memória;
+//a lista mais antiga sai quando o limite estoura e é lida (e interpretada) de novo se voltar a ser pedida.
+//Um trecho maior que o limite não entra no cache, mas o último lido fica fixo até outro tomar o lugar:
+//quem o percorre posição a posição (get, índice por usuário) não o relê a cada passo.
+//O arquivo fica aberto até fechar(): no Linux, trocar o arquivo no salvamento não afeta o que já está aberto.
+class ArquivoAvaliacoes implements FonteAvaliacoes, Closeable {
+    private final FileChannel canal;
+    private final RegistroUsuarios usuarios;
+    private final long limite;
+    private final LinkedHashMap<Long, List<Avaliacao>> cache;
+    private long emCache;
+    private long inicioFixado = -1;
+    private List<Avaliacao> fixado;
+
+    ArquivoAvaliacoes(Path path, RegistroUsuarios usuarios, long limiteAvaliacoesEmCache) throws IOException {
+        if (limiteAvaliacoesEmCache < 0) {
+            throw new IllegalArgumentException("O limite do cache não pode ser negativo.");
+        }
+        this.canal = FileChannel.open(path, StandardOpenOption.READ);
+        this.usuarios = usuarios;
+        this.limite = limiteAvaliacoesEmCache;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true); //ordem de acesso
+    }
+
+    @Override
+    public List<Avaliacao> ler(TrechoAvaliacoes trecho) {
+        synchronized (this) {
+            if (inicioFixado == trecho.inicio()) return fixado;
+            List<Avaliacao> guardada = cache.get(trecho.inicio());
+            if (guardada != null) return guardada;
+        }
+        List<Avaliacao> lida = interpretar(trecho); //fora do lock: duas leituras do mesmo trecho dão listas iguais
+        guardar(trecho.inicio(), lida);
+        return lida;
+    }
+
+    //Copia os bytes do trecho como estão no arquivo; retorna false se a última linha não termina em quebra
+    boolean copiar(TrechoAvaliacoes trecho, WritableByteChannel destino) throws IOException {
+        long posicao = trecho.inicio();
+        long fim = posicao + trecho.bytes();
+        while (posicao < fim) {
+            long copiados = canal.transferTo(posicao, fim - posicao, destino);
+            if (copiados <= 0) throw new IOException("O arquivo de dados terminou antes do esperado.");
+            posicao += copiados;
+        }
+        ByteBuffer ultimo = ByteBuffer.allocate(1);
+        return canal.read(ultimo, fim - 1) == 1 && ultimo.get(0) == '\n';
+    }
+
+    synchronized long getAvaliacoesEmCache() {
+        return emCache;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            cache.clear();
+            emCache = 0;
+            inicioFixado = -1;
+            fixado = null;
+        }
+        canal.close();
+    }
+
+    private List<Avaliacao> interpretar(TrechoAvaliacoes trecho) {
+        ByteBuffer bytes = ByteBuffer.allocate(trecho.bytes());
+        try {
+            while (bytes.hasRemaining()) {
+                if (canal.read(bytes, trecho.inicio() + bytes.position()) < 0) {
+                    throw new IOException("O arquivo de dados terminou antes do esperado.");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String texto = new String(bytes.array(), StandardCharsets.UTF_8);
+        List<Avaliacao> avaliacoes = new ArrayList<>(trecho.quantidade());
+        int inicio = 0;
+        while (inicio < texto.length()) {
+            int quebra = texto.indexOf('\n', inicio);
+            int fim = quebra < 0 ? texto.length() : quebra;
+            int fimLinha = fim > inicio && texto.charAt(fim - 1) == '\r' ? fim - 1 : fim;
+            avaliacoes.add(ParserRegistros.paraAvaliacao(texto.substring(inicio, fimLinha), usuarios));
+            inicio = fim + 1;
+        }
+        if (avaliacoes.size() != trecho.quantidade()) {
+            throw new IllegalStateException("O arquivo de dados mudou desde a carga: esperadas "
+                    + trecho.quantidade() + " avaliações, lidas " + avaliacoes.size());
+        }
+        return Collections.unmodifiableList(avaliacoes);
+    }
+
+    //Um trecho maior que o limite inteiro fica só como o fixado
+    private synchronized void guardar(long inicio, List<Avaliacao> avaliacoes) {
+        if (avaliacoes.size() > limite) {
+            inicioFixado = inicio;
+            fixado = avaliacoes;
+            return;
+        }
+        List<Avaliacao> anterior = cache.put(inicio, avaliacoes);
+        if (anterior != null) emCache -= anterior.size();
+        emCache += avaliacoes.size();
+        Iterator<Map.Entry<Long, List<Avaliacao>>> maisAntigas = cache.entrySet().iterator();
+        while (emCache > limite) {
+            emCache -= maisAntigas.next().getValue().size();
+            maisAntigas.remove();
+        }
+    }
+}
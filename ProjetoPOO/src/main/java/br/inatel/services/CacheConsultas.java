@@ -0,0 +1,128 @@
+package br.inatel.services;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+//Cache de resultados de consulta com limite de tamanho (LRU) e de idade (TTL).
+//Cada resultado guarda a versão dos dados de que depende; quem consulta informa a versão atual
+//e uma versão diferente conta como falha, então alterações invalidam sem varrer o cache.
+//Dividido em segmentos com lock próprio para leituras concorrentes não disputarem um lock só.
+public class CacheConsultas<K, V> {
+    private static final int SEGMENTOS = 16;
+
+    private record Entrada<V>(V valor, long versao, long expiraEm) {
+    }
+
+    private static class Segmento<K, V> extends LinkedHashMap<K, Entrada<V>> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int capacidade;
+        private final LongAdder remocoes;
+
+        Segmento(int capacidade, LongAdder remocoes) {
+            super(16, 0.75f, true); //ordem de acesso: o mais antigo é o menos usado
+            this.capacidade = capacidade;
+            this.remocoes = remocoes;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> maisAntigo) {
+            if (size() <= capacidade) return false;
+            remocoes.increment();
+            return true;
+        }
+    }
+
+    private final List<Segmento<K, V>> segmentos;
+    private final long ttlNanos;
+    private final LongAdder acertos;
+    private final LongAdder falhas;
+    private final LongAdder remocoes;
+
+    public CacheConsultas(int capacidade, long ttl, TimeUnit unidade) {
+        if (capacidade < SEGMENTOS) {
+            throw new IllegalArgumentException("A capacidade deve ser pelo menos " + SEGMENTOS + ": " + capacidade);
+        }
+        this.ttlNanos = unidade.toNanos(ttl);
+        this.acertos = new LongAdder();
+        this.falhas = new LongAdder();
+        this.remocoes = new LongAdder();
+        this.segmentos = new ArrayList<>(SEGMENTOS);
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos.add(new Segmento<>(capacidade / SEGMENTOS, remocoes));
+        }
+    }
+
+    //versao deve ser lida antes de calcular: se os dados mudarem durante o cálculo, o resultado
+    //fica guardado com a versão antiga e a próxima consulta já o descarta
+    public V obter(K chave, long versao, Supplier<V> calcular) {
+        Segmento<K, V> segmento = segmento(chave);
+        long agora = System.nanoTime();
+        Entrada<V> entrada;
+        synchronized (segmento) {
+            entrada = segmento.get(chave);
+        }
+        if (entrada != null && entrada.versao() == versao && entrada.expiraEm() - agora > 0) {
+            acertos.increment();
+            return entrada.valor();
+        }
+
+        falhas.increment();
+        V valor = calcular.get();
+        synchronized (segmento) {
+            Entrada<V> atual = segmento.get(chave);
+            if (atual == null || atual.versao() <= versao) { //não troca um resultado mais novo por um mais velho
+                segmento.put(chave, new Entrada<>(valor, versao, agora + ttlNanos));
+            }
+        }
+        return valor;
+    }
+
+    public void limpar() {
+        for (Segmento<K, V> segmento : segmentos) {
+            synchronized (segmento) {
+                segmento.clear();
+            }
+        }
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    public long getRemocoes() {
+        return remocoes.sum();
+    } //saídas por falta de espaço
+
+    public double getTaxaAcerto() {
+        long a = acertos.sum();
+        long total = a + falhas.sum();
+        return total == 0 ? 0 : (double) a / total;
+    }
+
+    public int getTamanho() {
+        int tamanho = 0;
+        for (Segmento<K, V> segmento : segmentos) {
+            synchronized (segmento) {
+                tamanho += segmento.size();
+            }
+        }
+        return tamanho;
+    }
+
+    private Segmento<K, V> segmento(K chave) {
+        int h = chave.hashCode();
+        return segmentos.get((h ^ (h >>> 16)) & (SEGMENTOS - 1));
+    }
+}
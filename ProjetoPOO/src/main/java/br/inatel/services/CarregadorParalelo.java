@@ -0,0 +1,152 @@
+package br.inatel.services;
+
+import br.inatel.models.Avaliacao;
+import br.inatel.models.Conteudo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+//Carrega o arquivo de dados mapeado em memória, dividido em blocos que são interpretados em paralelo.
+//Cada bloco começa numa linha de conteúdo, então as avaliações nunca ficam separadas do seu conteúdo.
+public class CarregadorParalelo {
+    private static final byte[] PREFIXO_AVALIACAO = ParserRegistros.PREFIXO_AVALIACAO.getBytes(StandardCharsets.UTF_8);
+    private static final long TAMANHO_MAXIMO_BLOCO = Integer.MAX_VALUE; //limite de um MappedByteBuffer
+    private static final int BLOCOS_POR_THREAD = 4;
+
+    private CarregadorParalelo() {
+    }
+
+    //Devolve os conteúdos (já com suas avaliações) na mesma ordem do arquivo
+    public static List<Conteudo> carregar(Path path, int paralelismo, RegistroUsuarios usuarios) throws IOException {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("O paralelismo deve ser pelo menos 1.");
+        }
+        if (!Files.exists(path)) {
+            throw new IOException("Arquivo de dados não encontrado.");
+        }
+
+        try (FileChannel canal = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] limites = limitesDosBlocos(canal, paralelismo);
+
+            ForkJoinPool pool = new ForkJoinPool(paralelismo);
+            try {
+                List<Future<List<Conteudo>>> tarefas = new ArrayList<>();
+                for (int i = 0; i + 1 < limites.length; i++) {
+                    long inicio = limites[i];
+                    long fim = limites[i + 1];
+                    if (fim > inicio) {
+                        tarefas.add(pool.submit(() -> interpretarBloco(canal, inicio, fim, usuarios)));
+                    }
+                }
+
+                //Junta os blocos na ordem em que aparecem no arquivo
+                List<Conteudo> conteudos = new ArrayList<>();
+                for (Future<List<Conteudo>> tarefa : tarefas) {
+                    conteudos.addAll(tarefa.get());
+                }
+                return conteudos;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Carga interrompida.", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) throw io;
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw new IOException("Erro ao carregar os dados: " + e.getCause().getMessage(), e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static long[] limitesDosBlocos(FileChannel canal, int paralelismo) throws IOException {
+        long tamanho = canal.size();
+        long quantidade = Math.max((long) paralelismo * BLOCOS_POR_THREAD, tamanho / TAMANHO_MAXIMO_BLOCO + 1);
+        quantidade = Math.max(1, Math.min(quantidade, tamanho / 4096 + 1)); //blocos muito pequenos não compensam
+
+        long[] limites = new long[(int) quantidade + 1];
+        limites[limites.length - 1] = tamanho;
+        for (int i = 1; i < limites.length - 1; i++) {
+            long tentativa = tamanho * i / quantidade;
+            limites[i] = Math.max(limites[i - 1], inicioDoProximoRegistro(canal, tentativa, tamanho));
+        }
+        return limites;
+    }
+
+    //Avança até o começo de uma linha que não seja de avaliação
+    private static long inicioDoProximoRegistro(FileChannel canal, long posicao, long tamanho) throws IOException {
+        ByteBuffer janela = ByteBuffer.allocate(8192);
+        boolean inicioDeLinha = false;
+        while (posicao < tamanho) {
+            janela.clear();
+            int lidos = canal.read(janela, posicao);
+            if (lidos <= 0) break;
+            for (int i = 0; i < lidos; i++) {
+                if (inicioDeLinha && !comecaComAvaliacao(canal, posicao + i, tamanho)) {
+                    return posicao + i;
+                }
+                inicioDeLinha = janela.get(i) == '\n';
+            }
+            posicao += lidos;
+        }
+        return tamanho;
+    }
+
+    private static boolean comecaComAvaliacao(FileChannel canal, long posicao, long tamanho) throws IOException {
+        if (tamanho - posicao < PREFIXO_AVALIACAO.length) return false;
+        ByteBuffer prefixo = ByteBuffer.allocate(PREFIXO_AVALIACAO.length);
+        while (prefixo.hasRemaining()) {
+            if (canal.read(prefixo, posicao + prefixo.position()) < 0) return false;
+        }
+        for (int i = 0; i < PREFIXO_AVALIACAO.length; i++) {
+            if (prefixo.get(i) != PREFIXO_AVALIACAO[i]) return false;
+        }
+        return true;
+    }
+
+    private static List<Conteudo> interpretarBloco(FileChannel canal, long inicio, long fim,
+                                                   RegistroUsuarios usuarios) throws IOException {
+        MappedByteBuffer bloco = canal.map(FileChannel.MapMode.READ_ONLY, inicio, fim - inicio);
+        List<Conteudo> conteudos = new ArrayList<>();
+        byte[] linha = new byte[256];
+        Conteudo conteudoAtual = null;
+
+        while (bloco.hasRemaining()) {
+            int tamanhoLinha = 0;
+            while (bloco.hasRemaining()) {
+                byte b = bloco.get();
+                if (b == '\n') break;
+                if (tamanhoLinha == linha.length) {
+                    linha = Arrays.copyOf(linha, linha.length * 2);
+                }
+                linha[tamanhoLinha++] = b;
+            }
+            if (tamanhoLinha > 0 && linha[tamanhoLinha - 1] == '\r') tamanhoLinha--;
+
+            String texto = new String(linha, 0, tamanhoLinha, StandardCharsets.UTF_8);
+            if (ParserRegistros.ehAvaliacao(texto)) {
+                if (conteudoAtual != null) {
+                    Avaliacao avaliacao = ParserRegistros.paraAvaliacao(texto, usuarios);
+                    conteudoAtual.adicionarAvaliacao(avaliacao);
+                }
+            } else {
+                conteudoAtual = ParserRegistros.paraConteudo(texto);
+                if (conteudoAtual != null) {
+                    conteudos.add(conteudoAtual);
+                }
+            }
+        }
+        return conteudos;
+    }
+}
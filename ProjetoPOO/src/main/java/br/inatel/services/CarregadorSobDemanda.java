@@ -0,0 +1,152 @@
+package br.inatel.services;
+
+import br.inatel.models.Conteudo;
+import br.inatel.models.TrechoAvaliacoes;
+import br.inatel.models.Usuario;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//Carga sem montar as avaliações: só as linhas de conteúdo são interpretadas. Das linhas de avaliação
+//sai apenas o dígito da nota (para as contagens por nota, que dão média e totais), o autor e a posição no arquivo;
+//as linhas seguidas de um conteúdo formam o trecho que a fonte lê quando a lista for pedida.
+//O autor vem do registro (o mesmo que a leitura do trecho acha depois) e recebe a posição da avaliação
+//na lista dele, então as listas dos usuários já saem completas da carga.
+//Mesmas regras de carregarConteudosEmParalelo: avaliação sem conteúdo antes é ignorada e
+//o marcador do diário só vale na primeira linha (quem carrega lê ele à parte).
+class CarregadorSobDemanda {
+    private static final byte[] PREFIXO_AVALIACAO = ParserRegistros.PREFIXO_AVALIACAO.getBytes(StandardCharsets.UTF_8);
+    private static final int TAMANHO_BLOCO = 1 << 16;
+
+    private final ArquivoAvaliacoes fonte;
+    private final RegistroUsuarios usuarios;
+    private final List<Conteudo> conteudos = new ArrayList<>();
+    private final int[] separadores = new int[4];
+    private Conteudo atual;
+    private long[] porNota;
+    private Usuario[] autores = new Usuario[16]; //do conteúdo atual; reaproveitado entre conteúdos
+    private long inicioTrecho;
+    private long fimTrecho;
+    private int quantidade;
+
+    private CarregadorSobDemanda(ArquivoAvaliacoes fonte, RegistroUsuarios usuarios) {
+        this.fonte = fonte;
+        this.usuarios = usuarios;
+    }
+
+    //Devolve os conteúdos na ordem do arquivo, cada um já com as contagens e o trecho das suas avaliações
+    static List<Conteudo> carregar(Path path, ArquivoAvaliacoes fonte, RegistroUsuarios usuarios) throws IOException {
+        CarregadorSobDemanda carregador = new CarregadorSobDemanda(fonte, usuarios);
+        try (FileChannel canal = FileChannel.open(path, StandardOpenOption.READ)) {
+            carregador.percorrer(canal);
+        }
+        carregador.fecharConteudo();
+        return carregador.conteudos;
+    }
+
+    private void percorrer(FileChannel canal) throws IOException {
+        ByteBuffer bloco = ByteBuffer.allocate(TAMANHO_BLOCO);
+        byte[] linha = new byte[256];
+        int tamanhoLinha = 0;
+        long inicioLinha = 0;
+        long posicao = 0;
+        while (canal.read(bloco.clear()) > 0) {
+            bloco.flip();
+            while (bloco.hasRemaining()) {
+                byte b = bloco.get();
+                posicao++;
+                if (b == '\n') {
+                    interpretar(linha, tamanhoLinha, inicioLinha, posicao);
+                    tamanhoLinha = 0;
+                    inicioLinha = posicao;
+                    continue;
+                }
+                if (tamanhoLinha == linha.length) {
+                    linha = Arrays.copyOf(linha, linha.length * 2);
+                }
+                linha[tamanhoLinha++] = b;
+            }
+        }
+        if (posicao > inicioLinha) {
+            interpretar(linha, tamanhoLinha, inicioLinha, posicao); //última linha sem quebra
+        }
+    }
+
+    //fim: logo depois da quebra de linha (ou o fim do arquivo)
+    private void interpretar(byte[] linha, int tamanho, long inicio, long fim) throws IOException {
+        if (tamanho > 0 && linha[tamanho - 1] == '\r') tamanho--;
+        if (!comecaComAvaliacao(linha, tamanho)) {
+            fecharConteudo();
+            atual = ParserRegistros.paraConteudo(new String(linha, 0, tamanho, StandardCharsets.UTF_8));
+            return;
+        }
+        if (atual == null) return;
+        if (quantidade == 0) {
+            porNota = new long[5];
+            inicioTrecho = inicio;
+        }
+        porNota[nota(linha, tamanho, inicio, separadores) - 1]++;
+        if (quantidade == autores.length) {
+            autores = Arrays.copyOf(autores, quantidade * 2);
+        }
+        autores[quantidade++] = autor(linha, separadores);
+        fimTrecho = fim;
+    }
+
+    private void fecharConteudo() throws IOException {
+        if (atual == null) return;
+        if (quantidade > 0) {
+            if (fimTrecho - inicioTrecho > Integer.MAX_VALUE) {
+                throw new IOException("Avaliações demais num só conteúdo para a carga sob demanda: " + atual.getTitulo());
+            }
+            atual.carregarSobDemanda(new TrechoAvaliacoes(fonte, inicioTrecho, (int) (fimTrecho - inicioTrecho), quantidade),
+                    porNota, autores);
+        }
+        conteudos.add(atual);
+        atual = null;
+        quantidade = 0;
+    }
+
+    //Avaliacao;nome;nota;email;comentario: a nota fica entre o segundo e o terceiro ";".
+    //Confere o mesmo que ParserRegistros.paraAvaliacao (quatro separadores, nota de 1 a 5) para que
+    //a lista lida depois não falhe numa linha que a carga aceitou. Deixa as posições dos ";" em sep.
+    private static int nota(byte[] linha, int tamanho, long inicio, int[] sep) {
+        int separadores = 0;
+        for (int i = 0; i < tamanho && separadores < 4; i++) {
+            if (linha[i] == ';') sep[separadores++] = i;
+        }
+        int nota = 0;
+        boolean valida = separadores == 4 && sep[2] - sep[1] == 2;
+        if (valida) {
+            nota = linha[sep[1] + 1] - '0';
+            valida = nota >= 1 && nota <= 5;
+        }
+        if (!valida) {
+            throw new IllegalArgumentException("Formato de linha de avaliação inválido (byte " + inicio + "): "
+                    + new String(linha, 0, tamanho, StandardCharsets.UTF_8));
+        }
+        return nota;
+    }
+
+    //Nome e email como ParserRegistros.paraAvaliacao os lê, para obter o mesmo usuário
+    private Usuario autor(byte[] linha, int[] sep) {
+        String nome = new String(linha, sep[0] + 1, sep[1] - sep[0] - 1, StandardCharsets.UTF_8);
+        String email = new String(linha, sep[2] + 1, sep[3] - sep[2] - 1, StandardCharsets.UTF_8);
+        return usuarios.obter(nome, email);
+    }
+
+    private static boolean comecaComAvaliacao(byte[] linha, int tamanho) {
+        if (tamanho < PREFIXO_AVALIACAO.length) return false;
+        for (int i = 0; i < PREFIXO_AVALIACAO.length; i++) {
+            if (linha[i] != PREFIXO_AVALIACAO[i]) return false;
+        }
+        return true;
+    }
+}
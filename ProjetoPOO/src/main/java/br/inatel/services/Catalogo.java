@@ -0,0 +1,262 @@
+package br.inatel.services;
+
+import br.inatel.models.Conteudo;
+import br.inatel.models.TipoConteudo;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+//Armazena os conteúdos na ordem de inserção e mantém índices por título, gênero e tipo.
+//Cada conteúdo que entra recebe um id denso (0, 1, 2...): o título leva ao id por um mapa de
+//endereçamento aberto e o id leva ao conteúdo por posição num vetor; os outros índices são chaveados pelo id.
+//A ordem dos ids é a ordem de inserção; quem sai deixa a posição vazia. Quando as posições vazias passam
+//de 1/8 dos conteúdos, o catálogo é compactado: os ids são renumerados (na mesma ordem) em índices novos,
+//publicados de uma vez. Por isso o id de um conteúdo pode mudar depois de remoções.
+//As chaves de título e gênero são normalizadas em minúsculas, mantendo a comparação case INsensitive de antes.
+//Leituras não usam lock e a iteração nunca lança ConcurrentModificationException.
+//Escritas são serializadas entre si para manter os índices coerentes.
+public class Catalogo {
+    private static final int CAPACIDADE_INICIAL = 64;
+    private static final int LIMIAR_COMPACTACAO = 64; //mínimo de posições vazias, para catálogos pequenos
+
+    //Tudo o que é chaveado pelo id. Um leitor pega o conjunto uma vez e usa só ele: o antigo ou o compactado.
+    private static final class Indices {
+        volatile AtomicReferenceArray<Conteudo> porId;
+        final MapaTitulos porTitulo;
+        final Map<String, ConcurrentNavigableMap<Integer, Conteudo>> porGenero;
+        final Map<TipoConteudo, ConcurrentNavigableMap<Integer, Conteudo>> porTipo;
+        final IndiceTitulos indiceTitulos;
+        volatile int proximoId; //gravado por último na entrada: todo id abaixo dele já está no vetor
+        //Montado na primeira consulta por filtros e refeito quando fica desatualizado demais
+        volatile IndiceFacetas facetas;
+
+        Indices(int capacidade) {
+            this.porId = new AtomicReferenceArray<>(capacidade);
+            this.porTitulo = new MapaTitulos();
+            this.porGenero = new ConcurrentHashMap<>();
+            this.porTipo = new EnumMap<>(TipoConteudo.class);
+            for (TipoConteudo tipo : TipoConteudo.values()) {
+                porTipo.put(tipo, new ConcurrentSkipListMap<>()); //fixo depois daqui: leitores não precisam de lock
+            }
+            this.indiceTitulos = new IndiceTitulos();
+        }
+
+        //null se o id não estiver (mais) no catálogo
+        Conteudo buscarPorId(int id) {
+            AtomicReferenceArray<Conteudo> vetor = porId;
+            return id >= 0 && id < vetor.length() ? vetor.get(id) : null;
+        }
+
+        //Um id lido do mapa de títulos pode já ter saído do vetor: aí o título não está mais no catálogo
+        Conteudo buscar(String chave) {
+            int id = porTitulo.obter(chave);
+            return id == MapaTitulos.AUSENTE ? null : buscarPorId(id);
+        }
+    }
+
+    private volatile Indices indices;
+    private volatile int tamanho;
+    private final Object montagemFacetas = new Object();
+
+    public Catalogo() {
+        this.indices = new Indices(CAPACIDADE_INICIAL);
+    }
+
+    //Retorna false se já existir um conteúdo com o mesmo título. O id vai para o próprio conteúdo;
+    //se ele sair e entrar de novo, recebe um id novo (e vai para o fim da ordem).
+    public synchronized boolean adicionar(Conteudo conteudo) {
+        Indices atual = indices;
+        String chave = chave(conteudo.getTitulo());
+        if (atual.porTitulo.obter(chave) != MapaTitulos.AUSENTE) return false;
+
+        int id = atual.proximoId;
+        conteudo.setId(id);
+        inserir(atual, id, conteudo, chave);
+        tamanho++;
+        atual.proximoId = id + 1;
+        return true;
+    }
+
+    //Retorna o conteúdo removido, ou null se o título não existir
+    public synchronized Conteudo remover(String titulo) {
+        Indices atual = indices;
+        int id = atual.porTitulo.remover(chave(titulo));
+        if (id == MapaTitulos.AUSENTE) return null;
+
+        AtomicReferenceArray<Conteudo> vetor = atual.porId;
+        Conteudo conteudo = vetor.get(id);
+        vetor.set(id, null);
+        removerDoIndice(atual.porGenero, chave(conteudo.getGenero()), id);
+        atual.porTipo.get(conteudo.getTipoConteudo()).remove(id);
+        atual.indiceTitulos.remover(id);
+        tamanho--;
+        if (atual.proximoId - tamanho > Math.max(LIMIAR_COMPACTACAO, tamanho / 8)) {
+            compactar();
+        }
+        return conteudo;
+    }
+
+    public boolean contem(String titulo) {
+        return indices.buscar(chave(titulo)) != null;
+    }
+
+    //Se é esta instância que está no catálogo. O id guardado no conteúdo pode estar sendo renumerado
+    //por uma compactação: quando ele não leva ao conteúdo, o título confirma.
+    public boolean contem(Conteudo conteudo) {
+        Indices atual = indices;
+        return atual.buscarPorId(conteudo.getId()) == conteudo || atual.buscar(chave(conteudo.getTitulo())) == conteudo;
+    }
+
+    public Optional<Conteudo> buscarPorTitulo(String titulo) {
+        return Optional.ofNullable(indices.buscar(chave(titulo)));
+    }
+
+    //null se o id não estiver (mais) no catálogo
+    public Conteudo buscarPorId(int id) {
+        return indices.buscarPorId(id);
+    }
+
+    public Collection<Conteudo> listarPorGenero(String genero) {
+        return valores(indices.porGenero.get(chave(genero)));
+    }
+
+    //Aceita o nome ("Série") ou o registro do arquivo ("Serie"); tipo desconhecido dá lista vazia
+    public Collection<Conteudo> listarPorTipo(String tipo) {
+        return TipoConteudo.deNome(tipo).map(this::listarPorTipo).orElse(Collections.emptyList());
+    }
+
+    public Collection<Conteudo> listarPorTipo(TipoConteudo tipo) {
+        return valores(indices.porTipo.get(tipo));
+    }
+
+    public List<Conteudo> pesquisarPorTitulo(String texto, int inicio, int limite) {
+        return indices.indiceTitulos.pesquisar(texto, inicio, limite);
+    }
+
+    //Os conteúdos que entraram depois da montagem dos índices são conferidos um a um até a próxima montagem
+    public ResultadoFiltro filtrar(FiltroConteudos filtro) {
+        Indices atual = indices;
+        IndiceFacetas indice = atual.facetas;
+        if (indice == null || indice.desatualizado(atual.proximoId, tamanho)) {
+            synchronized (montagemFacetas) { //uma montagem por vez; quem esperou usa a que acabou de sair
+                indice = atual.facetas;
+                if (indice == null || indice.desatualizado(atual.proximoId, tamanho)) {
+                    indice = new IndiceFacetas(atual::buscarPorId, atual.proximoId);
+                    atual.facetas = indice;
+                }
+            }
+        }
+        return indice.filtrar(filtro, atual::buscarPorId, atual.proximoId);
+    }
+
+    //Cópia na ordem de inserção
+    public List<Conteudo> listar() {
+        List<Conteudo> copia = new ArrayList<>(tamanho);
+        copia.addAll(visao());
+        return copia;
+    }
+
+    //Visão (sem cópia) na ordem de inserção, que acompanha as alterações feitas durante a iteração
+    //(até uma compactação: daí em diante o iterador continua nos índices em que começou)
+    public Collection<Conteudo> visao() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Conteudo> iterator() {
+                return new Iterator<>() {
+                    private final Indices percorridos = indices;
+                    private int posicao;
+                    private Conteudo proximo = avancar();
+
+                    //Relê o vetor a cada passo: se ele cresceu durante a iteração, os novos também aparecem
+                    private Conteudo avancar() {
+                        AtomicReferenceArray<Conteudo> vetor = percorridos.porId;
+                        while (posicao < vetor.length()) {
+                            Conteudo conteudo = vetor.get(posicao++);
+                            if (conteudo != null) return conteudo;
+                        }
+                        return null;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return proximo != null;
+                    }
+
+                    @Override
+                    public Conteudo next() {
+                        if (proximo == null) throw new NoSuchElementException();
+                        Conteudo atual = proximo;
+                        proximo = avancar();
+                        return atual;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return tamanho;
+            }
+        };
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    private static void inserir(Indices destino, int id, Conteudo conteudo, String chave) {
+        vetorCom(destino, id).set(id, conteudo);
+        destino.porGenero.computeIfAbsent(chave(conteudo.getGenero()), g -> new ConcurrentSkipListMap<>()).put(id, conteudo);
+        destino.porTipo.get(conteudo.getTipoConteudo()).put(id, conteudo);
+        destino.indiceTitulos.adicionar(id, conteudo);
+        destino.porTitulo.colocar(chave, id); //por último: quem acha pelo título já acha nos outros índices
+    }
+
+    //Renumera os conteúdos em 0, 1, 2... (na mesma ordem) em índices novos e troca de uma vez.
+    //Custa O(tamanho) a cada tamanho/8 remoções; leitores ainda nos índices antigos terminam neles.
+    private void compactar() {
+        Indices antigos = indices;
+        Indices novos = new Indices(Math.max(CAPACIDADE_INICIAL, tamanho * 2));
+        AtomicReferenceArray<Conteudo> vetor = antigos.porId;
+        int id = 0;
+        for (int i = 0; i < antigos.proximoId; i++) {
+            Conteudo conteudo = vetor.get(i);
+            if (conteudo != null) inserir(novos, id++, conteudo, chave(conteudo.getTitulo()));
+        }
+        novos.proximoId = id;
+        indices = novos;
+        for (int i = 0; i < id; i++) {
+            novos.porId.get(i).setId(i); //depois da troca: até aqui o id antigo ainda vale nos índices antigos
+        }
+    }
+
+    //O vetor cresce por cópia; a cópia é publicada antes de receber o conteúdo novo
+    private static AtomicReferenceArray<Conteudo> vetorCom(Indices destino, int id) {
+        AtomicReferenceArray<Conteudo> vetor = destino.porId;
+        if (id < vetor.length()) return vetor;
+        AtomicReferenceArray<Conteudo> maior = new AtomicReferenceArray<>(Math.max(id + 1, vetor.length() * 2));
+        for (int i = 0; i < vetor.length(); i++) {
+            maior.lazySet(i, vetor.get(i));
+        }
+        destino.porId = maior;
+        return maior;
+    }
+
+    private static Collection<Conteudo> valores(ConcurrentNavigableMap<Integer, Conteudo> indice) {
+        if (indice == null) return Collections.emptyList();
+        return Collections.unmodifiableCollection(indice.values());
+    }
+
+    private static void removerDoIndice(Map<String, ConcurrentNavigableMap<Integer, Conteudo>> indice, String chave, int id) {
+        ConcurrentNavigableMap<Integer, Conteudo> conjunto = indice.get(chave);
+        if (conjunto == null) return;
+        conjunto.remove(id);
+        if (conjunto.isEmpty()) indice.remove(chave); //não deixa gêneros vazios acumulando
+    }
+
+    static String chave(String texto) {
+        return texto.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,277 @@
+package br.inatel.services;
+
+import br.inatel.models.Conteudo;
+import br.inatel.models.TipoConteudo;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Ranking mantido sempre ordenado para uma estratégia: cada avaliação recalcula só a pontuação do
+//conteúdo avaliado e troca a entrada dele na skip list, então ler o topo não ordena nada.
+//Além do ranking geral há um por gênero e um por tipo, atualizados juntos (O(log n) cada).
+//Empates seguem a ordem em que os conteúdos entraram, como no SeletorTopK.
+//Tudo é recalculado só quando a referência muda: a média global se afastou mais que
+//DESVIO_MAXIMO_MEDIA da usada nas pontuações (só estratégias que usam a média global), ou (estratégias
+//com tempo) a cada INTERVALO_DECAIMENTO. O recálculo roda numa thread à parte, nunca em quem avalia
+//ou consulta; até ele terminar valem as pontuações da referência anterior.
+public class Classificacao {
+    private static final double DESVIO_MAXIMO_MEDIA = 0.01;
+    private static final long INTERVALO_DECAIMENTO_MS = 60_000;
+    private static final ExecutorService RECALCULOS = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "recalculo-classificacao");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record Entrada(double pontuacao, long ordem, Conteudo conteudo) {
+    }
+
+    private static final Comparator<Entrada> ORDEM = Comparator.comparingDouble(Entrada::pontuacao).reversed()
+            .thenComparingLong(Entrada::ordem);
+
+    //Estado por conteúdo, alterado só com o lock do próprio objeto
+    private static class Item {
+        final long ordem;
+        final ConcurrentSkipListSet<Entrada> doGenero;
+        final ConcurrentSkipListSet<Entrada> doTipo;
+        long totalVisto; //avaliações do conteúdo já contadas aqui
+        long somaVista;
+        double somaRecente; //com peso e^(lambda * (instante - epoca)), que só cresce
+        double pesoRecente;
+        volatile Entrada entrada;
+        boolean removido;
+
+        Item(long ordem, ConcurrentSkipListSet<Entrada> doGenero, ConcurrentSkipListSet<Entrada> doTipo) {
+            this.ordem = ordem;
+            this.doGenero = doGenero;
+            this.doTipo = doTipo;
+        }
+    }
+
+    private final EstrategiaRanking estrategia;
+    private final double lambda; //por milissegundo; 0 se a estratégia não usa o tempo
+    private final long epoca;
+    private final ConcurrentSkipListSet<Entrada> ordenadas;
+    private final ConcurrentHashMap<String, ConcurrentSkipListSet<Entrada>> porGenero;
+    private final EnumMap<TipoConteudo, ConcurrentSkipListSet<Entrada>> porTipo; //fixo depois do construtor
+    private final ConcurrentHashMap<Conteudo, Item> itens;
+    private final AtomicLong proximaOrdem;
+    private final LongAdder somaGlobal;
+    private final LongAdder totalGlobal;
+    private final ReentrantLock recalculo;
+    private final AtomicBoolean recalculoAgendado;
+    private final AtomicLong geracao; //quantas vezes tudo foi recalculado
+    private volatile DadosReferencia referencia;
+    private volatile boolean pronta; //carregar terminou
+
+    private record DadosReferencia(double mediaGlobal, long instante) {
+    }
+
+    public Classificacao(EstrategiaRanking estrategia) {
+        this.estrategia = estrategia;
+        Duration meiaVida = estrategia.meiaVida();
+        this.lambda = meiaVida == null ? 0 : Math.log(2) / meiaVida.toMillis();
+        this.epoca = System.currentTimeMillis();
+        this.ordenadas = new ConcurrentSkipListSet<>(ORDEM);
+        this.porGenero = new ConcurrentHashMap<>();
+        this.porTipo = new EnumMap<>(TipoConteudo.class);
+        for (TipoConteudo tipo : TipoConteudo.values()) {
+            porTipo.put(tipo, new ConcurrentSkipListSet<>(ORDEM));
+        }
+        this.itens = new ConcurrentHashMap<>();
+        this.proximaOrdem = new AtomicLong();
+        this.somaGlobal = new LongAdder();
+        this.totalGlobal = new LongAdder();
+        this.recalculo = new ReentrantLock();
+        this.recalculoAgendado = new AtomicBoolean();
+        this.geracao = new AtomicLong();
+        this.referencia = new DadosReferencia(0, epoca);
+    }
+
+    public EstrategiaRanking getEstrategia() {
+        return estrategia;
+    }
+
+    //Muda sempre que todas as pontuações são recalculadas (fora as atualizações de cada conteúdo)
+    public long getGeracao() {
+        return geracao.get();
+    }
+
+    //Entra com os conteúdos na ordem dada (a do catálogo) e fixa a primeira referência
+    public void carregar(Collection<Conteudo> conteudos) {
+        recalculoAgendado.set(true); //a média muda a cada conteúdo que entra: só o recálculo do final vale
+        for (Conteudo conteudo : conteudos) {
+            adicionar(conteudo);
+        }
+        recalculo.lock();
+        try {
+            recalcularTudo();
+        } finally {
+            recalculo.unlock();
+        }
+        recalculoAgendado.set(false);
+        pronta = true;
+    }
+
+    public boolean isPronta() {
+        return pronta;
+    }
+
+    public void adicionar(Conteudo conteudo) {
+        Item item = new Item(proximaOrdem.getAndIncrement(),
+                porGenero.computeIfAbsent(Catalogo.chave(conteudo.getGenero()), g -> new ConcurrentSkipListSet<>(ORDEM)),
+                porTipo.get(conteudo.getTipoConteudo()));
+        if (itens.putIfAbsent(conteudo, item) == null) {
+            atualizar(conteudo);
+        }
+    }
+
+    public void remover(Conteudo conteudo) {
+        Item item = itens.remove(conteudo);
+        if (item == null) return;
+        synchronized (item) {
+            item.removido = true; //uma atualização que já pegou o item não o coloca de volta
+            somaGlobal.add(-item.somaVista);
+            totalGlobal.add(-item.totalVisto);
+            if (item.entrada != null) retirar(item, item.entrada);
+        }
+    }
+
+    //Chamado a cada avaliação nova. Conta a diferença desde a última vez que o conteúdo foi visto,
+    //então avaliações que chegam juntas (ou já contadas na carga) não são somadas duas vezes.
+    public void atualizar(Conteudo conteudo) {
+        Item item = itens.get(conteudo);
+        if (item == null) return;
+        synchronized (item) {
+            if (item.removido) return;
+            long total = conteudo.getTotalAvaliacoes();
+            long soma = conteudo.getSomaNotas();
+            long novas = total - item.totalVisto;
+            long somaNovas = soma - item.somaVista;
+            if (novas != 0 && lambda > 0) {
+                double peso = Math.exp(lambda * (System.currentTimeMillis() - epoca));
+                item.somaRecente += somaNovas * peso;
+                item.pesoRecente += novas * peso;
+            }
+            item.totalVisto = total;
+            item.somaVista = soma;
+            somaGlobal.add(somaNovas);
+            totalGlobal.add(novas);
+            pontuar(conteudo, item, referencia);
+        }
+        if (referenciaVencida()) agendarRecalculo();
+    }
+
+    public List<Conteudo> topo(int quantidade) {
+        return pagina(0, quantidade);
+    }
+
+    public List<Conteudo> pagina(int inicio, int quantidade) {
+        return pagina(ordenadas, inicio, quantidade);
+    }
+
+    //Páginas dentro de um gênero ou tipo (sem diferenciar maiúsculas). Chegar ao início da página
+    //percorre as entradas anteriores: a skip list não guarda posições.
+    public List<Conteudo> paginaPorGenero(String genero, int inicio, int quantidade) {
+        ConcurrentSkipListSet<Entrada> doGenero = porGenero.get(Catalogo.chave(genero));
+        return doGenero == null ? new ArrayList<>() : pagina(doGenero, inicio, quantidade);
+    }
+
+    public List<Conteudo> paginaPorTipo(String tipo, int inicio, int quantidade) {
+        return TipoConteudo.deNome(tipo).map(t -> paginaPorTipo(t, inicio, quantidade)).orElseGet(ArrayList::new);
+    }
+
+    public List<Conteudo> paginaPorTipo(TipoConteudo tipo, int inicio, int quantidade) {
+        return pagina(porTipo.get(tipo), inicio, quantidade);
+    }
+
+    private List<Conteudo> pagina(ConcurrentSkipListSet<Entrada> entradas, int inicio, int quantidade) {
+        if (referenciaVencida()) agendarRecalculo();
+        List<Conteudo> resultado = new ArrayList<>(Math.min(quantidade, 256));
+        int pulados = 0;
+        for (Entrada entrada : entradas) {
+            if (resultado.size() >= quantidade) break;
+            Item item = itens.get(entrada.conteudo());
+            if (item == null || item.entrada != entrada) continue; //entrada antiga de um conteúdo que mudou de posição
+            if (pulados++ < inicio) continue;
+            resultado.add(entrada.conteudo());
+        }
+        return resultado;
+    }
+
+    //Pontuação atual do conteúdo, ou NaN se ele não está na classificação
+    public double pontuacao(Conteudo conteudo) {
+        Item item = itens.get(conteudo);
+        Entrada entrada = item == null ? null : item.entrada;
+        return entrada == null ? Double.NaN : entrada.pontuacao();
+    }
+
+    private double mediaGlobal() {
+        long total = totalGlobal.sum();
+        return total == 0 ? 0 : (double) somaGlobal.sum() / total;
+    }
+
+    private boolean referenciaVencida() {
+        DadosReferencia atual = referencia;
+        return (estrategia.usaMediaGlobal() && Math.abs(mediaGlobal() - atual.mediaGlobal()) > DESVIO_MAXIMO_MEDIA)
+                || (lambda > 0 && System.currentTimeMillis() - atual.instante() > INTERVALO_DECAIMENTO_MS);
+    }
+
+    //Um recálculo por vez e no máximo um na fila; o que chegar durante um recálculo vê a referência nova
+    private void agendarRecalculo() {
+        if (!recalculoAgendado.compareAndSet(false, true)) return;
+        RECALCULOS.execute(() -> {
+            recalculoAgendado.set(false);
+            recalculo.lock();
+            try {
+                if (referenciaVencida()) recalcularTudo();
+            } finally {
+                recalculo.unlock();
+            }
+        });
+    }
+
+    private void recalcularTudo() {
+        DadosReferencia nova = new DadosReferencia(mediaGlobal(), System.currentTimeMillis());
+        referencia = nova;
+        itens.forEach((conteudo, item) -> {
+            synchronized (item) {
+                if (!item.removido) pontuar(conteudo, item, nova);
+            }
+        });
+        geracao.incrementAndGet();
+    }
+
+    //Insere a entrada nova antes de tirar a antiga: quem lê no meio vê as duas e descarta a antiga,
+    //em vez de não ver o conteúdo
+    private void pontuar(Conteudo conteudo, Item item, DadosReferencia ref) {
+        double fator = lambda > 0 ? Math.exp(-lambda * (ref.instante() - epoca)) : 0;
+        DadosRanking dados = new DadosRanking(ref.mediaGlobal(), item.somaRecente * fator, item.pesoRecente * fator);
+        Entrada nova = new Entrada(estrategia.pontuar(conteudo, dados), item.ordem, conteudo);
+        Entrada antiga = item.entrada;
+        if (antiga != null && antiga.pontuacao() == nova.pontuacao()) return;
+        ordenadas.add(nova);
+        item.doGenero.add(nova);
+        item.doTipo.add(nova);
+        item.entrada = nova;
+        if (antiga != null) retirar(item, antiga);
+    }
+
+    private void retirar(Item item, Entrada entrada) {
+        ordenadas.remove(entrada);
+        item.doGenero.remove(entrada);
+        item.doTipo.remove(entrada);
+    }
+}
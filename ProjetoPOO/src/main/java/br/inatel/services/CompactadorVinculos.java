@@ -0,0 +1,62 @@
+package br.inatel.services;
+
+import br.inatel.models.Usuario;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//Guarda os usuários com avaliações em conteúdos removidos e, quando passam de LIMITE_USUARIOS,
+//compacta as listas deles numa thread em segundo plano. Até lá as lápides só são puladas na leitura.
+class CompactadorVinculos {
+    private static final int LIMITE_USUARIOS = 4096;
+
+    private final Set<Usuario> pendentes;
+    private final AtomicBoolean agendado;
+    private final ExecutorService executor;
+
+    CompactadorVinculos() {
+        this.pendentes = ConcurrentHashMap.newKeySet();
+        this.agendado = new AtomicBoolean();
+        this.executor = Executors.newCachedThreadPool(r -> { //a thread morre sozinha quando fica parada
+            Thread thread = new Thread(r, "compactacao-vinculos");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void marcar(Usuario usuario) {
+        pendentes.add(usuario);
+    }
+
+    void agendarSeNecessario() {
+        if (pendentes.size() >= LIMITE_USUARIOS && agendado.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    compactar();
+                } finally {
+                    agendado.set(false);
+                }
+            });
+        }
+    }
+
+    //Devolve quantas lápides saíram
+    long compactar() {
+        long removidas = 0;
+        Iterator<Usuario> iterador = pendentes.iterator();
+        while (iterador.hasNext()) {
+            Usuario usuario = iterador.next();
+            iterador.remove(); //se for marcado de novo durante a compactação, volta para o conjunto
+            removidas += usuario.compactarAvaliacoes();
+        }
+        return removidas;
+    }
+
+    int getPendentes() {
+        return pendentes.size();
+    }
+}
@@ -0,0 +1,7 @@
+package br.inatel.services;
+
+//O que a Classificacao entrega para a estratégia além do próprio conteúdo: a média de todas as
+//avaliações do catálogo e, se a estratégia usa o tempo, a soma das notas e o total de avaliações
+//com o peso de cada uma já reduzido pela idade.
+public record DadosRanking(double mediaGlobal, double somaRecente, double pesoRecente) {
+}
@@ -0,0 +1,246 @@
+package br.inatel.services;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+//Diário (write-ahead log) só de acréscimo com as operações feitas no Gerenciador.
+//Cada linha é "crc;sequencia;OPERACAO;dados", com \n, \r e \\ dos dados escapados (um título ou
+//comentário com quebra de linha não parte o registro em dois). Uma thread escritora junta as operações pendentes
+//num lote, grava tudo de uma vez e faz um único fsync para o lote inteiro (group commit).
+public class DiarioOperacoes implements Closeable {
+    public static final String ADICIONAR = "ADICIONAR";
+    public static final String REMOVER = "REMOVER";
+    public static final String AVALIAR = "AVALIAR";
+
+    private static final int TAMANHO_LOTE = 4096;
+    private static final Pendente FIM = new Pendente(null, new CompletableFuture<>());
+
+    private final FileChannel canal;
+    private final BlockingQueue<Pendente> fila;
+    private final Thread escritor;
+    private volatile boolean fechado;
+
+    //Uma linha a gravar; linha nula é só um marcador para esperar o que já está na fila
+    private record Pendente(String linha, CompletableFuture<Void> gravada) {
+    }
+
+    //Aplica no estado uma operação lida do diário
+    public interface Aplicador {
+        void aplicar(String operacao, String dados);
+    }
+
+    private DiarioOperacoes(FileChannel canal) {
+        this.canal = canal;
+        this.fila = new LinkedBlockingQueue<>();
+        this.escritor = new Thread(this::gravarLotes, "diario-operacoes");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    public static DiarioOperacoes abrir(Path path) throws IOException {
+        Path absoluto = path.toAbsolutePath();
+        Files.createDirectories(absoluto.getParent());
+        FileChannel canal = FileChannel.open(absoluto, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        canal.position(canal.size());
+        return new DiarioOperacoes(canal);
+    }
+
+    //A operação fica durável quando o futuro completa (no fsync do lote em que ela entrou)
+    public CompletableFuture<Void> registrar(long sequencia, String operacao, String dados) {
+        if (fechado) {
+            throw new IllegalStateException("O diário de operações está fechado.");
+        }
+        String corpo = sequencia + ";" + operacao + ";" + escapar(dados);
+        Pendente pendente = new Pendente(Long.toHexString(crc(corpo)) + ";" + corpo + "\n", new CompletableFuture<>());
+        fila.add(pendente);
+        return pendente.gravada();
+    }
+
+    //Espera até que tudo o que já foi registrado esteja gravado em disco
+    public void sincronizar() throws IOException {
+        if (fechado) return;
+        Pendente marcador = new Pendente(null, new CompletableFuture<>());
+        fila.add(marcador);
+        try {
+            marcador.gravada().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido esperando o diário de operações.");
+        } catch (ExecutionException e) {
+            throw new IOException("Erro ao gravar o diário de operações: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    //Descarta as operações gravadas, usado depois que um snapshot já contém todas elas
+    public void truncar() throws IOException {
+        sincronizar();
+        synchronized (canal) {
+            canal.truncate(0);
+            canal.position(0);
+            canal.force(true);
+        }
+    }
+
+    public long tamanho() throws IOException {
+        synchronized (canal) {
+            return canal.size();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fechado) return;
+        fechado = true;
+        fila.add(FIM); //a escritora grava o que ainda estiver na fila e termina
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+    }
+
+    private void gravarLotes() {
+        List<Pendente> lote = new ArrayList<>();
+        boolean terminar = false;
+        while (!terminar) {
+            try {
+                lote.add(fila.take());
+            } catch (InterruptedException e) {
+                continue; //só termina pelo marcador FIM, para não perder operações pendentes
+            }
+            fila.drainTo(lote, TAMANHO_LOTE - 1);
+            terminar = lote.contains(FIM);
+
+            try {
+                StringBuilder sb = new StringBuilder();
+                for (Pendente pendente : lote) {
+                    if (pendente.linha() != null) sb.append(pendente.linha());
+                }
+                if (sb.length() > 0) {
+                    ByteBuffer bytes = StandardCharsets.UTF_8.encode(sb.toString());
+                    synchronized (canal) {
+                        while (bytes.hasRemaining()) {
+                            canal.write(bytes);
+                        }
+                        canal.force(false); //um fsync por lote
+                    }
+                }
+                for (Pendente pendente : lote) {
+                    pendente.gravada().complete(null);
+                }
+            } catch (IOException e) {
+                System.err.println("Erro ao gravar o diário de operações: " + e.getMessage());
+                for (Pendente pendente : lote) {
+                    pendente.gravada().completeExceptionally(e);
+                }
+            }
+            lote.clear();
+        }
+    }
+
+    //Reaplica as operações com sequência maior que "aPartirDe" e devolve a maior sequência encontrada.
+    //Avaliações concorrentes podem entrar no arquivo fora da ordem da sequência, por isso a comparação é com "aPartirDe".
+    //Uma linha corrompida no meio do arquivo é pulada (com aviso) e as seguintes continuam valendo;
+    //só o que vem depois do último registro válido (queda no meio de uma gravação) é descartado do arquivo.
+    public static long reproduzir(Path path, long aPartirDe, Aplicador aplicador) throws IOException {
+        if (!Files.exists(path)) return aPartirDe;
+
+        long ultimaSequencia = aPartirDe;
+        long tamanhoValido = 0;
+        try (FileChannel canal = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            InputStream entrada = new BufferedInputStream(Channels.newInputStream(canal), 1 << 16);
+            ByteArrayOutputStream linha = new ByteArrayOutputStream(256);
+            long posicao = 0;
+            long inicioLinha = 0;
+            int b;
+            while ((b = entrada.read()) != -1) {
+                posicao++;
+                if (b != '\n') {
+                    linha.write(b);
+                    continue;
+                }
+                String texto = linha.toString(StandardCharsets.UTF_8);
+                linha.reset();
+                long inicio = inicioLinha;
+                inicioLinha = posicao;
+
+                int sep = texto.indexOf(';');
+                String[] partes = sep < 0 ? null : texto.substring(sep + 1).split(";", 3);
+                if (partes == null || partes.length < 3
+                        || !texto.substring(0, sep).equals(Long.toHexString(crc(texto.substring(sep + 1))))) {
+                    System.err.println("Diário de operações: linha inválida no byte " + inicio + ", ignorada.");
+                    continue;
+                }
+                long sequencia = Long.parseLong(partes[0]);
+                if (sequencia > aPartirDe) {
+                    aplicador.aplicar(partes[1], desescapar(partes[2]));
+                }
+                ultimaSequencia = Math.max(ultimaSequencia, sequencia);
+                tamanhoValido = posicao;
+            }
+
+            if (tamanhoValido < canal.size()) {
+                System.err.println("Diário de operações com final incompleto, descartando "
+                        + (canal.size() - tamanhoValido) + " bytes.");
+                canal.truncate(tamanhoValido);
+            }
+        }
+        return ultimaSequencia;
+    }
+
+    private static String escapar(String dados) {
+        if (dados.indexOf('\n') < 0 && dados.indexOf('\r') < 0 && dados.indexOf('\\') < 0) return dados;
+        StringBuilder sb = new StringBuilder(dados.length() + 8);
+        for (int i = 0; i < dados.length(); i++) {
+            char c = dados.charAt(i);
+            switch (c) {
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\\' -> sb.append("\\\\");
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    //Barra seguida de outro caractere fica como está
+    private static String desescapar(String dados) {
+        if (dados.indexOf('\\') < 0) return dados;
+        StringBuilder sb = new StringBuilder(dados.length());
+        for (int i = 0; i < dados.length(); i++) {
+            char c = dados.charAt(i);
+            if (c != '\\' || i + 1 == dados.length()) {
+                sb.append(c);
+                continue;
+            }
+            char proximo = dados.charAt(++i);
+            switch (proximo) {
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case '\\' -> sb.append('\\');
+                default -> sb.append(c).append(proximo);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static long crc(String texto) {
+        CRC32 crc = new CRC32();
+        crc.update(texto.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,221 @@
+package br.inatel.services;
+
+import br.inatel.models.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+//Grava o arquivo de texto direto num buffer direto reaproveitado entre gravações, sem String.format
+//nem lista de linhas: os campos são codificados em UTF-8 caractere a caractere e os números dígito a dígito.
+//Gera exatamente os mesmos bytes de ParserRegistros.formatarConteudo/formatarAvaliacao + Files.write;
+//a exceção são as avaliações que ainda estão no arquivo de uma carga sob demanda, copiadas como estavam lá.
+//Grava num temporário e só então troca pelo arquivo final, então uma gravação pela metade nunca fica no lugar.
+class EscritorTexto {
+    private static final int TAMANHO_BUFFER = 1 << 18;
+    private static final byte[] QUEBRA_LINHA = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FILME = prefixo(TipoConteudo.FILME);
+    private static final byte[] SERIE = prefixo(TipoConteudo.SERIE);
+    private static final byte[] LIVRO = prefixo(TipoConteudo.LIVRO);
+    private static final byte[] AVALIACAO = ParserRegistros.PREFIXO_AVALIACAO.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DIARIO = ParserRegistros.PREFIXO_DIARIO.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NULO = "null".getBytes(StandardCharsets.UTF_8); //o que o String.format escrevia para campos nulos
+
+    //Retrato do Gerenciador num instante: os conteúdos do catálogo e quantas avaliações cada um tinha.
+    //As avaliações só crescem no fim da lista, então o começo dela continua sendo o estado daquele instante.
+    //versao é a versão geral do Gerenciador no momento do retrato.
+    record Instantaneo(Conteudo[] conteudos, int[] avaliacoes, long sequenciaDiario, long versao) {
+        long totalAvaliacoes() {
+            long total = 0;
+            for (int quantidade : avaliacoes) {
+                total += quantidade;
+            }
+            return total;
+        }
+    }
+
+    private ByteBuffer buffer; //criado na primeira gravação
+    private FileChannel canal;
+    private long escritos;
+
+    //sequenciaDiario 0: sem a linha de marcador do diário. Devolve os bytes gravados.
+    synchronized long salvar(Instantaneo instantaneo, Path path) throws IOException {
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+        }
+        Path absoluto = path.toAbsolutePath();
+        Files.createDirectories(absoluto.getParent()); // Garante que o diretório existe
+        Path temporario = absoluto.resolveSibling(absoluto.getFileName() + ".tmp");
+        try (FileChannel aberto = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            canal = aberto;
+            escritos = 0;
+            buffer.clear();
+            if (instantaneo.sequenciaDiario() > 0) {
+                bytes(DIARIO);
+                numero(instantaneo.sequenciaDiario());
+                bytes(QUEBRA_LINHA);
+            }
+            Conteudo[] conteudos = instantaneo.conteudos();
+            for (int c = 0; c < conteudos.length; c++) {
+                conteudo(conteudos[c]);
+                List<Avaliacao> avaliacoes = conteudos[c].getAvaliacoes();
+                int n = instantaneo.avaliacoes()[c]; //as que chegaram depois do retrato ficam para a próxima
+                for (int i = copiarDoArquivo(conteudos[c].getTrechoAvaliacoes()); i < n; i++) {
+                    avaliacao(avaliacoes.get(i));
+                }
+            }
+            descarregar();
+        } finally {
+            canal = null;
+        }
+        Files.move(temporario, absoluto, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return escritos;
+    }
+
+    //Avaliações ainda no arquivo de uma carga sob demanda vão byte a byte de lá, sem serem lidas.
+    //Retorna quantas foram copiadas (as primeiras da lista).
+    private int copiarDoArquivo(TrechoAvaliacoes trecho) throws IOException {
+        if (trecho == null || !(trecho.fonte() instanceof ArquivoAvaliacoes arquivo)) return 0;
+        descarregar();
+        boolean terminaEmQuebra = arquivo.copiar(trecho, canal);
+        escritos += trecho.bytes();
+        if (!terminaEmQuebra) bytes(QUEBRA_LINHA);
+        return trecho.quantidade();
+    }
+
+    private void conteudo(Conteudo conteudo) throws IOException {
+        switch (conteudo.getTipoConteudo()) {
+            case FILME -> {
+                comum(FILME, conteudo);
+                texto(((Filme) conteudo).getDiretor());
+                separador();
+                numero(((Filme) conteudo).getDuracao());
+            }
+            case SERIE -> {
+                comum(SERIE, conteudo);
+                numero(((Serie) conteudo).getTemporadas());
+                separador();
+                numero(((Serie) conteudo).getEpisodios());
+            }
+            case LIVRO -> {
+                comum(LIVRO, conteudo);
+                texto(((Livro) conteudo).getAutor());
+                separador();
+                texto(((Livro) conteudo).getEditora());
+            }
+        }
+        bytes(QUEBRA_LINHA);
+    }
+
+    private void comum(byte[] prefixo, Conteudo conteudo) throws IOException {
+        bytes(prefixo);
+        texto(conteudo.getTitulo());
+        separador();
+        texto(conteudo.getGenero());
+        separador();
+        numero(conteudo.getAnoLancamento());
+        separador();
+    }
+
+    private void avaliacao(Avaliacao avaliacao) throws IOException {
+        bytes(AVALIACAO);
+        texto(avaliacao.getNomeAutor());
+        separador();
+        numero(avaliacao.getNota());
+        separador();
+        texto(avaliacao.getEmailAutor());
+        separador();
+        texto(avaliacao.getComentario());
+        bytes(QUEBRA_LINHA);
+    }
+
+    private void separador() throws IOException {
+        garantir(1);
+        buffer.put((byte) ';');
+    }
+
+    private void bytes(byte[] bytes) throws IOException {
+        garantir(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private void numero(long valor) throws IOException {
+        garantir(20);
+        if (valor < 0) {
+            buffer.put((byte) '-');
+            if (valor == Long.MIN_VALUE) { //não tem positivo correspondente
+                bytes(Long.toString(valor).substring(1).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            valor = -valor;
+        }
+        long divisor = 1;
+        while (divisor <= valor / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + (valor / divisor) % 10));
+        }
+    }
+
+    //UTF-8 à mão; surrogate sem par vira '?', como no String.getBytes
+    private void texto(String texto) throws IOException {
+        if (texto == null) {
+            bytes(NULO);
+            return;
+        }
+        int n = texto.length();
+        for (int i = 0; i < n; i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                garantir(1);
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                garantir(2);
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    int codigo = Character.toCodePoint(c, texto.charAt(++i));
+                    garantir(4);
+                    buffer.put((byte) (0xF0 | (codigo >> 18)));
+                    buffer.put((byte) (0x80 | ((codigo >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((codigo >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (codigo & 0x3F)));
+                } else {
+                    garantir(1);
+                    buffer.put((byte) '?');
+                }
+            } else {
+                garantir(3);
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private void garantir(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) descarregar();
+    }
+
+    private void descarregar() throws IOException {
+        buffer.flip();
+        escritos += buffer.remaining();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static byte[] prefixo(TipoConteudo tipo) {
+        return (tipo.getRegistro() + ";").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,23 @@
+package br.inatel.services;
+
+import br.inatel.models.Conteudo;
+
+import java.time.Duration;
+
+//Como um conteúdo é pontuado numa Classificacao. A pontuação é calculada quando o conteúdo recebe
+//avaliações (ou quando a referência global muda), nunca durante uma comparação. As estratégias
+//prontas estão em Rankings.
+public interface EstrategiaRanking {
+
+    double pontuar(Conteudo conteudo, DadosRanking dados);
+
+    //Meia-vida do peso de cada avaliação; null se a estratégia não usa o tempo
+    default Duration meiaVida() {
+        return null;
+    }
+
+    //false se a pontuação não depende de DadosRanking.mediaGlobal: a mudança da média não recalcula nada
+    default boolean usaMediaGlobal() {
+        return true;
+    }
+}
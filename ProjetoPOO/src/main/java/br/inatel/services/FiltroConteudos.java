@@ -0,0 +1,201 @@
+package br.inatel.services;
+
+import br.inatel.models.*;
+
+import java.util.Comparator;
+
+//Filtros combináveis para Gerenciador.filtrar, montados em cadeia:
+//  new FiltroConteudos().tipo(TipoConteudo.FILME).genero("Drama").anos(1990, 1999).ordenarPor(Ordem.NOTA)
+//Todos os filtros informados precisam valer (E). Faixas incluem os dois extremos.
+//Duração só existe em filmes, temporadas e episódios em séries e autor em livros: filtrar por
+//um deles já deixa de fora os outros tipos. Texto (gênero, autor) não diferencia maiúsculas.
+public class FiltroConteudos {
+    public enum Ordem {
+        INSERCAO, TITULO, ANO_CRESCENTE, ANO_DECRESCENTE, NOTA
+    }
+
+    private TipoConteudo tipo;
+    private String genero;
+    private String autor;
+    private int anoMinimo = Integer.MIN_VALUE;
+    private int anoMaximo = Integer.MAX_VALUE;
+    private int duracaoMinima = Integer.MIN_VALUE;
+    private int duracaoMaxima = Integer.MAX_VALUE;
+    private int temporadasMinimas = Integer.MIN_VALUE;
+    private int temporadasMaximas = Integer.MAX_VALUE;
+    private int episodiosMinimos = Integer.MIN_VALUE;
+    private int episodiosMaximos = Integer.MAX_VALUE;
+    private double notaMinima;
+    private Ordem ordem = Ordem.INSERCAO;
+    private int pagina;
+    private int tamanhoPagina = 20;
+
+    public FiltroConteudos tipo(TipoConteudo tipo) {
+        this.tipo = tipo;
+        return this;
+    }
+
+    public FiltroConteudos genero(String genero) {
+        this.genero = genero;
+        return this;
+    }
+
+    public FiltroConteudos autor(String autor) {
+        this.autor = autor;
+        return this;
+    }
+
+    public FiltroConteudos anos(int minimo, int maximo) {
+        this.anoMinimo = minimo;
+        this.anoMaximo = maximo;
+        return this;
+    }
+
+    public FiltroConteudos duracao(int minimaMinutos, int maximaMinutos) {
+        this.duracaoMinima = minimaMinutos;
+        this.duracaoMaxima = maximaMinutos;
+        return this;
+    }
+
+    public FiltroConteudos temporadas(int minimo, int maximo) {
+        this.temporadasMinimas = minimo;
+        this.temporadasMaximas = maximo;
+        return this;
+    }
+
+    public FiltroConteudos episodios(int minimo, int maximo) {
+        this.episodiosMinimos = minimo;
+        this.episodiosMaximos = maximo;
+        return this;
+    }
+
+    //Média das notas; conteúdos sem avaliação têm média 0
+    public FiltroConteudos notaMinima(double notaMinima) {
+        this.notaMinima = notaMinima;
+        return this;
+    }
+
+    public FiltroConteudos ordenarPor(Ordem ordem) {
+        this.ordem = ordem;
+        return this;
+    }
+
+    //A primeira página é a 0
+    public FiltroConteudos pagina(int pagina, int tamanhoPagina) {
+        if (pagina < 0 || tamanhoPagina <= 0) {
+            throw new IllegalArgumentException("Página inválida: " + pagina + " (tamanho " + tamanhoPagina + ")");
+        }
+        this.pagina = pagina;
+        this.tamanhoPagina = tamanhoPagina;
+        return this;
+    }
+
+    TipoConteudo getTipo() {
+        return tipo;
+    }
+
+    String getGenero() {
+        return genero;
+    }
+
+    String getAutor() {
+        return autor;
+    }
+
+    int getAnoMinimo() {
+        return anoMinimo;
+    }
+
+    int getAnoMaximo() {
+        return anoMaximo;
+    }
+
+    int getDuracaoMinima() {
+        return duracaoMinima;
+    }
+
+    int getDuracaoMaxima() {
+        return duracaoMaxima;
+    }
+
+    int getTemporadasMinimas() {
+        return temporadasMinimas;
+    }
+
+    int getTemporadasMaximas() {
+        return temporadasMaximas;
+    }
+
+    int getEpisodiosMinimos() {
+        return episodiosMinimos;
+    }
+
+    int getEpisodiosMaximos() {
+        return episodiosMaximos;
+    }
+
+    double getNotaMinima() {
+        return notaMinima;
+    }
+
+    Ordem getOrdem() {
+        return ordem;
+    }
+
+    long getInicio() {
+        return (long) pagina * tamanhoPagina;
+    }
+
+    int getTamanhoPagina() {
+        return tamanhoPagina;
+    }
+
+    boolean filtraAno() {
+        return anoMinimo != Integer.MIN_VALUE || anoMaximo != Integer.MAX_VALUE;
+    }
+
+    boolean filtraDuracao() {
+        return duracaoMinima != Integer.MIN_VALUE || duracaoMaxima != Integer.MAX_VALUE;
+    }
+
+    boolean filtraTemporadas() {
+        return temporadasMinimas != Integer.MIN_VALUE || temporadasMaximas != Integer.MAX_VALUE;
+    }
+
+    boolean filtraEpisodios() {
+        return episodiosMinimos != Integer.MIN_VALUE || episodiosMaximos != Integer.MAX_VALUE;
+    }
+
+    //Os mesmos filtros, conferidos direto no objeto (conteúdos que ainda não estão nos índices).
+    //A nota fica de fora: ela muda a cada avaliação e é conferida à parte, na hora da consulta.
+    boolean aceita(Conteudo conteudo) {
+        if (tipo != null && conteudo.getTipoConteudo() != tipo) return false;
+        if (genero != null && !conteudo.getGenero().equalsIgnoreCase(genero)) return false;
+        if (!dentro(conteudo.getAnoLancamento(), anoMinimo, anoMaximo)) return false;
+        if (filtraDuracao() && !(conteudo instanceof Filme filme && dentro(filme.getDuracao(), duracaoMinima, duracaoMaxima))) {
+            return false;
+        }
+        if (filtraTemporadas() && !(conteudo instanceof Serie serie && dentro(serie.getTemporadas(), temporadasMinimas, temporadasMaximas))) {
+            return false;
+        }
+        if (filtraEpisodios() && !(conteudo instanceof Serie serie && dentro(serie.getEpisodios(), episodiosMinimos, episodiosMaximos))) {
+            return false;
+        }
+        return autor == null || (conteudo instanceof Livro livro && livro.getAutor() != null && livro.getAutor().equalsIgnoreCase(autor));
+    }
+
+    //null na ordem de inserção, que já é a dos ids
+    Comparator<Conteudo> comparador() {
+        return switch (ordem) {
+            case INSERCAO -> null;
+            case TITULO -> Comparator.comparing(Conteudo::getTitulo, String.CASE_INSENSITIVE_ORDER);
+            case ANO_CRESCENTE -> Comparator.comparingInt(Conteudo::getAnoLancamento);
+            case ANO_DECRESCENTE -> Comparator.comparingInt(Conteudo::getAnoLancamento).reversed();
+            case NOTA -> Comparator.comparingDouble(Conteudo::getNotaMedia).reversed();
+        };
+    }
+
+    private static boolean dentro(int valor, int minimo, int maximo) {
+        return valor >= minimo && valor <= maximo;
+    }
+}
@@ -1,181 +1,802 @@
 package br.inatel.services;
 
+import br.inatel.exceptions.ConteudoNaoEncontradoException;
 import br.inatel.models.*;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public class Gerenciador {
-    private List<Conteudo> conteudos;
+    private static final int TAMANHO_BUFFER_LEITURA = 1 << 16;
+    private static final Comparator<Conteudo> POR_NOTA_DECRESCENTE =
+            Comparator.comparingDouble(Conteudo::getNotaMedia).reversed();
+    private static final int CAPACIDADE_CACHE = 4096;
+    private static final long VALIDADE_CACHE_SEGUNDOS = 30;
+    private static final CompletableFuture<Void> GRAVADA = CompletableFuture.completedFuture(null); //sem diário aberto
+
+    private Catalogo catalogo;
+    private RegistroUsuarios usuarios;
+
+    //Diário de operações (opcional): sequenciaDiario é a última operação já refletida no estado
+    private volatile DiarioOperacoes diario;
+    private AtomicLong sequenciaDiario;
+    private Path caminhoSnapshot;
+    private ScheduledExecutorService compactador;
+
+    //Consultas não usam lock. Alterações pegam a parte compartilhada (podem rodar juntas);
+    //salvar e compactar pegam a parte exclusiva para gravar um estado coerente com o diário.
+    private ReadWriteLock bloqueio;
+
+    //Só passa a montar a matriz de avaliações na primeira recomendação pedida
+    private RecomendadorColaborativo recomendador;
+
+    //Rankings ordenados por estratégia, criados na primeira consulta e mantidos a cada avaliação
+    private Map<EstrategiaRanking, Classificacao> classificacoes;
+
+    //Resultados das consultas, validados por versão: versaoCatalogo muda quando um conteúdo entra ou sai,
+    //versaoGeral a cada alteração (inclusive avaliações) e as épocas só para o gênero/tipo afetado
+    private CacheConsultas<List<Object>, List<Conteudo>> cache;
+    private AtomicLong versaoCatalogo;
+    private AtomicLong versaoGeral;
+    private Map<String, AtomicLong> epocasGenero;
+    private AtomicLongArray epocasTipo; //uma por TipoConteudo, na ordem do enum
+    private volatile boolean cacheAtivo;
+
+    //Avisado pelos conteúdos do catálogo a cada avaliação nova (ou lote, na importação)
+    private ObservadorAvaliacoes observador;
+
+    //Usuários cujas listas ficaram com lápides de conteúdos removidos
+    private CompactadorVinculos vinculos;
+
+    //Buffer de gravação do texto, reaproveitado entre um salvamento e outro
+    private EscritorTexto escritor;
+
+    //Snapshots em texto: uma gravação por vez (a mais nova nunca é sobrescrita por um retrato mais antigo),
+    //a versão geral gravada por arquivo (para não regravar o que não mudou) e o agendamento periódico
+    private ReentrantLock gravacao;
+    private Map<Path, Long> versoesSalvas;
+    private ScheduledExecutorService snapshots;
 
     public Gerenciador() {
-        this.conteudos = new ArrayList<>();
+        this.catalogo = new Catalogo();
+        this.usuarios = new RegistroUsuarios();
+        this.sequenciaDiario = new AtomicLong();
+        this.bloqueio = new ReentrantReadWriteLock();
+        this.recomendador = new RecomendadorColaborativo();
+        this.classificacoes = new ConcurrentHashMap<>();
+        this.cache = new CacheConsultas<>(CAPACIDADE_CACHE, VALIDADE_CACHE_SEGUNDOS, TimeUnit.SECONDS);
+        this.versaoCatalogo = new AtomicLong();
+        this.versaoGeral = new AtomicLong();
+        this.epocasGenero = new ConcurrentHashMap<>();
+        this.epocasTipo = new AtomicLongArray(TipoConteudo.values().length);
+        this.cacheAtivo = true;
+        this.observador = new Observador();
+        this.vinculos = new CompactadorVinculos();
+        this.escritor = new EscritorTexto();
+        this.gravacao = new ReentrantLock();
+        this.versoesSalvas = new ConcurrentHashMap<>();
     }
 
     public boolean contemConteudo(String titulo) {
-        return conteudos.stream()
-                .anyMatch(c -> c.getTitulo().equalsIgnoreCase(titulo));
+        return catalogo.contem(titulo);
+    } //consulta direta no índice por título
+
+    public Optional<Conteudo> buscarPorTitulo(String titulo) {
+        return catalogo.buscarPorTitulo(titulo);
     }
 
+    public Optional<Conteudo> buscarPorId(int id) {
+        return Optional.ofNullable(catalogo.buscarPorId(id));
+    } //id dado pelo catálogo (Conteudo.getId); muda quando o catálogo é compactado depois de remoções
+
     public List<Conteudo> recomendarPorGenero(String genero) {
-        return conteudos.stream()
-                .filter(c -> c.getGenero().equalsIgnoreCase(genero))
-                .sorted(Comparator.comparingDouble(Conteudo::getNotaMedia).reversed())
-                .collect(Collectors.toList());
-    } //stream, filtra por gênero e usa o case INsensitive, ordena os dados de forma decrescente e transforma o resultado em lista
+        return recomendarPorGenero(genero, Rankings.MEDIA);
+    } //conteúdos do gênero em ordem decrescente de nota, lidos da classificação já ordenada
+
+    public List<Conteudo> recomendarPorGenero(String genero, EstrategiaRanking estrategia) {
+        return recomendarPorGenero(genero, estrategia, 0, Integer.MAX_VALUE);
+    }
+
+    public List<Conteudo> recomendarPorGenero(String genero, EstrategiaRanking estrategia, int pagina, int tamanhoPagina) {
+        long inicio = inicioDaPagina(pagina, tamanhoPagina);
+        if (inicio > Integer.MAX_VALUE) return new ArrayList<>();
+        Classificacao classificacao = classificacao(estrategia);
+        String chave = Catalogo.chave(genero);
+        long versao = epoca(epocasGenero, chave) + classificacao.getGeracao(); //as duas só crescem
+        return consultar(List.of("genero", chave, estrategia, inicio, tamanhoPagina), versao,
+                () -> classificacao.paginaPorGenero(genero, (int) inicio, tamanhoPagina));
+    } //só a página pedida (a primeira página é a 0)
+
+    public List<Conteudo> recomendarPorTipo(String tipo, EstrategiaRanking estrategia, int pagina, int tamanhoPagina) {
+        Optional<TipoConteudo> conhecido = TipoConteudo.deNome(tipo);
+        if (conhecido.isEmpty()) {
+            inicioDaPagina(pagina, tamanhoPagina);
+            return new ArrayList<>();
+        }
+        return recomendarPorTipo(conhecido.get(), estrategia, pagina, tamanhoPagina);
+    } //Filme, Série (ou Serie) ou Livro, do melhor para o pior
+
+    public List<Conteudo> recomendarPorTipo(TipoConteudo tipo, EstrategiaRanking estrategia, int pagina, int tamanhoPagina) {
+        long inicio = inicioDaPagina(pagina, tamanhoPagina);
+        if (inicio > Integer.MAX_VALUE) return new ArrayList<>();
+        Classificacao classificacao = classificacao(estrategia);
+        long versao = epocasTipo.get(tipo.ordinal()) + classificacao.getGeracao();
+        return consultar(List.of("tipo", tipo, estrategia, inicio, tamanhoPagina), versao,
+                () -> classificacao.paginaPorTipo(tipo, (int) inicio, tamanhoPagina));
+    }
+
+    private static long inicioDaPagina(int pagina, int tamanhoPagina) {
+        if (pagina < 0 || tamanhoPagina <= 0) {
+            throw new IllegalArgumentException("Página inválida: " + pagina + " (tamanho " + tamanhoPagina + ")");
+        }
+        return (long) pagina * tamanhoPagina;
+    }
+
+    //Filtros combinados (tipo, gênero, autor, faixas de ano/duração/temporadas/episódios, nota mínima),
+    //com ordenação, página e as contagens por tipo, gênero e década de todos os que passaram
+    public ResultadoFiltro filtrar(FiltroConteudos filtro) {
+        return catalogo.filtrar(filtro);
+    }
+
+    public List<Conteudo> listarPorTipo(String tipo) {
+        return TipoConteudo.deNome(tipo).map(this::listarPorTipo).orElseGet(ArrayList::new);
+    }
+
+    public List<Conteudo> listarPorTipo(TipoConteudo tipo) {
+        return new ArrayList<>(catalogo.listarPorTipo(tipo));
+    }
 
     public List<Conteudo> recomendarTop(int topN) {
-        return conteudos.stream()
-                .sorted(Comparator.comparingDouble(Conteudo::getNotaMedia).reversed())
-                .limit(topN)
-                .collect(Collectors.toList());
+        return consultar(List.of("top", topN), versaoGeral.get(),
+                () -> SeletorTopK.selecionar(catalogo.listar(), topN, POR_NOTA_DECRESCENTE));
+    } //seleciona só os topN com um heap limitado, sem ordenar o catálogo inteiro
+
+    public List<Conteudo> recomendarTop(int topN, EstrategiaRanking estrategia) {
+        if (topN < 0) {
+            throw new IllegalArgumentException("A quantidade de itens não pode ser negativa: " + topN);
+        }
+        Classificacao classificacao = classificacao(estrategia);
+        return consultar(List.of("top", topN, estrategia), versaoGeral.get() + classificacao.getGeracao(),
+                () -> classificacao.topo(topN));
+    } //lê o começo da classificação já ordenada
+
+    //Os resultados do cache são compartilhados entre quem consulta, por isso vêm sem permitir alteração
+    private List<Conteudo> consultar(List<Object> chave, long versao, Supplier<List<Conteudo>> calcular) {
+        if (!cacheAtivo) return Collections.unmodifiableList(calcular.get());
+        return cache.obter(chave, versao, () -> Collections.unmodifiableList(calcular.get()));
+    }
+
+    private static long epoca(Map<String, AtomicLong> epocas, String chave) {
+        AtomicLong epoca = epocas.get(chave);
+        return epoca == null ? 0 : epoca.get();
+    }
+
+    //Chamado depois de aplicar a alteração: quem ler a versão nova já enxerga o dado novo
+    private void alterado(Conteudo conteudo, boolean mudouCatalogo) {
+        if (mudouCatalogo) versaoCatalogo.incrementAndGet();
+        versaoGeral.incrementAndGet();
+        epocasGenero.computeIfAbsent(Catalogo.chave(conteudo.getGenero()), g -> new AtomicLong()).incrementAndGet();
+        epocasTipo.incrementAndGet(conteudo.getTipoConteudo().ordinal());
+    }
+
+    public CacheConsultas<List<Object>, List<Conteudo>> getCacheConsultas() {
+        return cache;
+    } //acertos, falhas e tamanho do cache de consultas
+
+    public void setCacheConsultasAtivo(boolean ativo) {
+        this.cacheAtivo = ativo;
+        if (!ativo) cache.limpar();
+    } //desligado, toda consulta é calculada de novo (ex.: para medir o custo real)
+
+    private Classificacao classificacao(EstrategiaRanking estrategia) {
+        Classificacao existente = classificacoes.get(estrategia);
+        if (existente != null && existente.isPronta()) return existente;
+        synchronized (catalogo) { //nenhum conteúdo entra ou sai enquanto a classificação é montada
+            Classificacao classificacao = classificacoes.get(estrategia);
+            if (classificacao == null) {
+                //Publicada antes de carregar: as avaliações que chegam durante a carga já a atualizam.
+                //Quem consulta só a usa pronta; antes disso espera aqui pelo lock do catálogo.
+                classificacao = new Classificacao(estrategia);
+                classificacoes.put(estrategia, classificacao);
+                try {
+                    classificacao.carregar(catalogo.visao());
+                } catch (RuntimeException e) {
+                    classificacoes.remove(estrategia);
+                    throw e;
+                }
+            }
+            return classificacao;
+        }
+    }
+
+    public boolean adicionarConteudo(Conteudo conteudo) {
+        ParserRegistros.validarConteudo(conteudo);
+        return adicionar(conteudo);
+    } //retorna false se já existir conteúdo com o mesmo título; IllegalArgumentException se um campo tiver ';' ou quebra de linha
+
+    //As cargas usam este caminho direto, sem passar pelo método público que subclasses podem medir
+    private boolean adicionar(Conteudo conteudo) {
+        boolean adicionado;
+        CompletableFuture<Void> gravada = GRAVADA;
+        bloqueio.readLock().lock();
+        try {
+            synchronized (catalogo) { //o diário fica na mesma ordem do catálogo
+                adicionado = adicionarNoCatalogo(conteudo);
+                if (adicionado && diario != null) { //sem diário não percorre as avaliações (numa carga sob demanda, leria todas)
+                    gravada = registrarNoDiario(DiarioOperacoes.ADICIONAR, ParserRegistros.formatarConteudo(conteudo));
+                    for (Avaliacao avaliacao : conteudo.getAvaliacoes()) {
+                        gravada = registrarAvaliacaoNoDiario(conteudo, avaliacao);
+                    }
+                }
+            }
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+        aguardarGravacao(gravada);
+        return adicionado;
     }
 
-    public void adicionarConteudo(Conteudo conteudo) {
-        conteudos.add(conteudo);
+    public void avaliar(Conteudo conteudo, Usuario usuario, int nota, String comentario) {
+        avaliar(conteudo, usuario, usuario.getNome(), usuario.getEmail(), nota, comentario);
     }
 
+    //nome e email como foram digitados (obterUsuario devolve o usuário já registrado com aquele email, talvez
+    //com outra grafia): são os que voltam para o arquivo.
+    //Lança ConteudoNaoEncontradoException se o conteúdo saiu do catálogo (ex.: removido entre a busca e a avaliação)
+    public void avaliar(Conteudo conteudo, Usuario usuario, String nome, String email, int nota, String comentario) {
+        ParserRegistros.validarAvaliacao(nome, email, comentario);
+        CompletableFuture<Void> gravada;
+        bloqueio.readLock().lock();
+        try {
+            Avaliacao avaliacao = usuario.avaliar(conteudo, nome, email, nota, comentario);
+            gravada = registrarAvaliacaoNoDiario(conteudo, avaliacao);
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+        aguardarGravacao(gravada);
+    } //mesma coisa que usuario.avaliar, mas passando pelo diário de operações
+
     public void salvarConteudosComoTexto(String caminho) throws IOException {
-        List<String> linhas = new ArrayList<>(); //Cada string da lista representará uma linha a ser escrita no arquivo
-
-        for (Conteudo conteudo : conteudos) {
-            // Identificar o tipo de conteúdo
-            String tipo = conteudo.getTipo();
-
-            // Formatando a linha do conteúdo com base no tipo
-            String linhaConteudo = switch (tipo) {
-                //string format formata as strings conforme o modelo especificado, placeholders: %d para int, %s para string
-                case "Filme" -> String.format("Filme;%s;%s;%d;%s;%d",
-                        conteudo.getTitulo(),
-                        conteudo.getGenero(),
-                        conteudo.getAnoLancamento(),
-                        ((Filme) conteudo).getDiretor(),
-                        ((Filme) conteudo).getDuracao());
-                case "Série" -> String.format("Serie;%s;%s;%d;%d;%d",
-                        conteudo.getTitulo(),
-                        conteudo.getGenero(),
-                        conteudo.getAnoLancamento(),
-                        ((Serie) conteudo).getTemporadas(),
-                        ((Serie) conteudo).getEpisodios());
-                case "Livro" -> String.format("Livro;%s;%s;%d;%s;%s",
-                        conteudo.getTitulo(),
-                        conteudo.getGenero(),
-                        conteudo.getAnoLancamento(),
-                        ((Livro) conteudo).getAutor(),
-                        ((Livro) conteudo).getEditora());
-                default -> throw new IllegalArgumentException("Tipo desconhecido: " + tipo);
-            };
-            linhas.add(linhaConteudo); //adiciona linhas formatadas na lista
-
-            //Adicionando as avaliações associadas ao conteúdo
-            for (Avaliacao avaliacao : conteudo.getAvaliacoes()) {
-                String linhaAvaliacao = String.format("Avaliacao;%s;%d;%s;%s",
-                        avaliacao.getUsuario().getNome(),
-                        avaliacao.getNota(),
-                        avaliacao.getUsuario().getEmail(),
-                        avaliacao.getComentario());
-                linhas.add(linhaAvaliacao);
-            }
-        }
-
-        //Caminho do arquivo e gravação
-        Path path = Paths.get(caminho);
+        gravarSnapshot(Paths.get(caminho), false);
+    } //consultas, avaliações e alterações continuam durante a gravação (ver gravarSnapshot)
+
+    //Como salvarConteudosComoTexto, mas não grava nada se o estado não mudou desde o último snapshot nesse arquivo
+    public ResultadoSnapshot salvarSeAlterado(String caminho) throws IOException {
+        return gravarSnapshot(Paths.get(caminho), true);
+    }
+
+    //Salva a cada intervalo, numa thread própria, só quando houve alteração. Com o diário aberto no mesmo
+    //arquivo, o marcador gravado faz a próxima carga reaplicar só o que veio depois do snapshot.
+    public synchronized void iniciarSnapshotsPeriodicos(String caminho, long intervaloSegundos) {
+        if (intervaloSegundos <= 0) {
+            throw new IllegalArgumentException("O intervalo dos snapshots deve ser positivo: " + intervaloSegundos);
+        }
+        if (snapshots != null) {
+            throw new IllegalStateException("Os snapshots periódicos já foram iniciados.");
+        }
+        snapshots = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "snapshot-periodico");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshots.scheduleWithFixedDelay(() -> {
+            try {
+                salvarSeAlterado(caminho);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Erro no snapshot periódico: " + e.getMessage());
+            }
+        }, intervaloSegundos, intervaloSegundos, TimeUnit.SECONDS);
+    }
+
+    //Um snapshot que já estiver sendo gravado termina normalmente
+    public synchronized void pararSnapshotsPeriodicos() {
+        if (snapshots == null) return;
+        snapshots.shutdown();
+        snapshots = null;
+    }
+
+    //O lock exclusivo fica só o tempo de anotar quais conteúdos existem e quantas avaliações cada um tem;
+    //a gravação do arquivo vem depois, sem lock, a partir desse retrato.
+    private ResultadoSnapshot gravarSnapshot(Path path, boolean soSeAlterado) throws IOException {
+        Path absoluto = path.toAbsolutePath();
+        gravacao.lock();
         try {
-            Files.createDirectories(path.getParent()); // Garante que o diretório existe
-            Files.write(path, linhas); //Grava os dados no arquivo
-        } catch (IOException e) {
-            System.err.println("Erro ao salvar os dados: " + e.getMessage());
+            if (soSeAlterado && Objects.equals(versoesSalvas.get(absoluto), versaoGeral.get())) {
+                return ResultadoSnapshot.SEM_ALTERACAO;
+            }
+            long inicioPausa = System.nanoTime();
+            EscritorTexto.Instantaneo instantaneo;
+            bloqueio.writeLock().lock();
+            try {
+                instantaneo = capturar();
+            } finally {
+                bloqueio.writeLock().unlock();
+            }
+            long pausa = System.nanoTime() - inicioPausa;
+            long bytes = escritor.salvar(instantaneo, absoluto);
+            versoesSalvas.put(absoluto, instantaneo.versao());
+            return new ResultadoSnapshot(true, instantaneo.conteudos().length, instantaneo.totalAvaliacoes(), bytes, pausa);
+        } finally {
+            gravacao.unlock();
         }
     }
 
+    //Chamado com o lock exclusivo: nada entra, sai ou é avaliado, então contagens, versão e marcador do diário
+    //(as operações que o arquivo já contém) descrevem o mesmo instante
+    private EscritorTexto.Instantaneo capturar() {
+        List<Conteudo> conteudos = catalogo.listar();
+        int[] avaliacoes = new int[conteudos.size()];
+        for (int i = 0; i < avaliacoes.length; i++) {
+            avaliacoes[i] = conteudos.get(i).getAvaliacoes().size();
+        }
+        return new EscritorTexto.Instantaneo(conteudos.toArray(new Conteudo[0]), avaliacoes,
+                sequenciaDiario.get(), versaoGeral.get());
+    }
+
     public void carregarConteudosDeTexto(String caminhoArquivo) throws IOException {
         Path path = Paths.get(caminhoArquivo); //recebendo caminho do arquivo
         if (!Files.exists(path)) {
             throw new IOException("Arquivo de dados não encontrado.");
         }
 
-        List<String> linhas = Files.readAllLines(path); //Faz a leitura para a lista completa
-        Conteudo conteudoAtual = null;
-        for (String linha : linhas) {
-            if (linha.startsWith("Avaliacao;")) {
-                if (conteudoAtual != null) {
-                    Avaliacao avaliacao = linhaParaAvaliacao(linha); //Cria uma avaliação
-                    conteudoAtual.adicionarAvaliacao(avaliacao); //Adiciona avaliação na lista
-                }
-            } else {
-                conteudoAtual = linhaParaConteudo(linha); //Cria um conteúdo
-                if (conteudoAtual != null) {
-                    adicionarConteudo(conteudoAtual); //Adiciona na lista de conteudo
+        //Lê linha a linha com um buffer fixo, sem carregar o arquivo inteiro na memória
+        try (BufferedReader leitor = new BufferedReader(
+                Channels.newReader(FileChannel.open(path, StandardOpenOption.READ), StandardCharsets.UTF_8),
+                TAMANHO_BUFFER_LEITURA)) {
+            Conteudo conteudoAtual = null;
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (ParserRegistros.ehMarcadorDiario(linha)) {
+                    sequenciaDiario.set(ParserRegistros.paraSequenciaDiario(linha));
+                } else if (ParserRegistros.ehAvaliacao(linha)) {
+                    if (conteudoAtual != null) {
+                        Avaliacao avaliacao = ParserRegistros.paraAvaliacao(linha, usuarios); //Cria uma avaliação
+                        conteudoAtual.adicionarAvaliacao(avaliacao); //Adiciona avaliação na lista
+                    }
+                } else {
+                    conteudoAtual = ParserRegistros.paraConteudo(linha); //Cria um conteúdo
+                    if (conteudoAtual != null && !adicionar(conteudoAtual)) { //Adiciona na lista de conteudo
+                        avisarRepetido(conteudoAtual);
+                        conteudoAtual = null; //as avaliações do repetido são ignoradas
+                    }
                 }
             }
         }
     }
 
-    private Avaliacao linhaParaAvaliacao(String linha) {
-        String[] partes = linha.split(";"); //Divide a linha em partes ao encontrar um ";"
-        if (partes.length != 5) {
-            throw new IllegalArgumentException("Formato de linha de avaliação inválido: " + linha);
+    //Mesmo formato de carregarConteudosDeTexto, interpretado em paralelo sobre o arquivo mapeado em memória
+    public void carregarConteudosEmParalelo(String caminhoArquivo, int paralelismo) throws IOException {
+        List<Conteudo> carregados = CarregadorParalelo.carregar(Paths.get(caminhoArquivo), paralelismo, usuarios);
+        try (BufferedReader leitor = Files.newBufferedReader(Paths.get(caminhoArquivo))) {
+            String primeira = leitor.readLine();
+            if (primeira != null && ParserRegistros.ehMarcadorDiario(primeira)) {
+                sequenciaDiario.set(ParserRegistros.paraSequenciaDiario(primeira));
+            }
+        }
+        for (Conteudo conteudo : carregados) {
+            adicionarCarregado(conteudo); //Adiciona na ordem do arquivo
         }
+    }
 
-        String nomeUsuario = partes[1];
-        String emailUsuario = partes[3];
-        int nota = Integer.parseInt(partes[2]); //Cast de string para int
-        String comentario = partes[4];
-        Usuario usuario = new Usuario(nomeUsuario, emailUsuario);
-        return new Avaliacao(usuario, nota, comentario);
+    //Mesmo formato de carregarConteudosDeTexto, mas as listas de avaliações ficam no arquivo: cada conteúdo entra
+    //só com as contagens por nota (média, totais e rankings já valem) e a lista é lida quando alguém a percorre,
+    //num cache de até limiteAvaliacoesEmCache avaliações. O arquivo fica aberto enquanto o programa rodar.
+    //As avaliações do arquivo já entram nas listas dos usuários na carga, como posições no trecho de cada conteúdo.
+    public void carregarConteudosSobDemanda(String caminhoArquivo, long limiteAvaliacoesEmCache) throws IOException {
+        Path path = Paths.get(caminhoArquivo);
+        if (!Files.exists(path)) {
+            throw new IOException("Arquivo de dados não encontrado.");
+        }
+        ArquivoAvaliacoes fonte = new ArquivoAvaliacoes(path, usuarios, limiteAvaliacoesEmCache);
+        List<Conteudo> carregados;
+        try {
+            carregados = CarregadorSobDemanda.carregar(path, fonte, usuarios);
+        } catch (IOException | RuntimeException e) {
+            fonte.close();
+            throw e;
+        }
+        try (BufferedReader leitor = Files.newBufferedReader(path)) {
+            String primeira = leitor.readLine();
+            if (primeira != null && ParserRegistros.ehMarcadorDiario(primeira)) {
+                sequenciaDiario.set(ParserRegistros.paraSequenciaDiario(primeira));
+            }
+        }
+        for (Conteudo conteudo : carregados) {
+            adicionarCarregado(conteudo); //Adiciona na ordem do arquivo
+        }
     }
 
-    private Conteudo linhaParaConteudo(String linha) {
-        String[] partes = linha.split(";");
-        if (partes.length < 6) return null;
+    public void salvarSnapshotBinario(String caminho) throws IOException {
+        SnapshotBinario.salvar(catalogo.listar(), Paths.get(caminho));
+    } //formato binário, mais compacto e mais rápido de recarregar que o texto
 
-        String tipo = partes[0];
-        String titulo = partes[1];
-        String genero = partes[2];
-        int ano = Integer.parseInt(partes[3]);
+    public void carregarSnapshotBinario(String caminho) throws IOException {
+        for (Conteudo conteudo : SnapshotBinario.carregar(Paths.get(caminho), usuarios)) {
+            adicionarCarregado(conteudo);
+        }
+    }
+
+    //Os carregadores montam o conteúdo inteiro antes de ele chegar ao catálogo, com as avaliações já nas
+    //listas dos usuários: se o título já existe, elas viram lápides como numa remoção
+    private void adicionarCarregado(Conteudo conteudo) {
+        if (adicionar(conteudo)) return;
+        avisarRepetido(conteudo);
+        conteudo.marcarRemovido(vinculos::marcar);
+        vinculos.agendarSeNecessario();
+    }
 
+    private static void avisarRepetido(Conteudo conteudo) {
+        System.err.println("Título repetido ignorado na carga: " + conteudo.getTitulo());
+    }
+
+    public boolean removerConteudo(String titulo) {
+        Conteudo removido;
+        CompletableFuture<Void> gravada = GRAVADA;
+        bloqueio.readLock().lock();
         try {
-            switch (tipo) {
-                case "Filme" -> {
-                    String diretor = partes[4];
-                    int duracao = Integer.parseInt(partes[5]);
-                    return new Filme(titulo, genero, ano, diretor, duracao);
+            synchronized (catalogo) {
+                removido = removerDoCatalogo(titulo);
+                if (removido != null) {
+                    gravada = registrarNoDiario(DiarioOperacoes.REMOVER, removido.getTitulo());
                 }
-                case "Serie" -> {
-                    int temporadas = Integer.parseInt(partes[4]);
-                    int episodios = Integer.parseInt(partes[5]);
-                    return new Serie(titulo, genero, ano, temporadas, episodios);
+            }
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+        aguardarGravacao(gravada);
+        return removido != null;
+    } //remove do catálogo e dos índices, retorna true se conseguir
+
+    //Remoção em massa: um só lock para todos os títulos, e cada remoção custa o mesmo que removerConteudo
+    //(índices por ordem, lápides nas listas dos usuários), não uma varredura do catálogo.
+    //Retorna quantos foram removidos; títulos inexistentes são ignorados.
+    public int removerConteudos(Collection<String> titulos) {
+        int quantidade = 0;
+        CompletableFuture<Void> gravada = GRAVADA;
+        bloqueio.readLock().lock();
+        try {
+            synchronized (catalogo) {
+                for (String titulo : titulos) {
+                    Conteudo removido = removerDoCatalogo(titulo);
+                    if (removido != null) {
+                        gravada = registrarNoDiario(DiarioOperacoes.REMOVER, removido.getTitulo());
+                        quantidade++;
+                    }
                 }
-                case "Livro" -> {
-                    String autor = partes[4];
-                    String editora = partes[5];
-                    return new Livro(titulo, genero, ano, autor, editora);
+            }
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+        aguardarGravacao(gravada); //os lotes do diário completam em ordem: a última cobre as anteriores
+        return quantidade;
+    }
+
+    //Compacta agora (sem esperar o segundo plano) as listas dos usuários afetados por remoções
+    public long compactarVinculos() {
+        return vinculos.compactar();
+    }
+
+    private boolean adicionarNoCatalogo(Conteudo conteudo) {
+        synchronized (catalogo) {
+            if (!catalogo.adicionar(conteudo)) return false;
+            conteudo.reativar(); //só faz algo se esta mesma instância já foi removida antes
+            conteudo.setObservador(observador);
+            if (recomendador.isAtivo()) {
+                for (Avaliacao avaliacao : conteudo.getAvaliacoes()) {
+                    recomendador.registrar(conteudo, avaliacao);
                 }
-                default -> {
-                    return null;
+            }
+            for (Classificacao classificacao : classificacoes.values()) {
+                classificacao.adicionar(conteudo);
+            }
+            alterado(conteudo, true);
+            return true;
+        }
+    } //as avaliações novas do conteúdo passam a alimentar o recomendador e as classificações
+
+    private Conteudo removerDoCatalogo(String titulo) {
+        synchronized (catalogo) {
+            Conteudo removido = catalogo.remover(titulo);
+            if (removido != null) {
+                removido.setObservador(null);
+                removido.marcarRemovido(vinculos::marcar);
+                recomendador.remover(removido);
+                for (Classificacao classificacao : classificacoes.values()) {
+                    classificacao.remover(removido);
                 }
+                alterado(removido, true);
+                vinculos.agendarSeNecessario();
             }
-        } catch (Exception e) {
-            System.err.println("Erro ao carregar linha: " + linha);
-            return null;
+            return removido;
         }
     }
 
-    public boolean removerConteudo(String titulo) {
-        return conteudos.removeIf(c -> c.getTitulo().equalsIgnoreCase(titulo));
-    } //usa a API collections do java para tentar remover, retorna true se conseguir
+    private void avaliacaoAdicionada(Conteudo conteudo, Avaliacao avaliacao) {
+        recomendador.registrar(conteudo, avaliacao);
+        for (Classificacao classificacao : classificacoes.values()) {
+            classificacao.atualizar(conteudo);
+        }
+        alterado(conteudo, false);
+    }
+
+    //Classificações e cache uma vez por lote, não por avaliação
+    private void avaliacoesAdicionadas(Conteudo conteudo, List<Avaliacao> avaliacoes) {
+        for (Avaliacao avaliacao : avaliacoes) {
+            recomendador.registrar(conteudo, avaliacao);
+        }
+        for (Classificacao classificacao : classificacoes.values()) {
+            classificacao.atualizar(conteudo);
+        }
+        alterado(conteudo, false);
+    }
+
+    private class Observador implements ObservadorAvaliacoes {
+        @Override
+        public void avaliacaoAdicionada(Conteudo conteudo, Avaliacao avaliacao) {
+            Gerenciador.this.avaliacaoAdicionada(conteudo, avaliacao);
+        }
+
+        @Override
+        public void avaliacoesAdicionadas(Conteudo conteudo, List<Avaliacao> avaliacoes) {
+            Gerenciador.this.avaliacoesAdicionadas(conteudo, avaliacoes);
+        }
+    }
+
+    //Importa avaliações em massa (ver ImportadorAvaliacoes). Registros com título fora do catálogo
+    //ou nota inválida são contados no resultado e ignorados, sem interromper a importação.
+    public ResultadoImportacao importarAvaliacoes(Stream<RegistroAvaliacao> registros, int paralelismo) {
+        return importar(registros.iterator(), paralelismo);
+    }
+
+    //Arquivo com uma avaliação por linha: titulo;nome;nota;email;comentario
+    public ResultadoImportacao importarAvaliacoes(String caminhoArquivo, int paralelismo) throws IOException {
+        Path path = Paths.get(caminhoArquivo);
+        if (!Files.exists(path)) {
+            throw new IOException("Arquivo de avaliações não encontrado.");
+        }
+        try (BufferedReader leitor = new BufferedReader(
+                Channels.newReader(FileChannel.open(path, StandardOpenOption.READ), StandardCharsets.UTF_8),
+                TAMANHO_BUFFER_LEITURA)) {
+            return importar(leitor.lines().map(ParserRegistros::paraRegistroAvaliacao).iterator(), paralelismo);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    //Lê e agrupa cada lote sem lock; só a aplicação pega a parte compartilhada, como uma avaliação comum
+    private ResultadoImportacao importar(Iterator<RegistroAvaliacao> registros, int paralelismo) {
+        try (ImportadorAvaliacoes importador = new ImportadorAvaliacoes(catalogo, usuarios, paralelismo)) {
+            while (importador.lerLote(registros)) {
+                bloqueio.readLock().lock();
+                try {
+                    importador.aplicarLote(this::aplicarImportadas);
+                } finally {
+                    bloqueio.readLock().unlock();
+                }
+                sincronizarDiario(); //o lote foi aplicado em várias threads: espera tudo o que já está na fila
+            }
+            return importador.getResultado();
+        }
+    }
+
+    //Sem esperar o diário aqui: importar espera o lote inteiro depois de soltar o lock
+    private boolean aplicarImportadas(Conteudo conteudo, List<Avaliacao> avaliacoes) {
+        try {
+            conteudo.adicionarAvaliacoes(avaliacoes);
+        } catch (ConteudoNaoEncontradoException e) {
+            return false; //removido depois que o lote resolveu os títulos
+        }
+        for (Avaliacao avaliacao : avaliacoes) {
+            registrarAvaliacaoNoDiario(conteudo, avaliacao);
+        }
+        return true;
+    }
+
+    //Instância única do usuário com esse email (criada na primeira vez)
+    public Usuario obterUsuario(String nome, String email) {
+        return usuarios.obter(nome, email);
+    }
+
+    //Avaliações feitas pelo usuário em conteúdos que continuam no catálogo, na ordem em que foram feitas
+    public List<Avaliacao> avaliacoesDoUsuario(String email) {
+        Optional<Usuario> usuario = usuarios.buscar(email);
+        if (usuario.isEmpty()) return new ArrayList<>();
+        List<Avaliacao> resultado = new ArrayList<>();
+        for (Avaliacao avaliacao : usuario.get().getAvaliacoes()) {
+            Conteudo conteudo = avaliacao.getConteudo(); //a lista já pula as lápides; isto cobre conteúdos que nunca entraram
+            if (catalogo.contem(conteudo)) {
+                resultado.add(avaliacao);
+            }
+        }
+        return resultado;
+    }
+
+    //Conteúdos que o usuário ainda não avaliou, pelas notas de quem avaliou parecido com ele
+    public List<Conteudo> recomendarParaUsuario(String email, int quantidade) {
+        if (!recomendador.isAtivo()) {
+            recomendador.ativar(catalogo.visao());
+        }
+        return recomendador.recomendar(email, quantidade);
+    }
 
     public List<Conteudo> pesquisarPorTitulo(String titulo) {
-        return conteudos.stream()
-                .filter(c -> c.getTitulo().toLowerCase().contains(titulo.toLowerCase()))
-                .collect(Collectors.toList());
-    } //Faz a pesquisa de um conteúdo completo ou parcial, e devolve o resultado como uma lista
+        return pesquisarPorTitulo(titulo, 0, Integer.MAX_VALUE);
+    } //Faz a pesquisa de um conteúdo completo ou parcial, sem diferenciar acentos, e devolve o resultado como uma lista
+
+    public List<Conteudo> pesquisarPorTitulo(String titulo, int pagina, int tamanhoPagina) {
+        long inicio = inicioDaPagina(pagina, tamanhoPagina);
+        if (inicio > Integer.MAX_VALUE) return new ArrayList<>();
+        return consultar(List.of("titulo", titulo, inicio, tamanhoPagina), versaoCatalogo.get(),
+                () -> catalogo.pesquisarPorTitulo(titulo, (int) inicio, tamanhoPagina));
+    } //mesma pesquisa, devolvendo só a página pedida (a primeira página é a 0)
 
 
     public List<Conteudo> getConteudos() {
-        return conteudos;
+        return catalogo.listar();
+    }
+
+    public int getQuantidadeConteudos() {
+        return catalogo.tamanho();
+    }
+
+    public long getTotalAvaliacoes() {
+        long total = 0;
+        for (Conteudo conteudo : catalogo.visao()) {
+            total += conteudo.getTotalAvaliacoes();
+        }
+        return total;
+    } //percorre o catálogo inteiro, serve para métricas e relatórios, não para o caminho quente
+
+    public int getQuantidadeUsuarios() {
+        return usuarios.tamanho();
+    }
+
+    //Reaplica o diário sobre o que já foi carregado e passa a registrar nele as próximas operações.
+    //A cada intervalo, se o diário passou de tamanhoCompactacao bytes, ele é compactado num novo snapshot.
+    public void abrirDiario(String caminhoDiario, String caminhoSnapshot,
+                            long intervaloSegundos, long tamanhoCompactacao) throws IOException {
+        bloqueio.writeLock().lock();
+        try {
+            if (diario != null) {
+                throw new IllegalStateException("O diário de operações já está aberto.");
+            }
+            Path path = Paths.get(caminhoDiario);
+            sequenciaDiario.set(DiarioOperacoes.reproduzir(path, sequenciaDiario.get(), this::aplicarDoDiario));
+            diario = DiarioOperacoes.abrir(path);
+            this.caminhoSnapshot = Paths.get(caminhoSnapshot);
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+
+        compactador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "compactacao-diario");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactador.scheduleWithFixedDelay(() -> {
+            try {
+                compactarSeNecessario(tamanhoCompactacao);
+            } catch (IOException e) {
+                System.err.println("Erro ao compactar o diário: " + e.getMessage());
+            }
+        }, intervaloSegundos, intervaloSegundos, TimeUnit.SECONDS);
+    }
+
+    //Grava um snapshot com todo o estado atual e só então esvazia o diário
+    //Aqui o lock exclusivo vale até o fim: o diário só pode ser esvaziado se nada entrou nele depois do retrato.
+    public void compactarDiario() throws IOException {
+        gravacao.lock(); //sempre antes do lock exclusivo, como em gravarSnapshot
+        try {
+            bloqueio.writeLock().lock();
+            try {
+                if (diario == null) return;
+                diario.sincronizar();
+                EscritorTexto.Instantaneo instantaneo = capturar();
+                escritor.salvar(instantaneo, caminhoSnapshot); //grava num temporário e troca no final
+                versoesSalvas.put(caminhoSnapshot.toAbsolutePath(), instantaneo.versao());
+                diario.truncar(); //se cair antes daqui, o marcador do snapshot evita reaplicar o que ele já contém
+            } finally {
+                bloqueio.writeLock().unlock();
+            }
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    public void fecharDiario() throws IOException {
+        bloqueio.writeLock().lock();
+        try {
+            if (diario == null) return;
+            compactador.shutdownNow();
+            diario.close();
+            diario = null;
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    private void compactarSeNecessario(long tamanhoCompactacao) throws IOException {
+        DiarioOperacoes atual = diario;
+        if (atual != null && atual.tamanho() >= tamanhoCompactacao) {
+            compactarDiario();
+        }
+    }
+
+    //O futuro completa no fsync do lote em que a operação entrou (já completo sem diário aberto)
+    private CompletableFuture<Void> registrarNoDiario(String operacao, String dados) {
+        DiarioOperacoes atual = diario;
+        if (atual == null) return GRAVADA;
+        return atual.registrar(sequenciaDiario.incrementAndGet(), operacao, dados);
+    }
+
+    //O título vai com o tamanho na frente, porque tanto ele quanto o comentário podem conter ";"
+    private CompletableFuture<Void> registrarAvaliacaoNoDiario(Conteudo conteudo, Avaliacao avaliacao) {
+        if (diario == null) return GRAVADA;
+        String titulo = conteudo.getTitulo();
+        return registrarNoDiario(DiarioOperacoes.AVALIAR,
+                titulo.length() + ";" + titulo + ParserRegistros.formatarAvaliacao(avaliacao));
+    }
+
+    //Quem altera o estado só retorna depois que a operação está em disco, e espera já fora do lock:
+    //enquanto isso, as operações das outras threads entram no mesmo lote e dividem o fsync
+    private static void aguardarGravacao(CompletableFuture<Void> gravada) {
+        try {
+            gravada.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrompido esperando o diário de operações."));
+        } catch (ExecutionException e) {
+            IOException causa = e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+            throw new UncheckedIOException("Erro ao gravar o diário de operações: " + causa.getMessage(), causa);
+        }
+    }
+
+    private void sincronizarDiario() {
+        DiarioOperacoes atual = diario;
+        if (atual == null) return;
+        try {
+            atual.sincronizar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void aplicarDoDiario(String operacao, String dados) {
+        switch (operacao) {
+            case DiarioOperacoes.ADICIONAR -> {
+                Conteudo conteudo = ParserRegistros.paraConteudo(dados);
+                if (conteudo != null) adicionarNoCatalogo(conteudo);
+            }
+            case DiarioOperacoes.REMOVER -> removerDoCatalogo(dados);
+            case DiarioOperacoes.AVALIAR -> {
+                int sep = dados.indexOf(';');
+                int fimTitulo = sep + 1 + Integer.parseInt(dados, 0, sep, 10);
+                Avaliacao avaliacao = ParserRegistros.paraAvaliacao(dados.substring(fimTitulo), usuarios);
+                catalogo.buscarPorTitulo(dados.substring(sep + 1, fimTitulo))
+                        .ifPresent(conteudo -> conteudo.adicionarAvaliacao(avaliacao));
+            }
+            default -> System.err.println("Operação desconhecida no diário: " + operacao);
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package br.inatel.services;
+
+import br.inatel.models.Avaliacao;
+import br.inatel.models.Conteudo;
+import br.inatel.models.Usuario;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+//Importação de avaliações em massa, um lote por vez:
+//  1. lê até TAMANHO_LOTE registros e descarta os de nota fora de 1 a 5 (mesma regra do construtor de Avaliacao)
+//  2. resolve cada título distinto do lote uma vez só no índice do catálogo e agrupa os registros por conteúdo
+//  3. aplica os grupos em paralelo; cada conteúdo fica numa só thread, então a lista dele não é disputada,
+//     e os totais, classificações e cache são atualizados uma vez por conteúdo em cada lote
+//Dentro de um conteúdo a ordem dos registros é mantida; entre conteúdos diferentes do mesmo lote, não.
+class ImportadorAvaliacoes implements AutoCloseable {
+    static final int TAMANHO_LOTE = 1 << 16;
+    private static final int TAREFAS_POR_THREAD = 4;
+
+    //Recebe as avaliações de um conteúdo, já na ordem em que vieram; false se o conteúdo saiu do
+    //catálogo depois de o lote ser lido (as avaliações não entram e contam como sem conteúdo)
+    interface Destino {
+        boolean aplicar(Conteudo conteudo, List<Avaliacao> avaliacoes);
+    }
+
+    private final Catalogo catalogo;
+    private final RegistroUsuarios usuarios;
+    private final int paralelismo;
+    private final ForkJoinPool pool;
+    private final Map<Conteudo, List<RegistroAvaliacao>> grupos;
+    private int registrosNoLote;
+    private long aplicadas;
+    private long semConteudo;
+    private final LongAdder recusadas; //do lote atual, somadas pelas threads da aplicação
+    private long invalidas;
+
+    ImportadorAvaliacoes(Catalogo catalogo, RegistroUsuarios usuarios, int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("O paralelismo deve ser pelo menos 1.");
+        }
+        this.catalogo = catalogo;
+        this.usuarios = usuarios;
+        this.paralelismo = paralelismo;
+        this.pool = paralelismo > 1 ? new ForkJoinPool(paralelismo) : null;
+        this.grupos = new IdentityHashMap<>();
+        this.recusadas = new LongAdder();
+    }
+
+    //Retorna false quando os registros acabaram
+    boolean lerLote(Iterator<RegistroAvaliacao> registros) {
+        grupos.clear();
+        registrosNoLote = 0;
+        Map<String, Conteudo> titulos = new HashMap<>();
+        int lidos = 0;
+        while (lidos < TAMANHO_LOTE && registros.hasNext()) {
+            RegistroAvaliacao registro = registros.next();
+            lidos++;
+            if (registro == null || registro.nota() < 1 || registro.nota() > 5) {
+                invalidas++;
+                continue;
+            }
+            Conteudo conteudo = titulos.get(registro.titulo());
+            if (conteudo == null && !titulos.containsKey(registro.titulo())) {
+                conteudo = catalogo.buscarPorTitulo(registro.titulo()).orElse(null);
+                titulos.put(registro.titulo(), conteudo); //guarda também os que não existem
+            }
+            if (conteudo == null) {
+                semConteudo++;
+                continue;
+            }
+            grupos.computeIfAbsent(conteudo, c -> new ArrayList<>()).add(registro);
+            registrosNoLote++;
+        }
+        return lidos > 0;
+    }
+
+    void aplicarLote(Destino destino) {
+        List<Map.Entry<Conteudo, List<RegistroAvaliacao>>> lista = new ArrayList<>(grupos.entrySet());
+        if (pool == null || lista.size() < 2) {
+            aplicar(lista, 0, lista.size(), destino);
+        } else {
+            aplicarEmParalelo(lista, destino);
+        }
+        long recusadasNoLote = recusadas.sumThenReset();
+        aplicadas += registrosNoLote - recusadasNoLote;
+        semConteudo += recusadasNoLote;
+    }
+
+    //Divide os grupos em faixas com quantidades parecidas de avaliações, não de conteúdos
+    private void aplicarEmParalelo(List<Map.Entry<Conteudo, List<RegistroAvaliacao>>> lista, Destino destino) {
+        int quantidadeTarefas = Math.min(lista.size(), paralelismo * TAREFAS_POR_THREAD);
+        long porTarefa = Math.max(1, registrosNoLote / quantidadeTarefas);
+        List<Future<?>> tarefas = new ArrayList<>();
+        int inicio = 0;
+        long acumulado = 0;
+        for (int i = 0; i < lista.size(); i++) {
+            acumulado += lista.get(i).getValue().size();
+            if (acumulado >= porTarefa || i == lista.size() - 1) {
+                int de = inicio;
+                int ate = i + 1;
+                tarefas.add(pool.submit(() -> aplicar(lista, de, ate, destino)));
+                inicio = ate;
+                acumulado = 0;
+            }
+        }
+        try {
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importação interrompida.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Erro ao importar avaliações: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void aplicar(List<Map.Entry<Conteudo, List<RegistroAvaliacao>>> lista, int de, int ate, Destino destino) {
+        Map<String, Usuario> vistos = new HashMap<>(); //evita normalizar o mesmo email a cada avaliação
+        for (int i = de; i < ate; i++) {
+            List<RegistroAvaliacao> registros = lista.get(i).getValue();
+            List<Avaliacao> avaliacoes = new ArrayList<>(registros.size());
+            for (RegistroAvaliacao registro : registros) {
+                Usuario usuario = vistos.get(registro.email());
+                if (usuario == null) {
+                    usuario = usuarios.obter(registro.nome(), registro.email());
+                    vistos.put(registro.email(), usuario);
+                }
+                avaliacoes.add(new Avaliacao(usuario, registro.nome(), registro.email(), registro.nota(), registro.comentario()));
+            }
+            if (!destino.aplicar(lista.get(i).getKey(), avaliacoes)) {
+                recusadas.add(avaliacoes.size());
+            }
+        }
+    }
+
+    ResultadoImportacao getResultado() {
+        return new ResultadoImportacao(aplicadas, semConteudo, invalidas);
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) pool.shutdown();
+    }
+}
@@ -0,0 +1,234 @@
+package br.inatel.services;
+
+import br.inatel.models.*;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+//Índices dos filtros de FiltroConteudos sobre os ids [0, limite) de um conjunto de índices do catálogo, montados de uma vez e só lidos depois.
+//Igualdade (tipo, gênero, autor) vira um BitSet de ids; faixas (ano, duração, temporadas, episódios) são
+//vetores de valores ordenados com o id ao lado, e uma busca binária marca o intervalo num BitSet.
+//Uma consulta faz o AND dos BitSets e só então olha os conteúdos: a nota, que muda a cada avaliação,
+//é conferida nesse ponto, e o conteúdo que saiu do catálogo depois da montagem não é mais achado pelo id.
+//Ids a partir do limite (os que entraram depois) são conferidos um a um pelo próprio filtro.
+class IndiceFacetas {
+    private static final int LIMIAR_MINIMO = 1024;
+
+    //Valores de um campo em ordem crescente; ids[i] é o conteúdo que tem valores[i]
+    private static final class Faixa {
+        private final int[] valores;
+        private final int[] ids;
+
+        //pares: valor nos 32 bits altos e id nos baixos, assim a ordem do long é a do valor (e depois a do id)
+        Faixa(long[] pares, int quantidade) {
+            Arrays.sort(pares, 0, quantidade);
+            this.valores = new int[quantidade];
+            this.ids = new int[quantidade];
+            for (int i = 0; i < quantidade; i++) {
+                valores[i] = (int) (pares[i] >> 32);
+                ids[i] = (int) pares[i];
+            }
+        }
+
+        BitSet marcar(int minimo, int maximo) {
+            BitSet marcados = new BitSet();
+            for (int i = primeiroNaoMenor(minimo); i < valores.length && valores[i] <= maximo; i++) {
+                marcados.set(ids[i]);
+            }
+            return marcados;
+        }
+
+        private int primeiroNaoMenor(int valor) {
+            int inicio = 0;
+            int fim = valores.length;
+            while (inicio < fim) {
+                int meio = (inicio + fim) >>> 1;
+                if (valores[meio] < valor) inicio = meio + 1;
+                else fim = meio;
+            }
+            return inicio;
+        }
+    }
+
+    private final int limite;
+    private final int quantidade;
+    private final BitSet vivos;
+    private final BitSet[] porTipo;
+    private final Map<String, Integer> codigoGenero;
+    private final List<String> generos; //grafia do primeiro conteúdo de cada gênero, pelo código
+    private final List<BitSet> porGenero;
+    private final int[] generoDe; //código do gênero por id (-1 se o id estava vazio)
+    private final Map<String, BitSet> porAutor;
+    private final Faixa anos;
+    private final Faixa duracoes;
+    private final Faixa temporadas;
+    private final Faixa episodios;
+
+    IndiceFacetas(IntFunction<Conteudo> porId, int limite) {
+        this.limite = limite;
+        this.vivos = new BitSet(limite);
+        this.porTipo = new BitSet[TipoConteudo.values().length];
+        for (int i = 0; i < porTipo.length; i++) {
+            porTipo[i] = new BitSet();
+        }
+        this.codigoGenero = new HashMap<>();
+        this.generos = new ArrayList<>();
+        this.porGenero = new ArrayList<>();
+        this.generoDe = new int[limite];
+        this.porAutor = new HashMap<>();
+
+        long[] anosPorId = new long[limite];
+        long[] duracoesPorId = new long[limite];
+        long[] temporadasPorId = new long[limite];
+        long[] episodiosPorId = new long[limite];
+        int conteudos = 0, filmes = 0, series = 0;
+        for (int id = 0; id < limite; id++) {
+            Conteudo conteudo = porId.apply(id);
+            if (conteudo == null) {
+                generoDe[id] = -1;
+                continue;
+            }
+            vivos.set(id);
+            porTipo[conteudo.getTipoConteudo().ordinal()].set(id);
+            int codigo = codigoGenero.computeIfAbsent(Catalogo.chave(conteudo.getGenero()), g -> {
+                generos.add(conteudo.getGenero());
+                porGenero.add(new BitSet());
+                return generos.size() - 1;
+            });
+            generoDe[id] = codigo;
+            porGenero.get(codigo).set(id);
+            anosPorId[conteudos++] = par(conteudo.getAnoLancamento(), id);
+            if (conteudo instanceof Filme filme) {
+                duracoesPorId[filmes++] = par(filme.getDuracao(), id);
+            } else if (conteudo instanceof Serie serie) {
+                temporadasPorId[series] = par(serie.getTemporadas(), id);
+                episodiosPorId[series++] = par(serie.getEpisodios(), id);
+            } else if (conteudo instanceof Livro livro && livro.getAutor() != null) {
+                porAutor.computeIfAbsent(Catalogo.chave(livro.getAutor()), a -> new BitSet()).set(id);
+            }
+        }
+        this.quantidade = conteudos;
+        this.anos = new Faixa(anosPorId, conteudos);
+        this.duracoes = new Faixa(duracoesPorId, filmes);
+        this.temporadas = new Faixa(temporadasPorId, series);
+        this.episodios = new Faixa(episodiosPorId, series);
+    }
+
+    //Vale remontar quando os ids novos (fora dos índices) e os que saíram passam de 1/8 do que foi indexado.
+    //Os que saíram são estimados pelos tamanhos: conta também os novos que já saíram, o que só antecipa a remontagem.
+    boolean desatualizado(int fim, int tamanhoAtual) {
+        int novos = fim - limite;
+        int removidos = quantidade + novos - tamanhoAtual;
+        return novos + removidos > Math.max(LIMIAR_MINIMO, quantidade / 8);
+    }
+
+    ResultadoFiltro filtrar(FiltroConteudos filtro, IntFunction<Conteudo> porId, int fim) {
+        BitSet candidatos = candidatos(filtro);
+        List<Conteudo> encontrados = new ArrayList<>();
+        int[] contagemTipo = new int[porTipo.length];
+        int[] contagemGenero = new int[generos.size()];
+        Map<String, int[]> generosNovos = new HashMap<>(); //gêneros que só aparecem depois do limite, pela chave
+        Map<String, String> grafiaNova = new HashMap<>();
+        Map<Integer, int[]> contagemDecada = new HashMap<>();
+
+        for (int id = candidatos.nextSetBit(0); id >= 0; id = candidatos.nextSetBit(id + 1)) {
+            Conteudo conteudo = porId.apply(id);
+            if (conteudo == null || !notaAceita(conteudo, filtro)) continue;
+            encontrados.add(conteudo);
+            contagemGenero[generoDe[id]]++;
+            contar(conteudo, contagemTipo, contagemDecada);
+        }
+        for (int id = limite; id < fim; id++) {
+            Conteudo conteudo = porId.apply(id);
+            if (conteudo == null || !filtro.aceita(conteudo) || !notaAceita(conteudo, filtro)) continue;
+            encontrados.add(conteudo);
+            String chave = Catalogo.chave(conteudo.getGenero());
+            Integer codigo = codigoGenero.get(chave);
+            if (codigo != null) {
+                contagemGenero[codigo]++;
+            } else {
+                grafiaNova.putIfAbsent(chave, conteudo.getGenero());
+                generosNovos.computeIfAbsent(chave, g -> new int[1])[0]++;
+            }
+            contar(conteudo, contagemTipo, contagemDecada);
+        }
+
+        Map<TipoConteudo, Integer> facetaTipo = new EnumMap<>(TipoConteudo.class);
+        for (TipoConteudo tipo : TipoConteudo.values()) {
+            facetaTipo.put(tipo, contagemTipo[tipo.ordinal()]);
+        }
+        Map<Integer, Integer> facetaDecada = new TreeMap<>();
+        contagemDecada.forEach((decada, contagem) -> facetaDecada.put(decada, contagem[0]));
+        return new ResultadoFiltro(pagina(encontrados, filtro), encontrados.size(), facetaTipo,
+                facetaGenero(contagemGenero, generosNovos, grafiaNova), facetaDecada);
+    }
+
+    private BitSet candidatos(FiltroConteudos filtro) {
+        BitSet candidatos = (BitSet) vivos.clone();
+        if (filtro.getTipo() != null) {
+            candidatos.and(porTipo[filtro.getTipo().ordinal()]);
+        }
+        if (filtro.getGenero() != null) {
+            Integer codigo = codigoGenero.get(Catalogo.chave(filtro.getGenero()));
+            if (codigo == null) return new BitSet();
+            candidatos.and(porGenero.get(codigo));
+        }
+        if (filtro.getAutor() != null) {
+            BitSet doAutor = porAutor.get(Catalogo.chave(filtro.getAutor()));
+            if (doAutor == null) return new BitSet();
+            candidatos.and(doAutor);
+        }
+        if (filtro.filtraAno()) {
+            candidatos.and(anos.marcar(filtro.getAnoMinimo(), filtro.getAnoMaximo()));
+        }
+        if (filtro.filtraDuracao()) {
+            candidatos.and(duracoes.marcar(filtro.getDuracaoMinima(), filtro.getDuracaoMaxima()));
+        }
+        if (filtro.filtraTemporadas()) {
+            candidatos.and(temporadas.marcar(filtro.getTemporadasMinimas(), filtro.getTemporadasMaximas()));
+        }
+        if (filtro.filtraEpisodios()) {
+            candidatos.and(episodios.marcar(filtro.getEpisodiosMinimos(), filtro.getEpisodiosMaximos()));
+        }
+        return candidatos;
+    }
+
+    //Gêneros do mais para o menos frequente (empate: ordem alfabética)
+    private Map<String, Integer> facetaGenero(int[] contagemGenero, Map<String, int[]> generosNovos, Map<String, String> grafiaNova) {
+        Map<String, Integer> contagens = new HashMap<>();
+        for (int codigo = 0; codigo < contagemGenero.length; codigo++) {
+            if (contagemGenero[codigo] > 0) contagens.put(generos.get(codigo), contagemGenero[codigo]);
+        }
+        generosNovos.forEach((chave, contagem) -> contagens.put(grafiaNova.get(chave), contagem[0]));
+        List<Map.Entry<String, Integer>> ordenadas = new ArrayList<>(contagens.entrySet());
+        ordenadas.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> faceta = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entrada : ordenadas) {
+            faceta.put(entrada.getKey(), entrada.getValue());
+        }
+        return faceta;
+    }
+
+    //Só ordena o que cabe até o fim da página pedida
+    private static List<Conteudo> pagina(List<Conteudo> encontrados, FiltroConteudos filtro) {
+        long inicio = filtro.getInicio();
+        if (inicio >= encontrados.size()) return new ArrayList<>();
+        int fimPagina = (int) Math.min(encontrados.size(), inicio + filtro.getTamanhoPagina());
+        Comparator<Conteudo> comparador = filtro.comparador();
+        List<Conteudo> ordenados = comparador == null ? encontrados : SeletorTopK.selecionar(encontrados, fimPagina, comparador);
+        return new ArrayList<>(ordenados.subList((int) inicio, fimPagina));
+    }
+
+    private static void contar(Conteudo conteudo, int[] contagemTipo, Map<Integer, int[]> contagemDecada) {
+        contagemTipo[conteudo.getTipoConteudo().ordinal()]++;
+        contagemDecada.computeIfAbsent(Math.floorDiv(conteudo.getAnoLancamento(), 10) * 10, d -> new int[1])[0]++;
+    }
+
+    private static boolean notaAceita(Conteudo conteudo, FiltroConteudos filtro) {
+        return filtro.getNotaMinima() <= 0 || conteudo.getNotaMedia() >= filtro.getNotaMinima();
+    }
+
+    private static long par(int valor, int id) {
+        return ((long) valor << 32) | id;
+    }
+}
@@ -0,0 +1,106 @@
+package br.inatel.services;
+
+import br.inatel.models.Conteudo;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+//Índice invertido de trigramas sobre os títulos normalizados (minúsculas e sem acentos).
+//Uma busca pega a menor lista de candidatos entre os trigramas da consulta e só confirma esses com contains.
+//As entradas são indexadas pelo id do conteúdo no catálogo (a ordem de inserção); leituras não usam lock.
+public class IndiceTitulos {
+    private static final int N = 3;
+
+    private record Entrada(Conteudo conteudo, String normalizado) {
+    }
+
+    //Lista de entradas de um trigrama; o tamanho fica à parte porque size() da skip list é O(n)
+    private static class Postagens {
+        private final ConcurrentNavigableMap<Integer, Entrada> entradas = new ConcurrentSkipListMap<>();
+        private volatile int tamanho;
+    }
+
+    private Map<String, Postagens> porTrigrama;
+    private ConcurrentNavigableMap<Integer, Entrada> todos; //usado nas consultas curtas
+
+    public IndiceTitulos() {
+        this.porTrigrama = new ConcurrentHashMap<>();
+        this.todos = new ConcurrentSkipListMap<>();
+    }
+
+    //Chamado pelo Catalogo, que já serializa as escritas
+    public void adicionar(int id, Conteudo conteudo) {
+        Entrada entrada = new Entrada(conteudo, normalizar(conteudo.getTitulo()));
+        todos.put(id, entrada);
+        for (String trigrama : trigramas(entrada.normalizado())) {
+            Postagens postagens = porTrigrama.computeIfAbsent(trigrama, t -> new Postagens());
+            postagens.entradas.put(id, entrada);
+            postagens.tamanho++;
+        }
+    }
+
+    public void remover(int id) {
+        Entrada entrada = todos.remove(id);
+        if (entrada == null) return;
+        for (String trigrama : trigramas(entrada.normalizado())) {
+            Postagens postagens = porTrigrama.get(trigrama);
+            if (postagens != null && postagens.entradas.remove(id) != null) {
+                postagens.tamanho--;
+                if (postagens.tamanho == 0) porTrigrama.remove(trigrama);
+            }
+        }
+    }
+
+    //Devolve no máximo "limite" resultados, pulando os "inicio" primeiros, na ordem de inserção
+    public List<Conteudo> pesquisar(String texto, int inicio, int limite) {
+        if (inicio < 0 || limite < 0) {
+            throw new IllegalArgumentException("Início e limite da pesquisa não podem ser negativos.");
+        }
+        String consulta = normalizar(texto);
+        Collection<Entrada> candidatos = consulta.length() < N ? todos.values() : menorLista(consulta);
+
+        List<Conteudo> resultado = new ArrayList<>();
+        int encontrados = 0;
+        for (Entrada entrada : candidatos) {
+            if (resultado.size() >= limite) break;
+            if (entrada.normalizado().contains(consulta) && encontrados++ >= inicio) {
+                resultado.add(entrada.conteudo());
+            }
+        }
+        return resultado;
+    }
+
+    private Collection<Entrada> menorLista(String consulta) {
+        Postagens menor = null;
+        for (int i = 0; i + N <= consulta.length(); i++) {
+            Postagens postagens = porTrigrama.get(consulta.substring(i, i + N));
+            if (postagens == null) return Collections.emptyList(); //algum trigrama não aparece em nenhum título
+            if (menor == null || postagens.tamanho < menor.tamanho) menor = postagens;
+        }
+        return menor.entradas.values();
+    }
+
+    private static Set<String> trigramas(String normalizado) {
+        Set<String> trigramas = new HashSet<>();
+        for (int i = 0; i + N <= normalizado.length(); i++) {
+            trigramas.add(normalizado.substring(i, i + N));
+        }
+        return trigramas;
+    }
+
+    //"Ação" -> "acao": decompõe os caracteres acentuados e descarta as marcas
+    public static String normalizar(String texto) {
+        String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposto.length());
+        for (int i = 0; i < decomposto.length(); i++) {
+            char c = decomposto.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,104 @@
+package br.inatel.services;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+//Título normalizado -> id do conteúdo, em endereçamento aberto (sondagem linear) sobre dois vetores,
+//sem um objeto de entrada nem Integer por título. Um único escritor por vez (o Catalogo já serializa);
+//leituras não usam lock: o id é gravado antes da chave, que é publicada com release e lida com acquire.
+//Remoção deixa uma lápide que nunca é reaproveitada, então o id lido junto com uma chave não muda;
+//as lápides só somem quando a tabela é refeita (numa tabela nova, publicada de uma vez).
+final class MapaTitulos {
+    static final int AUSENTE = -1;
+
+    private static final String LAPIDE = new String("<removido>"); //comparada por referência
+    private static final VarHandle CHAVES = MethodHandles.arrayElementVarHandle(String[].class);
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    private static final class Tabela {
+        final String[] chaves;
+        final int[] ids;
+        int ocupadas; //chaves vivas e lápides: é o que alonga as sondagens
+
+        Tabela(int capacidade) {
+            this.chaves = new String[capacidade];
+            this.ids = new int[capacidade];
+        }
+    }
+
+    private volatile Tabela tabela = new Tabela(CAPACIDADE_INICIAL);
+    private int tamanho;
+
+    int obter(String chave) {
+        Tabela atual = tabela;
+        int mascara = atual.chaves.length - 1;
+        for (int i = posicao(chave, mascara); ; i = (i + 1) & mascara) {
+            String existente = (String) CHAVES.getAcquire(atual.chaves, i);
+            if (existente == null) return AUSENTE;
+            if (existente != LAPIDE && existente.equals(chave)) return atual.ids[i];
+        }
+    }
+
+    //false se a chave já existir
+    boolean colocar(String chave, int id) {
+        if (obter(chave) != AUSENTE) return false;
+        Tabela atual = tabela;
+        if ((atual.ocupadas + 1) * 2 > atual.chaves.length) {
+            atual = refazer(tamanho + 1);
+        }
+        inserir(atual, chave, id);
+        tamanho++;
+        return true;
+    }
+
+    //Devolve o id que estava na chave, ou AUSENTE
+    int remover(String chave) {
+        Tabela atual = tabela;
+        int mascara = atual.chaves.length - 1;
+        for (int i = posicao(chave, mascara); ; i = (i + 1) & mascara) {
+            String existente = atual.chaves[i];
+            if (existente == null) return AUSENTE;
+            if (existente != LAPIDE && existente.equals(chave)) {
+                CHAVES.setRelease(atual.chaves, i, LAPIDE);
+                tamanho--;
+                return atual.ids[i];
+            }
+        }
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    private static void inserir(Tabela destino, String chave, int id) {
+        int mascara = destino.chaves.length - 1;
+        int i = posicao(chave, mascara);
+        while (destino.chaves[i] != null) {
+            i = (i + 1) & mascara;
+        }
+        destino.ids[i] = id;
+        CHAVES.setRelease(destino.chaves, i, chave);
+        destino.ocupadas++;
+    }
+
+    //Copia só as chaves vivas para uma tabela com carga de no máximo 1/4 e a publica
+    private Tabela refazer(int quantidade) {
+        int capacidade = CAPACIDADE_INICIAL;
+        while (capacidade < quantidade * 4) {
+            capacidade <<= 1;
+        }
+        Tabela antiga = tabela;
+        Tabela nova = new Tabela(capacidade);
+        for (int i = 0; i < antiga.chaves.length; i++) {
+            String chave = antiga.chaves[i];
+            if (chave != null && chave != LAPIDE) inserir(nova, chave, antiga.ids[i]);
+        }
+        tabela = nova;
+        return nova;
+    }
+
+    private static int posicao(String chave, int mascara) {
+        int h = chave.hashCode();
+        return (h ^ (h >>> 16)) & mascara;
+    }
+}
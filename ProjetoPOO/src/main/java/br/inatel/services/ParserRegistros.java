@@ -0,0 +1,169 @@
+package br.inatel.services;
+
+import br.inatel.models.*;
+
+//Converte as linhas do arquivo de dados em objetos sem usar String.split:
+//os campos são delimitados pelas posições dos ";" e os números são lidos direto da linha.
+public final class ParserRegistros {
+    public static final String PREFIXO_AVALIACAO = "Avaliacao;";
+    public static final String PREFIXO_DIARIO = "Diario;"; //primeira linha opcional: última operação do diário já salva
+
+    private ParserRegistros() {
+    }
+
+    public static boolean ehAvaliacao(String linha) {
+        return linha.startsWith(PREFIXO_AVALIACAO);
+    }
+
+    public static boolean ehMarcadorDiario(String linha) {
+        return linha.startsWith(PREFIXO_DIARIO);
+    }
+
+    public static long paraSequenciaDiario(String linha) {
+        return Long.parseLong(linha, PREFIXO_DIARIO.length(), linha.length(), 10);
+    }
+
+    public static String formatarConteudo(Conteudo conteudo) {
+        // Formatando a linha do conteúdo com base no tipo
+        return switch (conteudo.getTipoConteudo()) {
+            //string format formata as strings conforme o modelo especificado, placeholders: %d para int, %s para string
+            case FILME -> String.format("Filme;%s;%s;%d;%s;%d",
+                    conteudo.getTitulo(),
+                    conteudo.getGenero(),
+                    conteudo.getAnoLancamento(),
+                    ((Filme) conteudo).getDiretor(),
+                    ((Filme) conteudo).getDuracao());
+            case SERIE -> String.format("Serie;%s;%s;%d;%d;%d",
+                    conteudo.getTitulo(),
+                    conteudo.getGenero(),
+                    conteudo.getAnoLancamento(),
+                    ((Serie) conteudo).getTemporadas(),
+                    ((Serie) conteudo).getEpisodios());
+            case LIVRO -> String.format("Livro;%s;%s;%d;%s;%s",
+                    conteudo.getTitulo(),
+                    conteudo.getGenero(),
+                    conteudo.getAnoLancamento(),
+                    ((Livro) conteudo).getAutor(),
+                    ((Livro) conteudo).getEditora());
+        };
+    }
+
+    public static String formatarAvaliacao(Avaliacao avaliacao) {
+        return String.format("Avaliacao;%s;%d;%s;%s",
+                avaliacao.getNomeAutor(),
+                avaliacao.getNota(),
+                avaliacao.getEmailAutor(),
+                avaliacao.getComentario());
+    }
+
+    //Os campos gravados entre ";" não podem ter ";" nem quebra de linha, senão a linha se parte na próxima carga
+    //(o diário escapa as quebras, mas o snapshot que o substitui não). Lança IllegalArgumentException.
+    public static void validarConteudo(Conteudo conteudo) {
+        validarCampo("título", conteudo.getTitulo());
+        validarCampo("gênero", conteudo.getGenero());
+        switch (conteudo.getTipoConteudo()) {
+            case FILME -> validarCampo("diretor", ((Filme) conteudo).getDiretor());
+            case LIVRO -> {
+                validarCampo("autor", ((Livro) conteudo).getAutor());
+                validarCampo("editora", ((Livro) conteudo).getEditora());
+            }
+            case SERIE -> {
+            }
+        }
+    }
+
+    //O comentário vai até o fim da linha: nele só a quebra de linha é proibida
+    public static void validarAvaliacao(String nome, String email, String comentario) {
+        validarCampo("nome", nome);
+        validarCampo("email", email);
+        if (comentario != null && (comentario.indexOf('\n') >= 0 || comentario.indexOf('\r') >= 0)) {
+            throw new IllegalArgumentException("O comentário não pode ter quebra de linha.");
+        }
+    }
+
+    private static void validarCampo(String nome, String valor) {
+        if (valor == null) return;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == ';' || c == '\n' || c == '\r') {
+                throw new IllegalArgumentException("O campo " + nome + " não pode ter ';' nem quebra de linha.");
+            }
+        }
+    }
+
+    //Avaliacao;nome;nota;email;comentario (o comentário vai até o fim da linha)
+    //O usuário vem do registro: todas as avaliações de um mesmo email apontam para a mesma instância,
+    //e a avaliação guarda o nome e o email da linha, que são os que voltam para o arquivo
+    public static Avaliacao paraAvaliacao(String linha, RegistroUsuarios usuarios) {
+        int[] sep = new int[4];
+        if (separadores(linha, sep) != sep.length) {
+            throw new IllegalArgumentException("Formato de linha de avaliação inválido: " + linha);
+        }
+
+        String nomeUsuario = linha.substring(sep[0] + 1, sep[1]);
+        int nota = Integer.parseInt(linha, sep[1] + 1, sep[2], 10);
+        String emailUsuario = linha.substring(sep[2] + 1, sep[3]);
+        String comentario = linha.substring(sep[3] + 1);
+        Usuario usuario = usuarios.obter(nomeUsuario, emailUsuario);
+        return new Avaliacao(usuario, nomeUsuario, emailUsuario, nota, comentario);
+    }
+
+    //titulo;nome;nota;email;comentario (importação em massa) -> null se a linha estiver mal formada.
+    //Mesmos campos da linha de avaliação, com o título no lugar do prefixo; a nota é validada por quem importa.
+    public static RegistroAvaliacao paraRegistroAvaliacao(String linha) {
+        int[] sep = new int[4];
+        if (separadores(linha, sep) != sep.length) return null;
+        try {
+            return new RegistroAvaliacao(linha.substring(0, sep[0]),
+                    linha.substring(sep[0] + 1, sep[1]),
+                    linha.substring(sep[2] + 1, sep[3]),
+                    Integer.parseInt(linha, sep[1] + 1, sep[2], 10),
+                    linha.substring(sep[3] + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    //Tipo;titulo;genero;ano;campo1;campo2 -> null se a linha não for um conteúdo válido
+    public static Conteudo paraConteudo(String linha) {
+        int[] sep = new int[6];
+        int encontrados = separadores(linha, sep);
+        if (encontrados < 5) return null;
+        int fim = encontrados == 6 ? sep[5] : linha.length(); //campos extras são ignorados
+
+        try {
+            String titulo = linha.substring(sep[0] + 1, sep[1]);
+            String genero = linha.substring(sep[1] + 1, sep[2]);
+            int ano = Integer.parseInt(linha, sep[2] + 1, sep[3], 10);
+
+            if (linha.startsWith("Filme;")) {
+                String diretor = linha.substring(sep[3] + 1, sep[4]);
+                int duracao = Integer.parseInt(linha, sep[4] + 1, fim, 10);
+                return new Filme(titulo, genero, ano, diretor, duracao);
+            } else if (linha.startsWith("Serie;")) {
+                int temporadas = Integer.parseInt(linha, sep[3] + 1, sep[4], 10);
+                int episodios = Integer.parseInt(linha, sep[4] + 1, fim, 10);
+                return new Serie(titulo, genero, ano, temporadas, episodios);
+            } else if (linha.startsWith("Livro;")) {
+                String autor = linha.substring(sep[3] + 1, sep[4]);
+                String editora = linha.substring(sep[4] + 1, fim);
+                return new Livro(titulo, genero, ano, autor, editora);
+            }
+            return null;
+        } catch (Exception e) {
+            System.err.println("Erro ao carregar linha: " + linha);
+            return null;
+        }
+    }
+
+    //Preenche as posições dos primeiros ";" da linha e retorna quantos foram encontrados
+    private static int separadores(String linha, int[] posicoes) {
+        int encontrados = 0;
+        int posicao = linha.indexOf(';');
+        while (posicao >= 0 && encontrados < posicoes.length) {
+            posicoes[encontrados++] = posicao;
+            posicao = linha.indexOf(';', posicao + 1);
+        }
+        return encontrados;
+    }
+}
@@ -0,0 +1,64 @@
+package br.inatel.services;
+
+import br.inatel.models.Conteudo;
+
+import java.time.Duration;
+
+public enum Rankings implements EstrategiaRanking {
+    //Média simples: um único 5 fica acima de milhares de 4.8
+    MEDIA {
+        @Override
+        public double pontuar(Conteudo conteudo, DadosRanking dados) {
+            return conteudo.getNotaMedia();
+        }
+
+        @Override
+        public boolean usaMediaGlobal() {
+            return false;
+        }
+    },
+    //Média bayesiana: cada conteúdo começa com PESO_PRIORI avaliações "virtuais" na média global
+    BAYESIANA {
+        @Override
+        public double pontuar(Conteudo conteudo, DadosRanking dados) {
+            return (conteudo.getSomaNotas() + PESO_PRIORI * dados.mediaGlobal())
+                    / (conteudo.getTotalAvaliacoes() + PESO_PRIORI);
+        }
+    },
+    //Limite inferior do intervalo de Wilson (95%) para a nota normalizada em [0, 1], de volta na escala 1 a 5
+    WILSON {
+        @Override
+        public double pontuar(Conteudo conteudo, DadosRanking dados) {
+            long n = conteudo.getTotalAvaliacoes();
+            if (n == 0) return 1.0;
+            double p = (conteudo.getSomaNotas() - n) / (4.0 * n); //nota 1 -> 0, nota 5 -> 1
+            double z2 = Z * Z;
+            double centro = p + z2 / (2 * n);
+            double margem = Z * Math.sqrt((p * (1 - p) + z2 / (4 * n)) / n);
+            return 1 + 4 * (centro - margem) / (1 + z2 / n);
+        }
+
+        @Override
+        public boolean usaMediaGlobal() {
+            return false;
+        }
+    },
+    //Média bayesiana em que o peso de cada avaliação cai pela metade a cada MEIA_VIDA: conteúdos
+    //sem avaliações recentes voltam aos poucos para a média global
+    RECENTE {
+        @Override
+        public double pontuar(Conteudo conteudo, DadosRanking dados) {
+            return (dados.somaRecente() + PESO_PRIORI * dados.mediaGlobal())
+                    / (dados.pesoRecente() + PESO_PRIORI);
+        }
+
+        @Override
+        public Duration meiaVida() {
+            return MEIA_VIDA;
+        }
+    };
+
+    private static final double PESO_PRIORI = 10;
+    private static final double Z = 1.96;
+    private static final Duration MEIA_VIDA = Duration.ofDays(30);
+}
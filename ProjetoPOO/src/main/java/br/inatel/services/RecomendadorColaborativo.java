@@ -0,0 +1,404 @@
+package br.inatel.services;
+
+import br.inatel.models.Avaliacao;
+import br.inatel.models.Conteudo;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Filtragem colaborativa item a item sobre a matriz esparsa usuário x conteúdo.
+//Similaridade: cosseno das notas centradas na média de cada conteúdo, calculada só sobre
+//os usuários em comum. Cada conteúdo guarda a lista dos seus vizinhos mais parecidos,
+//recalculada quando o vetor de notas dele muda. Um usuário que avalia o mesmo conteúdo
+//de novo tem só a nota mais recente considerada.
+public class RecomendadorColaborativo {
+    private static final int VIZINHOS_POR_ITEM = 50;
+    private static final int LIMITE_PENDENTES = 10_000;
+    //Quem avaliou milhares de itens usa só os que mais fogem da média de cada item:
+    //cada item de partida pode exigir o recálculo dos vizinhos dele
+    private static final int ITENS_DE_PARTIDA = 100;
+    private static final int LIMIAR_COMPACTACAO = 64; //mínimo de itens removidos antes de compactar
+
+    //Avaliações chegam sem lock numa fila e são aplicadas em lote por quem conseguir o lock
+    private record Pendente(Conteudo conteudo, String email, int nota) {
+    }
+
+    private ConcurrentLinkedQueue<Pendente> pendentes;
+    private AtomicInteger quantidadePendentes;
+    private ReentrantLock bloqueio;
+    private volatile boolean ativo;
+
+    private Map<String, Integer> idUsuario;
+    private List<VetorEsparso> porUsuario;     //item -> nota, por usuário
+    private Map<Conteudo, Integer> idItem;
+    private List<Conteudo> itens;
+    private List<VetorEsparso> porItem;        //usuário -> nota, por item
+    private double[] somaItem;
+    private double[] somaQuadradosItem;
+    private BitSet removidos;
+    private int quantidadeRemovidos;
+    private BitSet desatualizados;
+    private int[][] vizinhos;
+    private float[][] similaridades;
+
+    //Áreas de trabalho reaproveitadas entre chamadas (só usadas com o lock)
+    private float[] acumulado;
+    private float[] pesos;
+    private int[] marca;
+    private int rodada;
+
+    public RecomendadorColaborativo() {
+        this.pendentes = new ConcurrentLinkedQueue<>();
+        this.quantidadePendentes = new AtomicInteger();
+        this.bloqueio = new ReentrantLock();
+        this.idUsuario = new HashMap<>();
+        this.porUsuario = new ArrayList<>();
+        this.idItem = new IdentityHashMap<>();
+        this.itens = new ArrayList<>();
+        this.porItem = new ArrayList<>();
+        this.somaItem = new double[16];
+        this.somaQuadradosItem = new double[16];
+        this.removidos = new BitSet();
+        this.desatualizados = new BitSet();
+        this.vizinhos = new int[16][];
+        this.similaridades = new float[16][];
+        this.acumulado = new float[16];
+        this.pesos = new float[16];
+        this.marca = new int[16];
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+
+    //Liga o acompanhamento das avaliações e monta a matriz com as que já existem
+    public void ativar(Collection<Conteudo> conteudos) {
+        bloqueio.lock();
+        try {
+            if (ativo) return;
+            ativo = true; //a partir daqui as novas avaliações entram na fila; repetidas só sobrescrevem a nota
+            for (Conteudo conteudo : conteudos) {
+                for (Avaliacao avaliacao : conteudo.getAvaliacoes()) {
+                    aplicar(conteudo, avaliacao.getUsuario().getEmail(), avaliacao.getNota());
+                }
+            }
+        } finally {
+            bloqueio.unlock();
+        }
+    }
+
+    public void registrar(Conteudo conteudo, Avaliacao avaliacao) {
+        if (!ativo) return;
+        pendentes.add(new Pendente(conteudo, avaliacao.getUsuario().getEmail(), avaliacao.getNota()));
+        if (quantidadePendentes.incrementAndGet() >= LIMITE_PENDENTES && bloqueio.tryLock()) {
+            try {
+                aplicarPendentes();
+            } finally {
+                bloqueio.unlock();
+            }
+        }
+    }
+
+    public void remover(Conteudo conteudo) {
+        if (!ativo) return;
+        pendentes.add(new Pendente(conteudo, null, 0)); //email nulo marca remoção
+        quantidadePendentes.incrementAndGet();
+    }
+
+    //Conteúdos que o usuário ainda não avaliou, pela nota prevista a partir dos vizinhos do que ele já avaliou
+    public List<Conteudo> recomendar(String email, int quantidade) {
+        bloqueio.lock();
+        try {
+            aplicarPendentes();
+            Integer usuario = idUsuario.get(RegistroUsuarios.chave(email));
+            if (usuario == null || quantidade <= 0) return new ArrayList<>();
+
+            VetorEsparso avaliados = porUsuario.get(usuario);
+            int[] partida = itensDePartida(avaliados);
+            for (int p : partida) {
+                int item = avaliados.indice(p);
+                if (desatualizados.get(item) && !removidos.get(item)) recalcularVizinhos(item);
+            } //antes de acumular: o recálculo usa as mesmas áreas de trabalho
+
+            int[] candidatos = new int[16];
+            int quantidadeCandidatos = 0;
+            rodada++;
+            for (int p : partida) {
+                int item = avaliados.indice(p);
+                if (removidos.get(item)) continue;
+
+                float desvio = avaliados.valor(p) - (float) media(item);
+                int[] viz = vizinhos[item];
+                float[] sim = similaridades[item];
+                for (int v = 0; v < viz.length; v++) {
+                    int outro = viz[v];
+                    if (removidos.get(outro) || avaliados.contem(outro)) continue;
+                    if (marca[outro] != rodada) {
+                        marca[outro] = rodada;
+                        acumulado[outro] = 0;
+                        pesos[outro] = 0;
+                        if (quantidadeCandidatos == candidatos.length) candidatos = Arrays.copyOf(candidatos, quantidadeCandidatos * 2);
+                        candidatos[quantidadeCandidatos++] = outro;
+                    }
+                    acumulado[outro] += sim[v] * desvio;
+                    pesos[outro] += sim[v];
+                }
+            }
+
+            float[] previsao = new float[quantidadeCandidatos];
+            for (int c = 0; c < quantidadeCandidatos; c++) {
+                int item = candidatos[c];
+                previsao[c] = (float) media(item) + acumulado[item] / pesos[item];
+            }
+            int[] melhores = maiores(candidatos, previsao, quantidadeCandidatos, quantidade);
+            List<Conteudo> resultado = new ArrayList<>(melhores.length);
+            for (int posicao : melhores) {
+                resultado.add(itens.get(candidatos[posicao]));
+            }
+            return resultado;
+        } finally {
+            bloqueio.unlock();
+        }
+    }
+
+    //Posições (no vetor do usuário) dos itens usados para chegar aos candidatos
+    private int[] itensDePartida(VetorEsparso avaliados) {
+        int n = avaliados.tamanho();
+        int[] posicoes = new int[n];
+        for (int p = 0; p < n; p++) posicoes[p] = p;
+        if (n <= ITENS_DE_PARTIDA) return posicoes;
+
+        float[] distancia = new float[n];
+        for (int p = 0; p < n; p++) {
+            distancia[p] = Math.abs(avaliados.valor(p) - (float) media(avaliados.indice(p)));
+        }
+        return maiores(posicoes, distancia, n, ITENS_DE_PARTIDA);
+    }
+
+    private void aplicarPendentes() {
+        Pendente pendente;
+        while ((pendente = pendentes.poll()) != null) {
+            quantidadePendentes.decrementAndGet();
+            if (pendente.email() == null) {
+                Integer item = idItem.get(pendente.conteudo());
+                if (item != null && !removidos.get(item)) {
+                    removidos.set(item);
+                    quantidadeRemovidos++;
+                }
+            } else {
+                aplicar(pendente.conteudo(), pendente.email(), pendente.nota());
+            }
+        }
+        if (quantidadeRemovidos > Math.max(LIMIAR_COMPACTACAO, itens.size() / 8)) compactar();
+    }
+
+    //Renumera os itens que continuam (na mesma ordem) e refaz os vetores dos usuários sem os removidos,
+    //assim os vetores por item não crescem com cada conteúdo que já passou pelo catálogo.
+    //Os vizinhos ficam para ser recalculados sob demanda, como depois de uma avaliação.
+    private void compactar() {
+        List<Conteudo> itensAntigos = itens;
+        List<VetorEsparso> porItemAntigo = porItem;
+        double[] somaAntiga = somaItem;
+        double[] somaQuadradosAntiga = somaQuadradosItem;
+        int vivos = itensAntigos.size() - quantidadeRemovidos;
+        int capacidade = Math.max(16, vivos);
+
+        idItem.clear();
+        itens = new ArrayList<>(vivos);
+        porItem = new ArrayList<>(vivos);
+        somaItem = new double[capacidade];
+        somaQuadradosItem = new double[capacidade];
+        vizinhos = new int[capacidade][];
+        similaridades = new float[capacidade][];
+        acumulado = new float[capacidade];
+        pesos = new float[capacidade];
+        marca = new int[capacidade];
+        rodada = 0;
+        for (int u = 0; u < porUsuario.size(); u++) {
+            porUsuario.set(u, new VetorEsparso());
+        }
+        for (int antigo = 0; antigo < itensAntigos.size(); antigo++) {
+            if (removidos.get(antigo)) continue;
+            int item = itens.size();
+            Conteudo conteudo = itensAntigos.get(antigo);
+            VetorEsparso notas = porItemAntigo.get(antigo);
+            idItem.put(conteudo, item);
+            itens.add(conteudo);
+            porItem.add(notas);
+            somaItem[item] = somaAntiga[antigo];
+            somaQuadradosItem[item] = somaQuadradosAntiga[antigo];
+            vizinhos[item] = new int[0];
+            similaridades[item] = new float[0];
+            for (int p = 0; p < notas.tamanho(); p++) {
+                porUsuario.get(notas.indice(p)).definir(item, notas.valor(p)); //item crescente: sempre no fim
+            }
+        }
+        removidos = new BitSet();
+        quantidadeRemovidos = 0;
+        desatualizados = new BitSet();
+        desatualizados.set(0, itens.size());
+    }
+
+    private void aplicar(Conteudo conteudo, String email, int nota) {
+        int usuario = idUsuario.computeIfAbsent(RegistroUsuarios.chave(email), e -> {
+            porUsuario.add(new VetorEsparso());
+            return porUsuario.size() - 1;
+        });
+        int item = idDoItem(conteudo);
+
+        float anterior = porItem.get(item).definir(usuario, nota);
+        porUsuario.get(usuario).definir(item, nota);
+        if (Float.isNaN(anterior)) {
+            somaItem[item] += nota;
+            somaQuadradosItem[item] += (double) nota * nota;
+        } else {
+            somaItem[item] += nota - anterior;
+            somaQuadradosItem[item] += (double) nota * nota - (double) anterior * anterior;
+        }
+        desatualizados.set(item);
+    }
+
+    private int idDoItem(Conteudo conteudo) {
+        Integer existente = idItem.get(conteudo);
+        if (existente != null) {
+            if (removidos.get(existente)) { //conteúdo removido e adicionado de novo
+                removidos.clear(existente);
+                quantidadeRemovidos--;
+            }
+            return existente;
+        }
+        int item = itens.size();
+        idItem.put(conteudo, item);
+        itens.add(conteudo);
+        porItem.add(new VetorEsparso());
+        if (item == somaItem.length) {
+            int capacidade = item * 2;
+            somaItem = Arrays.copyOf(somaItem, capacidade);
+            somaQuadradosItem = Arrays.copyOf(somaQuadradosItem, capacidade);
+            vizinhos = Arrays.copyOf(vizinhos, capacidade);
+            similaridades = Arrays.copyOf(similaridades, capacidade);
+            acumulado = Arrays.copyOf(acumulado, capacidade);
+            pesos = Arrays.copyOf(pesos, capacidade);
+            marca = Arrays.copyOf(marca, capacidade);
+        }
+        vizinhos[item] = new int[0];
+        similaridades[item] = new float[0];
+        return item;
+    }
+
+    //Produto interno com todos os conteúdos que têm usuários em comum com este, via vetores dos usuários
+    private void recalcularVizinhos(int item) {
+        VetorEsparso notas = porItem.get(item);
+        double mediaItem = media(item);
+        int[] tocados = new int[16];
+        int quantidadeTocados = 0;
+        rodada++;
+
+        for (int p = 0; p < notas.tamanho(); p++) {
+            float desvio = notas.valor(p) - (float) mediaItem;
+            VetorEsparso doUsuario = porUsuario.get(notas.indice(p));
+            for (int q = 0; q < doUsuario.tamanho(); q++) {
+                int outro = doUsuario.indice(q);
+                if (outro == item || removidos.get(outro)) continue;
+                if (marca[outro] != rodada) {
+                    marca[outro] = rodada;
+                    acumulado[outro] = 0;
+                    if (quantidadeTocados == tocados.length) tocados = Arrays.copyOf(tocados, quantidadeTocados * 2);
+                    tocados[quantidadeTocados++] = outro;
+                }
+                acumulado[outro] += desvio * (doUsuario.valor(q) - (float) media(outro));
+            }
+        }
+
+        double normaItem = norma(item);
+        float[] similaridade = new float[quantidadeTocados];
+        for (int t = 0; t < quantidadeTocados; t++) {
+            int outro = tocados[t];
+            double normas = normaItem * norma(outro);
+            similaridade[t] = normas > 0 ? (float) (acumulado[outro] / normas) : 0f;
+        }
+
+        //Só vizinhos com similaridade positiva entram na lista
+        int[] melhores = maiores(tocados, similaridade, quantidadeTocados, VIZINHOS_POR_ITEM);
+        int positivos = 0;
+        while (positivos < melhores.length && similaridade[melhores[positivos]] > 0) positivos++;
+        int[] novosVizinhos = new int[positivos];
+        float[] novasSimilaridades = new float[positivos];
+        for (int m = 0; m < positivos; m++) {
+            novosVizinhos[m] = tocados[melhores[m]];
+            novasSimilaridades[m] = similaridade[melhores[m]];
+        }
+        vizinhos[item] = novosVizinhos;
+        similaridades[item] = novasSimilaridades;
+        desatualizados.clear(item);
+    }
+
+    //Posições dos k maiores valores, em ordem decrescente (empate: menor id primeiro).
+    //Heap de mínimo com k posições: O(n log k), sem ordenar nem criar objetos por elemento.
+    private static int[] maiores(int[] ids, float[] valores, int quantidade, int k) {
+        int limite = Math.min(k, quantidade);
+        int[] heap = new int[limite];
+        int tamanho = 0;
+        for (int i = 0; i < quantidade; i++) {
+            if (tamanho < limite) {
+                heap[tamanho] = i;
+                subir(heap, tamanho++, ids, valores);
+            } else if (limite > 0 && antes(i, heap[0], ids, valores)) {
+                heap[0] = i; //substitui o pior dos k
+                descer(heap, tamanho, ids, valores);
+            }
+        }
+        //Esvazia o heap do pior para o melhor, preenchendo o resultado de trás para frente
+        int[] resultado = new int[tamanho];
+        for (int i = tamanho - 1; i >= 0; i--) {
+            resultado[i] = heap[0];
+            heap[0] = heap[i];
+            descer(heap, i, ids, valores);
+        }
+        return resultado;
+    }
+
+    //a vem antes de b na ordem do resultado
+    private static boolean antes(int a, int b, int[] ids, float[] valores) {
+        int comparacao = Float.compare(valores[a], valores[b]);
+        return comparacao != 0 ? comparacao > 0 : ids[a] < ids[b];
+    }
+
+    private static void subir(int[] heap, int i, int[] ids, float[] valores) {
+        while (i > 0) {
+            int pai = (i - 1) / 2;
+            if (!antes(heap[pai], heap[i], ids, valores)) break;
+            int t = heap[pai]; heap[pai] = heap[i]; heap[i] = t;
+            i = pai;
+        }
+    }
+
+    private static void descer(int[] heap, int tamanho, int[] ids, float[] valores) {
+        int i = 0;
+        while (true) {
+            int pior = i;
+            int esquerda = 2 * i + 1;
+            int direita = esquerda + 1;
+            if (esquerda < tamanho && antes(heap[pior], heap[esquerda], ids, valores)) pior = esquerda;
+            if (direita < tamanho && antes(heap[pior], heap[direita], ids, valores)) pior = direita;
+            if (pior == i) return;
+            int t = heap[pior]; heap[pior] = heap[i]; heap[i] = t;
+            i = pior;
+        }
+    }
+
+    private double media(int item) {
+        int n = porItem.get(item).tamanho();
+        return n == 0 ? 0 : somaItem[item] / n;
+    }
+
+    //Norma do vetor centrado: sqrt(soma(x^2) - n * media^2), mantida sem percorrer as notas
+    private double norma(int item) {
+        int n = porItem.get(item).tamanho();
+        if (n == 0) return 0;
+        double media = somaItem[item] / n;
+        return Math.sqrt(Math.max(0, somaQuadradosItem[item] - n * media * media));
+    }
+}
@@ -0,0 +1,5 @@
+package br.inatel.services;
+
+//Uma avaliação a importar, com o conteúdo identificado pelo título e o usuário pelo email
+public record RegistroAvaliacao(String titulo, String nome, String email, int nota, String comentario) {
+}
@@ -0,0 +1,44 @@
+package br.inatel.services;
+
+import br.inatel.models.Usuario;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Uma única instância de Usuario por email (sem diferenciar maiúsculas), compartilhada por todas
+//as avaliações dele. Como cada Usuario guarda as próprias avaliações, as consultas por usuário
+//não precisam percorrer o catálogo. Se o mesmo email aparecer com outro nome (ou outra grafia), o Usuario
+//fica com o primeiro; cada avaliação guarda o nome e o email com que foi gravada, e é isso que vai para os arquivos.
+public class RegistroUsuarios {
+    private ConcurrentHashMap<String, Usuario> porEmail;
+
+    public RegistroUsuarios() {
+        this.porEmail = new ConcurrentHashMap<>();
+    }
+
+    public Usuario obter(String nome, String email) {
+        String chave = chave(email);
+        Usuario existente = porEmail.get(chave); //caminho comum na carga: usuário já visto, sem lock
+        if (existente != null) return existente;
+        return porEmail.computeIfAbsent(chave, c -> new Usuario(nome, email));
+    }
+
+    public Optional<Usuario> buscar(String email) {
+        return Optional.ofNullable(porEmail.get(chave(email)));
+    }
+
+    public Collection<Usuario> listar() {
+        return Collections.unmodifiableCollection(porEmail.values());
+    }
+
+    public int tamanho() {
+        return porEmail.size();
+    }
+
+    static String chave(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,13 @@
+package br.inatel.services;
+
+import br.inatel.models.Conteudo;
+import br.inatel.models.TipoConteudo;
+
+import java.util.List;
+import java.util.Map;
+
+//conteudos: só a página pedida; total e contagens: todos os que passaram no filtro.
+//porGenero usa a grafia do primeiro conteúdo do gênero; porDecada é chaveado pelo primeiro ano (1990, 2000...).
+public record ResultadoFiltro(List<Conteudo> conteudos, int total, Map<TipoConteudo, Integer> porTipo,
+                             Map<String, Integer> porGenero, Map<Integer, Integer> porDecada) {
+}
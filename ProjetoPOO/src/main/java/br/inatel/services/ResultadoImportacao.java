@@ -0,0 +1,5 @@
+package br.inatel.services;
+
+//aplicadas: avaliações gravadas; semConteudo: título fora do catálogo; invalidas: nota fora de 1 a 5 ou linha mal formada
+public record ResultadoImportacao(long aplicadas, long semConteudo, long invalidas) {
+}
@@ -0,0 +1,7 @@
+package br.inatel.services;
+
+//gravado: false quando nada mudou desde o último snapshot no mesmo arquivo (aí os outros campos ficam zerados).
+//pausaNanos: quanto tempo as alterações ficaram paradas para o retrato; a gravação em si não para ninguém.
+public record ResultadoSnapshot(boolean gravado, int conteudos, long avaliacoes, long bytes, long pausaNanos) {
+    static final ResultadoSnapshot SEM_ALTERACAO = new ResultadoSnapshot(false, 0, 0, 0, 0);
+}
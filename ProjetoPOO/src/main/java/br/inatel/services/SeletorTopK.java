@@ -0,0 +1,188 @@
+package br.inatel.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+//Seleciona os k primeiros itens de uma lista sem ordená-la inteira: heap limitado de tamanho k, O(n log k).
+//Empates são resolvidos pela posição na lista, igual a uma ordenação estável seguida de limit(k).
+public class SeletorTopK {
+
+    private static final int LIMIAR_PARALELO = 50_000; //abaixo disso dividir em tarefas não compensa
+
+    private SeletorTopK() {
+    }
+
+    public static <T> List<T> selecionar(List<T> itens, int k, Comparator<? super T> ordem) {
+        if (itens.size() >= LIMIAR_PARALELO) {
+            return selecionarEmParalelo(itens, k, ordem, ForkJoinPool.commonPool());
+        }
+        return selecionarSequencial(itens, k, ordem);
+    }
+
+    public static <T> List<T> selecionarSequencial(List<T> itens, int k, Comparator<? super T> ordem) {
+        List<T> lista = acessoAleatorio(itens);
+        validar(k);
+        Heap<T> heap = new Heap<>(lista, Math.min(k, lista.size()), ordem);
+        for (int i = 0; i < lista.size(); i++) {
+            heap.oferecer(i);
+        }
+        return heap.emOrdem();
+    }
+
+    public static <T> List<T> selecionarEmParalelo(List<T> itens, int k, Comparator<? super T> ordem, ForkJoinPool pool) {
+        List<T> lista = acessoAleatorio(itens);
+        validar(k);
+        int limite = Math.min(k, lista.size());
+        if (limite == 0) return new ArrayList<>();
+
+        //Cada bloco devolve os índices dos seus k melhores; a junção repete a seleção só sobre esses candidatos
+        int tamanhoBloco = Math.max(LIMIAR_PARALELO / 4, lista.size() / (pool.getParallelism() * 4));
+        int[] candidatos = pool.invoke(new TarefaBloco<>(lista, 0, lista.size(), limite, ordem, tamanhoBloco));
+
+        Heap<T> heap = new Heap<>(lista, limite, ordem);
+        for (int indice : candidatos) {
+            heap.oferecer(indice);
+        }
+        return heap.emOrdem();
+    }
+
+    private static void validar(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("A quantidade de itens não pode ser negativa: " + k);
+        }
+    }
+
+    private static <T> List<T> acessoAleatorio(List<T> itens) {
+        return itens instanceof RandomAccess ? itens : new ArrayList<>(itens);
+    }
+
+    private static class TarefaBloco<T> extends RecursiveTask<int[]> {
+        private final List<T> lista;
+        private final int inicio;
+        private final int fim;
+        private final int k;
+        private final Comparator<? super T> ordem;
+        private final int tamanhoBloco;
+
+        TarefaBloco(List<T> lista, int inicio, int fim, int k, Comparator<? super T> ordem, int tamanhoBloco) {
+            this.lista = lista;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.k = k;
+            this.ordem = ordem;
+            this.tamanhoBloco = tamanhoBloco;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (fim - inicio <= tamanhoBloco) {
+                Heap<T> heap = new Heap<>(lista, Math.min(k, fim - inicio), ordem);
+                for (int i = inicio; i < fim; i++) {
+                    heap.oferecer(i);
+                }
+                return heap.indices();
+            }
+            int meio = (inicio + fim) >>> 1;
+            TarefaBloco<T> esquerda = new TarefaBloco<>(lista, inicio, meio, k, ordem, tamanhoBloco);
+            esquerda.fork();
+            int[] direita = new TarefaBloco<>(lista, meio, fim, k, ordem, tamanhoBloco).compute();
+            int[] resultadoEsquerda = esquerda.join();
+
+            int[] juntos = Arrays.copyOf(resultadoEsquerda, resultadoEsquerda.length + direita.length);
+            System.arraycopy(direita, 0, juntos, resultadoEsquerda.length, direita.length);
+            if (juntos.length <= k) return juntos;
+
+            Heap<T> heap = new Heap<>(lista, k, ordem);
+            for (int indice : juntos) {
+                heap.oferecer(indice);
+            }
+            return heap.indices();
+        }
+    }
+
+    //Heap de mínimo sobre índices da lista: a raiz é o pior item entre os k guardados
+    private static class Heap<T> {
+        private final List<T> lista;
+        private final Comparator<? super T> ordem;
+        private final int[] indices;
+        private int tamanho;
+
+        Heap(List<T> lista, int capacidade, Comparator<? super T> ordem) {
+            this.lista = lista;
+            this.ordem = ordem;
+            this.indices = new int[capacidade];
+        }
+
+        void oferecer(int indice) {
+            if (indices.length == 0) return;
+            if (tamanho < indices.length) {
+                indices[tamanho] = indice;
+                subir(tamanho++);
+            } else if (pior(indices[0], indice)) {
+                indices[0] = indice;
+                descer(0);
+            }
+        }
+
+        //true se o item a fica depois do item b na ordem final
+        private boolean pior(int a, int b) {
+            int comparacao = ordem.compare(lista.get(a), lista.get(b));
+            if (comparacao != 0) return comparacao > 0;
+            return a > b;
+        }
+
+        private void subir(int posicao) {
+            while (posicao > 0) {
+                int pai = (posicao - 1) >>> 1;
+                if (!pior(indices[posicao], indices[pai])) break;
+                trocar(posicao, pai);
+                posicao = pai;
+            }
+        }
+
+        private void descer(int posicao) {
+            while (true) {
+                int esquerda = 2 * posicao + 1;
+                if (esquerda >= tamanho) break;
+                int filho = esquerda;
+                int direita = esquerda + 1;
+                if (direita < tamanho && pior(indices[direita], indices[esquerda])) filho = direita;
+                if (!pior(indices[filho], indices[posicao])) break;
+                trocar(posicao, filho);
+                posicao = filho;
+            }
+        }
+
+        private void trocar(int a, int b) {
+            int temp = indices[a];
+            indices[a] = indices[b];
+            indices[b] = temp;
+        }
+
+        int[] indices() {
+            return Arrays.copyOf(indices, tamanho);
+        }
+
+        //Esvazia o heap do pior para o melhor, preenchendo o resultado de trás para frente
+        List<T> emOrdem() {
+            Object[] resultado = new Object[tamanho];
+            while (tamanho > 0) {
+                resultado[tamanho - 1] = lista.get(indices[0]);
+                indices[0] = indices[--tamanho];
+                descer(0);
+            }
+            List<T> saida = new ArrayList<>(resultado.length);
+            for (Object item : resultado) {
+                @SuppressWarnings("unchecked")
+                T t = (T) item;
+                saida.add(t);
+            }
+            return saida;
+        }
+    }
+}
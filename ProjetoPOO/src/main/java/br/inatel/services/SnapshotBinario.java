@@ -0,0 +1,293 @@
+package br.inatel.services;
+
+import br.inatel.models.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+//Formato binário alternativo ao texto, lido e gravado por FileChannel com um buffer direto.
+//Layout (versão 1):
+//  int MAGICO, short versão
+//  int n, n x string          -> tabela de strings repetidas (gêneros, nomes e emails de usuários)
+//  int n, n x conteúdo:
+//    byte tipo, string título, int ref gênero, int ano, campos do tipo,
+//    int n, n x avaliação: int ref nome, int ref email, byte nota, string comentário
+//Strings são gravadas como int tamanho + bytes UTF-8; null (diretor, autor, comentário...) tem tamanho -1.
+public class SnapshotBinario {
+    private static final int MAGICO = 0x50504F4F; //"PPOO"
+    private static final short VERSAO = 1;
+    private static final int TAMANHO_BUFFER = 1 << 16;
+    private static final int NULO = -1; //tamanho gravado no lugar de uma string null
+
+    private static final byte TIPO_FILME = 1;
+    private static final byte TIPO_SERIE = 2;
+    private static final byte TIPO_LIVRO = 3;
+
+    private SnapshotBinario() {
+    }
+
+    public static void salvar(List<Conteudo> conteudos, Path path) throws IOException {
+        //Avaliações podem chegar durante a gravação: só entram as que já existiam nesta primeira passada
+        Map<String, Integer> tabela = new LinkedHashMap<>();
+        int[] quantidadeAvaliacoes = new int[conteudos.size()];
+        for (int i = 0; i < conteudos.size(); i++) {
+            Conteudo conteudo = conteudos.get(i);
+            referencia(tabela, conteudo.getGenero());
+            List<Avaliacao> avaliacoes = conteudo.getAvaliacoes();
+            quantidadeAvaliacoes[i] = avaliacoes.size();
+            for (Avaliacao avaliacao : avaliacoes.subList(0, quantidadeAvaliacoes[i])) {
+                referencia(tabela, avaliacao.getNomeAutor());
+                referencia(tabela, avaliacao.getEmailAutor());
+            }
+        }
+
+        //Grava num arquivo temporário e troca no final, um snapshot pela metade nunca substitui o anterior
+        Path absoluto = path.toAbsolutePath();
+        Files.createDirectories(absoluto.getParent());
+        Path temporario = absoluto.resolveSibling(absoluto.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Escritor escritor = new Escritor(canal);
+            escritor.inteiro(MAGICO);
+            escritor.curto(VERSAO);
+
+            escritor.inteiro(tabela.size());
+            for (String texto : tabela.keySet()) {
+                escritor.texto(texto);
+            }
+
+            escritor.inteiro(conteudos.size());
+            for (int i = 0; i < conteudos.size(); i++) {
+                escreverConteudo(escritor, conteudos.get(i), quantidadeAvaliacoes[i], tabela);
+            }
+            escritor.descarregar();
+        }
+        Files.move(temporario, absoluto, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static List<Conteudo> carregar(Path path, RegistroUsuarios usuarios) throws IOException {
+        if (!Files.exists(path)) {
+            throw new IOException("Arquivo de dados não encontrado.");
+        }
+        try (FileChannel canal = FileChannel.open(path, StandardOpenOption.READ)) {
+            Leitor leitor = new Leitor(canal);
+            if (leitor.inteiro() != MAGICO) {
+                throw new IOException("Arquivo não é um snapshot binário: " + path);
+            }
+            short versao = leitor.curto();
+            if (versao > VERSAO) {
+                throw new IOException("Versão de snapshot não suportada: " + versao);
+            }
+
+            String[] tabela = new String[leitor.inteiro()];
+            for (int i = 0; i < tabela.length; i++) {
+                tabela[i] = leitor.texto();
+            }
+
+            int quantidade = leitor.inteiro();
+            List<Conteudo> conteudos = new ArrayList<>(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                conteudos.add(lerConteudo(leitor, tabela, usuarios));
+            }
+            return conteudos;
+        }
+    }
+
+    //Conversões entre o formato texto e o binário
+    public static void converterTextoParaBinario(String caminhoTexto, String caminhoBinario) throws IOException {
+        Gerenciador gerenciador = new Gerenciador();
+        gerenciador.carregarConteudosDeTexto(caminhoTexto);
+        salvar(gerenciador.getConteudos(), Paths.get(caminhoBinario));
+    }
+
+    public static void converterBinarioParaTexto(String caminhoBinario, String caminhoTexto) throws IOException {
+        Gerenciador gerenciador = new Gerenciador();
+        gerenciador.carregarSnapshotBinario(caminhoBinario);
+        gerenciador.salvarConteudosComoTexto(caminhoTexto);
+    }
+
+    private static int referencia(Map<String, Integer> tabela, String texto) {
+        Integer indice = tabela.get(texto);
+        if (indice == null) {
+            indice = tabela.size();
+            tabela.put(texto, indice);
+        }
+        return indice;
+    }
+
+    private static void escreverConteudo(Escritor escritor, Conteudo conteudo, int quantidadeAvaliacoes,
+                                         Map<String, Integer> tabela) throws IOException {
+        switch (conteudo.getTipoConteudo()) {
+            case FILME -> {
+                Filme filme = (Filme) conteudo;
+                escritor.byteUnico(TIPO_FILME);
+                escreverComum(escritor, conteudo, tabela);
+                escritor.texto(filme.getDiretor());
+                escritor.inteiro(filme.getDuracao());
+            }
+            case SERIE -> {
+                Serie serie = (Serie) conteudo;
+                escritor.byteUnico(TIPO_SERIE);
+                escreverComum(escritor, conteudo, tabela);
+                escritor.inteiro(serie.getTemporadas());
+                escritor.inteiro(serie.getEpisodios());
+            }
+            case LIVRO -> {
+                Livro livro = (Livro) conteudo;
+                escritor.byteUnico(TIPO_LIVRO);
+                escreverComum(escritor, conteudo, tabela);
+                escritor.texto(livro.getAutor());
+                escritor.texto(livro.getEditora());
+            }
+        }
+
+        List<Avaliacao> avaliacoes = conteudo.getAvaliacoes().subList(0, quantidadeAvaliacoes);
+        escritor.inteiro(quantidadeAvaliacoes);
+        for (Avaliacao avaliacao : avaliacoes) {
+            escritor.inteiro(tabela.get(avaliacao.getNomeAutor()));
+            escritor.inteiro(tabela.get(avaliacao.getEmailAutor()));
+            escritor.byteUnico((byte) avaliacao.getNota());
+            escritor.texto(avaliacao.getComentario());
+        }
+    }
+
+    private static void escreverComum(Escritor escritor, Conteudo conteudo, Map<String, Integer> tabela) throws IOException {
+        escritor.texto(conteudo.getTitulo());
+        escritor.inteiro(tabela.get(conteudo.getGenero()));
+        escritor.inteiro(conteudo.getAnoLancamento());
+    }
+
+    private static Conteudo lerConteudo(Leitor leitor, String[] tabela, RegistroUsuarios usuarios) throws IOException {
+        byte tipo = leitor.byteUnico();
+        String titulo = leitor.texto();
+        String genero = tabela[leitor.inteiro()];
+        int ano = leitor.inteiro();
+
+        Conteudo conteudo = switch (tipo) {
+            case TIPO_FILME -> new Filme(titulo, genero, ano, leitor.texto(), leitor.inteiro());
+            case TIPO_SERIE -> new Serie(titulo, genero, ano, leitor.inteiro(), leitor.inteiro());
+            case TIPO_LIVRO -> new Livro(titulo, genero, ano, leitor.texto(), leitor.texto());
+            default -> throw new IOException("Tipo de registro desconhecido: " + tipo);
+        };
+
+        int avaliacoes = leitor.inteiro();
+        for (int i = 0; i < avaliacoes; i++) {
+            String nome = tabela[leitor.inteiro()];
+            String email = tabela[leitor.inteiro()];
+            int nota = leitor.byteUnico();
+            String comentario = leitor.texto();
+            conteudo.adicionarAvaliacao(new Avaliacao(usuarios.obter(nome, email), nome, email, nota, comentario));
+        }
+        return conteudo;
+    }
+
+    private static class Escritor {
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+
+        Escritor(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        void byteUnico(byte valor) throws IOException {
+            garantir(1);
+            buffer.put(valor);
+        }
+
+        void curto(short valor) throws IOException {
+            garantir(2);
+            buffer.putShort(valor);
+        }
+
+        void inteiro(int valor) throws IOException {
+            garantir(4);
+            buffer.putInt(valor);
+        }
+
+        void texto(String texto) throws IOException {
+            if (texto == null) {
+                inteiro(NULO);
+                return;
+            }
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            inteiro(bytes.length);
+            int escritos = 0;
+            while (escritos < bytes.length) {
+                garantir(1);
+                int parte = Math.min(buffer.remaining(), bytes.length - escritos);
+                buffer.put(bytes, escritos, parte);
+                escritos += parte;
+            }
+        }
+
+        private void garantir(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) descarregar();
+        }
+
+        void descarregar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    private static class Leitor {
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+
+        Leitor(FileChannel canal) {
+            this.canal = canal;
+            buffer.flip(); //começa vazio
+        }
+
+        byte byteUnico() throws IOException {
+            garantir(1);
+            return buffer.get();
+        }
+
+        short curto() throws IOException {
+            garantir(2);
+            return buffer.getShort();
+        }
+
+        int inteiro() throws IOException {
+            garantir(4);
+            return buffer.getInt();
+        }
+
+        String texto() throws IOException {
+            int tamanho = inteiro();
+            if (tamanho == NULO) return null;
+            if (tamanho < 0) {
+                throw new IOException("Tamanho de texto inválido: " + tamanho);
+            }
+            byte[] bytes = new byte[tamanho];
+            int lidos = 0;
+            while (lidos < tamanho) {
+                garantir(1);
+                int parte = Math.min(buffer.remaining(), tamanho - lidos);
+                buffer.get(bytes, lidos, parte);
+                lidos += parte;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void garantir(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) return;
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (canal.read(buffer) < 0) {
+                    throw new EOFException("Snapshot binário truncado.");
+                }
+            }
+            buffer.flip();
+        }
+    }
+}
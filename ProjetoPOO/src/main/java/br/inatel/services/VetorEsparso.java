@@ -0,0 +1,52 @@
+package br.inatel.services;
+
+import java.util.Arrays;
+
+//Vetor esparso com arrays primitivos: índices ordenados e seus valores, sem objetos por posição
+class VetorEsparso {
+    private int[] indices;
+    private float[] valores;
+    private int tamanho;
+
+    VetorEsparso() {
+        this.indices = new int[4];
+        this.valores = new float[4];
+    }
+
+    //Define o valor e retorna o anterior, ou NaN se a posição era nova
+    float definir(int indice, float valor) {
+        int posicao = Arrays.binarySearch(indices, 0, tamanho, indice);
+        if (posicao >= 0) {
+            float anterior = valores[posicao];
+            valores[posicao] = valor;
+            return anterior;
+        }
+        posicao = -posicao - 1;
+        if (tamanho == indices.length) {
+            indices = Arrays.copyOf(indices, tamanho * 2);
+            valores = Arrays.copyOf(valores, tamanho * 2);
+        }
+        System.arraycopy(indices, posicao, indices, posicao + 1, tamanho - posicao);
+        System.arraycopy(valores, posicao, valores, posicao + 1, tamanho - posicao);
+        indices[posicao] = indice;
+        valores[posicao] = valor;
+        tamanho++;
+        return Float.NaN;
+    }
+
+    boolean contem(int indice) {
+        return Arrays.binarySearch(indices, 0, tamanho, indice) >= 0;
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    int indice(int posicao) {
+        return indices[posicao];
+    }
+
+    float valor(int posicao) {
+        return valores[posicao];
+    }
+}
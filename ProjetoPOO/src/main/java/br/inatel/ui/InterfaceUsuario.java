@@ -27,7 +27,9 @@ public class InterfaceUsuario {
             System.out.println("4. Avaliar conteúdo");
             System.out.println("5. Pesquisar conteúdo");
             System.out.println("6. Deletar conteúdo");
-            System.out.println("7. Sair");
+            System.out.println("7. Recomendações para você");
+            System.out.println("8. Avaliações de um usuário");
+            System.out.println("9. Sair");
             System.out.print("Escolha uma opção: ");
 
             int opcao = scanner.nextInt();
@@ -41,7 +43,9 @@ public class InterfaceUsuario {
                     case 4 -> avaliarConteudo();
                     case 5 -> pesquisarConteudo();
                     case 6 -> deletarConteudo();
-                    case 7 -> {
+                    case 7 -> recomendarParaUsuario();
+                    case 8 -> listarAvaliacoesDoUsuario();
+                    case 9 -> {
                         System.out.println("Encerrando o programa...");
                         return;
                     }
@@ -147,22 +151,48 @@ public class InterfaceUsuario {
         }
     }
 
+    private void recomendarParaUsuario() {
+        System.out.print("Email do usuário: ");
+        String email = scanner.nextLine();
+        List<Conteudo> recomendados = gerenciador.recomendarParaUsuario(email, 5);
+        if (recomendados.isEmpty()) {
+            System.out.println("Sem recomendações: avalie alguns conteúdos primeiro.");
+        } else {
+            System.out.println("\n--- Recomendações para " + email + " ---");
+            for (Conteudo c : recomendados) {
+                System.out.println(c.getTitulo() + " (" + String.format("%.2f", c.getNotaMedia()) + ")");
+            }
+        }
+    }
+
+    private void listarAvaliacoesDoUsuario() {
+        System.out.print("Email do usuário: ");
+        String email = scanner.nextLine();
+        List<Avaliacao> avaliacoes = gerenciador.avaliacoesDoUsuario(email);
+        if (avaliacoes.isEmpty()) {
+            System.out.println("Nenhuma avaliação encontrada para " + email + ".");
+        } else {
+            System.out.println("\n--- Avaliações de " + email + " ---");
+            for (Avaliacao a : avaliacoes) {
+                System.out.println(a.getConteudo().getTitulo() + ": " + a.getNota() + " - " + a.getComentario());
+            }
+        }
+    }
+
     private void avaliarConteudo() {
         try {
             System.out.print("\nInforme o título do conteúdo: ");
             String titulo = scanner.nextLine();
 
-            //Pesquisando titulo na lista conteudos do gerenciador
-            Conteudo conteudo = gerenciador.getConteudos().stream()
-                    .filter(c -> c.getTitulo().equalsIgnoreCase(titulo))
-                    .findFirst()
+            //Pesquisando titulo no índice do gerenciador
+            Conteudo conteudo = gerenciador.buscarPorTitulo(titulo)
                     .orElseThrow(() -> new ConteudoNaoEncontradoException("Conteúdo não encontrado."));
 
             System.out.print("Nome do usuário: ");
             String nome = scanner.nextLine();
             System.out.print("Email do usuário: ");
             String email = scanner.nextLine();
-            Usuario usuario = new Usuario(nome, email); //Nova instancia de usuario com as informações
+            Usuario usuario = gerenciador.obterUsuario(nome, email); //Mesma instancia para o mesmo email
 
             System.out.print("Nota (1 a 5): ");
             int nota = scanner.nextInt();
@@ -175,7 +205,7 @@ public class InterfaceUsuario {
             String comentario = scanner.nextLine();
 
             //Adicionar avaliação no perfil do usuario
-            usuario.avaliar(conteudo, nota, comentario);
+            gerenciador.avaliar(conteudo, usuario, nome, email, nota, comentario);
             System.out.println("Avaliação registrada com sucesso!");
 
         }
@@ -0,0 +1,77 @@
+package br.inatel.api;
+
+import br.inatel.models.Filme;
+import br.inatel.services.Gerenciador;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServidorHttpTest {
+    private Gerenciador gerenciador;
+    private ServidorHttp servidor;
+    private HttpClient cliente;
+
+    @BeforeEach
+    void iniciar() throws IOException {
+        gerenciador = new Gerenciador();
+        gerenciador.adicionarConteudo(new Filme("Matrix", "Ação", 1999, "Wachowski", 136));
+        servidor = new ServidorHttp(gerenciador, 0);
+        servidor.iniciar();
+        cliente = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void parar() {
+        servidor.parar();
+    }
+
+    private HttpResponse<String> post(String caminho, String json) throws IOException, InterruptedException {
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + servidor.getPorta() + caminho))
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+        return cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void tituloComPontoEVirgulaDa400() throws Exception {
+        HttpResponse<String> resposta = post("/conteudos",
+                "{\"tipo\":\"Filme\",\"titulo\":\"A;B\",\"genero\":\"Drama\",\"anoLancamento\":2000,\"diretor\":\"X\",\"duracao\":90}");
+        assertEquals(400, resposta.statusCode());
+        assertTrue(gerenciador.buscarPorTitulo("A;B").isEmpty());
+    }
+
+    @Test
+    void comentarioComQuebraDeLinhaDa400SemRegistrarUsuario() throws Exception {
+        HttpResponse<String> resposta = post("/avaliacoes",
+                "{\"titulo\":\"Matrix\",\"nome\":\"Ana\",\"email\":\"ana@exemplo.com\",\"nota\":5,\"comentario\":\"duas\\nlinhas\"}");
+        assertEquals(400, resposta.statusCode());
+        assertEquals(0, gerenciador.getQuantidadeUsuarios());
+        assertEquals(0, gerenciador.buscarPorTitulo("Matrix").orElseThrow().getTotalAvaliacoes());
+    }
+
+    @Test
+    void avaliacaoGuardaONomeDigitado() throws Exception {
+        gerenciador.obterUsuario("Ana", "ana@exemplo.com");
+        HttpResponse<String> resposta = post("/avaliacoes",
+                "{\"titulo\":\"Matrix\",\"nome\":\"Ana Maria\",\"email\":\"ana@exemplo.com\",\"nota\":4,\"comentario\":\"x\"}");
+        assertEquals(201, resposta.statusCode());
+        assertEquals("Ana Maria", gerenciador.buscarPorTitulo("Matrix").orElseThrow()
+                .getAvaliacoes().get(0).getNomeAutor());
+    }
+
+    @Test
+    void avaliacaoValidaDa201() throws Exception {
+        HttpResponse<String> resposta = post("/avaliacoes",
+                "{\"titulo\":\"Matrix\",\"nome\":\"Ana\",\"email\":\"ana@exemplo.com\",\"nota\":5,\"comentario\":\"ótimo; recomendo\"}");
+        assertEquals(201, resposta.statusCode());
+        assertEquals("ótimo; recomendo", gerenciador.buscarPorTitulo("Matrix").orElseThrow()
+                .getAvaliacoes().get(0).getComentario());
+    }
+}
@@ -0,0 +1,81 @@
+package br.inatel.models;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//As colunas têm que aceitar e devolver o mesmo que a lista de objetos
+class AvaliacoesColunaresTest {
+    private final Usuario ana = new Usuario("Ana", "ana@exemplo.com");
+
+    @AfterEach
+    void voltarAoPadrao() {
+        Conteudo.setArmazenamentoColunar(false);
+    }
+
+    private List<Avaliacao> avaliacoes() {
+        return List.of(new Avaliacao(ana, 5, null),
+                new Avaliacao(ana, 4, ""),
+                new Avaliacao(ana, "Ana Maria", "ANA@exemplo.com", 3, "ação; com acento"),
+                new Avaliacao(ana, 1, null),
+                new Avaliacao(ana, 2, "fim"));
+    }
+
+    private static Filme filme(boolean colunar) {
+        Conteudo.setArmazenamentoColunar(colunar);
+        return new Filme("Filme", "Drama", 2000, "Diretor", 90);
+    }
+
+    private static void conferirIguais(List<Avaliacao> esperadas, List<Avaliacao> lidas) {
+        assertEquals(esperadas.size(), lidas.size());
+        for (int i = 0; i < esperadas.size(); i++) {
+            Avaliacao esperada = esperadas.get(i);
+            Avaliacao lida = lidas.get(i);
+            assertEquals(esperada.getNota(), lida.getNota(), "nota " + i);
+            assertEquals(esperada.getComentario(), lida.getComentario(), "comentário " + i);
+            assertEquals(esperada.getNomeAutor(), lida.getNomeAutor(), "nome " + i);
+            assertEquals(esperada.getEmailAutor(), lida.getEmailAutor(), "email " + i);
+            assertSame(esperada.getUsuario(), lida.getUsuario());
+        }
+    }
+
+    @Test
+    void umaPorVezIgualAObjetos() {
+        Filme objetos = filme(false);
+        Filme colunas = filme(true);
+        for (Avaliacao avaliacao : avaliacoes()) {
+            objetos.adicionarAvaliacao(avaliacao);
+        }
+        for (Avaliacao avaliacao : avaliacoes()) {
+            colunas.adicionarAvaliacao(avaliacao);
+        }
+        conferirIguais(objetos.getAvaliacoes(), colunas.getAvaliacoes());
+        assertNull(colunas.getAvaliacoes().get(0).getComentario());
+        assertEquals("", colunas.getAvaliacoes().get(1).getComentario());
+    }
+
+    @Test
+    void emLoteIgualAObjetos() {
+        Filme objetos = filme(false);
+        Filme colunas = filme(true);
+        objetos.adicionarAvaliacoes(avaliacoes());
+        colunas.adicionarAvaliacao(new Avaliacao(ana, 3, null)); //o lote começa depois de um null
+        colunas.adicionarAvaliacoes(avaliacoes());
+        conferirIguais(objetos.getAvaliacoes(), colunas.getAvaliacoes().subList(1, 6));
+        assertEquals(5 + 4 + 3 + 3 + 1 + 2, colunas.getSomaNotas());
+    }
+
+    @Test
+    void crescimentoMantemOsComentarios() {
+        Filme colunas = filme(true);
+        for (int i = 0; i < 1_000; i++) {
+            colunas.adicionarAvaliacao(new Avaliacao(ana, 1 + i % 5, i % 3 == 0 ? null : "comentário " + i));
+        }
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i % 3 == 0 ? null : "comentário " + i, colunas.getAvaliacoes().get(i).getComentario());
+        }
+    }
+}
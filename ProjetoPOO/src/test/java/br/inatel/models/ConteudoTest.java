@@ -0,0 +1,61 @@
+package br.inatel.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConteudoTest {
+
+    private static Filme filme() {
+        return new Filme("Filme", "Drama", 2000, "Diretor", 100);
+    }
+
+    @Test
+    void semAvaliacoesMediaZero() {
+        Filme filme = filme();
+        assertEquals(0.0, filme.getNotaMedia());
+        assertEquals(0, filme.getTotalAvaliacoes());
+        assertEquals(0, filme.getSomaNotas());
+    }
+
+    @Test
+    void contadoresAcompanhamAsAvaliacoes() {
+        Filme filme = filme();
+        Usuario usuario = new Usuario("Ana", "ana@exemplo.com");
+        for (int nota : new int[]{5, 4, 4, 1, 3}) {
+            filme.adicionarAvaliacao(new Avaliacao(usuario, nota, "c"));
+        }
+        assertEquals(5, filme.getTotalAvaliacoes());
+        assertEquals(17, filme.getSomaNotas());
+        assertEquals(17 / 5.0, filme.getNotaMedia(), 1e-9);
+        assertEquals(2, filme.getQuantidadePorNota(4));
+        assertEquals(0, filme.getQuantidadePorNota(2));
+        assertEquals(5, filme.getAvaliacoes().size());
+    }
+
+    @Test
+    void loteIgualAUmaPorVez() {
+        Usuario usuario = new Usuario("Ana", "ana@exemplo.com");
+        Filme umaPorVez = filme();
+        Filme emLote = filme();
+        int[] notas = {2, 2, 5, 3, 1, 4};
+        for (int nota : notas) {
+            umaPorVez.adicionarAvaliacao(new Avaliacao(usuario, nota, "c"));
+        }
+        emLote.adicionarAvaliacoes(List.of(new Avaliacao(usuario, 2, "c"), new Avaliacao(usuario, 2, "c"),
+                new Avaliacao(usuario, 5, "c"), new Avaliacao(usuario, 3, "c"), new Avaliacao(usuario, 1, "c"),
+                new Avaliacao(usuario, 4, "c")));
+        for (int nota = 1; nota <= 5; nota++) {
+            assertEquals(umaPorVez.getQuantidadePorNota(nota), emLote.getQuantidadePorNota(nota));
+        }
+        assertEquals(umaPorVez.getNotaMedia(), emLote.getNotaMedia());
+        assertEquals(umaPorVez.getSomaNotas(), emLote.getSomaNotas());
+    }
+
+    @Test
+    void notaForaDaFaixaRecusada() {
+        assertThrows(IllegalArgumentException.class, () -> filme().getQuantidadePorNota(6));
+    }
+}
@@ -0,0 +1,72 @@
+package br.inatel.services;
+
+import br.inatel.models.Avaliacao;
+import br.inatel.models.Conteudo;
+import br.inatel.models.Serie;
+import br.inatel.models.Usuario;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//As avaliações que ficam no arquivo têm que estar nas listas dos autores logo depois da carga
+class CargaSobDemandaTest {
+
+    @TempDir
+    Path pasta;
+
+    private Path arquivo() throws IOException {
+        Path arquivo = pasta.resolve("dados.txt");
+        Files.write(arquivo, List.of(
+                "Filme;Matrix;Ação;1999;Wachowski;136",
+                "Avaliacao;Ana;5;ana@exemplo.com;primeira",
+                "Avaliacao;Bruno;3;bruno@exemplo.com;b1",
+                "Serie;Dark;Suspense;2017;3;26",
+                "Avaliacao;Bruno;4;bruno@exemplo.com;b2",
+                "Avaliacao;Ana Maria;2;ANA@exemplo.com;segunda",
+                "Filme;Matrix;Ação;2003;Wachowski;138",
+                "Avaliacao;Ana;1;ana@exemplo.com;repetido"), StandardCharsets.UTF_8);
+        return arquivo;
+    }
+
+    private static List<String> comentarios(List<Avaliacao> avaliacoes) {
+        return avaliacoes.stream().map(Avaliacao::getComentario).toList();
+    }
+
+    @Test
+    void listasDosUsuariosCompletasDepoisDaCarga() throws IOException {
+        Gerenciador gerenciador = new Gerenciador();
+        gerenciador.carregarConteudosSobDemanda(arquivo().toString(), 1);
+
+        Usuario ana = gerenciador.obterUsuario("Ana", "ana@exemplo.com");
+        assertEquals(List.of("primeira", "segunda"), comentarios(ana.getAvaliacoes())); //sem consultar antes
+        assertEquals(List.of("Matrix", "Dark"),
+                ana.getAvaliacoes().stream().map(a -> a.getConteudo().getTitulo()).toList());
+        assertEquals("Ana Maria", ana.getAvaliacoes().get(1).getNomeAutor());
+        assertEquals(List.of("b1", "b2"), comentarios(gerenciador.avaliacoesDoUsuario("bruno@exemplo.com")));
+    }
+
+    @Test
+    void novasAvaliacoesERemocoesDepoisDaCarga() throws IOException {
+        Gerenciador gerenciador = new Gerenciador();
+        gerenciador.carregarConteudosSobDemanda(arquivo().toString(), 1);
+        Usuario ana = gerenciador.obterUsuario("Ana", "ana@exemplo.com");
+        Conteudo matrix = gerenciador.buscarPorTitulo("Matrix").orElseThrow();
+        gerenciador.avaliar(matrix, ana, 4, "nesta execução");
+        assertEquals(List.of("primeira", "segunda", "nesta execução"), comentarios(gerenciador.avaliacoesDoUsuario("ana@exemplo.com")));
+
+        assertTrue(gerenciador.removerConteudo("Dark"));
+        assertEquals(List.of("primeira", "nesta execução"), comentarios(ana.getAvaliacoes()));
+        assertEquals(List.of("b1"), comentarios(gerenciador.avaliacoesDoUsuario("bruno@exemplo.com")));
+
+        Conteudo dark = new Serie("Dark", "Suspense", 2017, 3, 26);
+        assertTrue(gerenciador.adicionarConteudo(dark)); //outra instância: as avaliações antigas não voltam
+        assertEquals(List.of("b1"), comentarios(gerenciador.avaliacoesDoUsuario("bruno@exemplo.com")));
+    }
+}
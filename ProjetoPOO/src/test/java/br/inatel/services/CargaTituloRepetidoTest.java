@@ -0,0 +1,80 @@
+package br.inatel.services;
+
+import br.inatel.models.Conteudo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//O segundo "Matrix" do arquivo é ignorado em todas as cargas, e a avaliação dele não fica com a Bia
+class CargaTituloRepetidoTest {
+
+    private static final String DADOS = """
+            Filme;Matrix;Ação;1999;Wachowski;136
+            Avaliacao;Ana;5;ana@exemplo.com;ótimo
+            Filme;Matrix;Drama;2001;Outro;90
+            Avaliacao;Bia;1;bia@exemplo.com;repetido
+            Serie;Dark;Drama;2017;3;26
+            Avaliacao;Ana;4;ana@exemplo.com;boa
+            """;
+
+    @TempDir
+    Path pasta;
+
+    private String arquivo() throws IOException {
+        Path path = pasta.resolve("dados.txt");
+        Files.writeString(path, DADOS, StandardCharsets.UTF_8);
+        return path.toString();
+    }
+
+    private static void conferir(Gerenciador gerenciador) {
+        assertEquals(2, gerenciador.getQuantidadeConteudos());
+        Conteudo matrix = gerenciador.buscarPorTitulo("Matrix").orElseThrow();
+        assertEquals("Ação", matrix.getGenero());
+        assertEquals(1, matrix.getTotalAvaliacoes());
+        assertEquals(5, matrix.getAvaliacoes().get(0).getNota());
+        assertEquals(2, gerenciador.avaliacoesDoUsuario("ana@exemplo.com").size());
+        assertTrue(gerenciador.obterUsuario("Bia", "bia@exemplo.com").getAvaliacoes().isEmpty());
+    }
+
+    @Test
+    void texto() throws IOException {
+        Gerenciador gerenciador = new Gerenciador();
+        gerenciador.carregarConteudosDeTexto(arquivo());
+        conferir(gerenciador);
+    }
+
+    @Test
+    void paralelo() throws IOException {
+        Gerenciador gerenciador = new Gerenciador();
+        gerenciador.carregarConteudosEmParalelo(arquivo(), 2);
+        conferir(gerenciador);
+    }
+
+    @Test
+    void sobDemanda() throws IOException {
+        Gerenciador gerenciador = new Gerenciador();
+        gerenciador.carregarConteudosSobDemanda(arquivo(), 100);
+        conferir(gerenciador);
+    }
+
+    @Test
+    void snapshotBinarioSobreCatalogoExistente() throws IOException {
+        Gerenciador origem = new Gerenciador();
+        origem.carregarConteudosDeTexto(arquivo());
+        String binario = pasta.resolve("dados.bin").toString();
+        origem.salvarSnapshotBinario(binario);
+
+        Gerenciador destino = new Gerenciador();
+        destino.carregarConteudosDeTexto(arquivo());
+        destino.carregarSnapshotBinario(binario); //os dois títulos já existem
+        assertEquals(2, destino.getQuantidadeConteudos());
+        assertEquals(1, destino.buscarPorTitulo("Matrix").orElseThrow().getTotalAvaliacoes());
+        assertEquals(2, destino.obterUsuario("Ana", "ana@exemplo.com").getAvaliacoes().size());
+    }
+}
@@ -0,0 +1,67 @@
+package br.inatel.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Arquivo com muitos blocos (e acentos em toda parte): a carga paralela tem que dar o mesmo catálogo da sequencial
+class CarregadorParaleloTest {
+
+    @TempDir
+    Path pasta;
+
+    private static String dados(String quebra) {
+        StringBuilder texto = new StringBuilder();
+        String[] tipos = {"Filme;Título %d;Ação;%d;Diretor São;%d", "Serie;Série %d;Comédia;%d;%d;10",
+                "Livro;Livro %d;Ficção;%d;Autor %d;Editora Ática"};
+        for (int i = 0; i < 600; i++) {
+            texto.append(String.format(tipos[i % 3], i, 1950 + i % 70, 80 + i % 60)).append(quebra);
+            for (int j = 0; j < i % 5; j++) {
+                texto.append("Avaliacao;Usuário ").append(j).append(';').append(1 + (i + j) % 5)
+                        .append(";u").append(j).append("@exemplo.com;comentário; com ponto e vírgula ")
+                        .append(i).append(quebra);
+            }
+        }
+        return texto.toString();
+    }
+
+    private String salvarCarga(String conteudoArquivo, boolean paralelo) throws IOException {
+        Path arquivo = pasta.resolve("dados.txt");
+        Files.writeString(arquivo, conteudoArquivo, StandardCharsets.UTF_8);
+        Gerenciador gerenciador = new Gerenciador();
+        if (paralelo) {
+            gerenciador.carregarConteudosEmParalelo(arquivo.toString(), 4);
+        } else {
+            gerenciador.carregarConteudosDeTexto(arquivo.toString());
+        }
+        assertEquals(600, gerenciador.getQuantidadeConteudos());
+        Path saida = pasta.resolve(paralelo ? "paralelo.txt" : "sequencial.txt");
+        gerenciador.salvarConteudosComoTexto(saida.toString());
+        return Files.readString(saida, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void mesmoResultadoDaCargaSequencial() throws IOException {
+        String dados = dados("\n");
+        assertTrue(dados.getBytes(StandardCharsets.UTF_8).length > 16 * 4096, "o arquivo precisa de vários blocos");
+        assertEquals(salvarCarga(dados, false), salvarCarga(dados, true));
+    }
+
+    @Test
+    void quebrasDeLinhaWindows() throws IOException {
+        assertEquals(salvarCarga(dados("\n"), false), salvarCarga(dados("\r\n"), true));
+    }
+
+    @Test
+    void ultimaLinhaSemQuebra() throws IOException {
+        String dados = dados("\n");
+        String semQuebraFinal = dados.substring(0, dados.length() - 1);
+        assertEquals(salvarCarga(dados, false), salvarCarga(semQuebraFinal, true));
+    }
+}
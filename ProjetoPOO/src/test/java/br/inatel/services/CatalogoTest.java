@@ -0,0 +1,81 @@
+package br.inatel.services;
+
+import br.inatel.models.Conteudo;
+import br.inatel.models.Filme;
+import br.inatel.models.Serie;
+import br.inatel.models.TipoConteudo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogoTest {
+
+    private static Conteudo conteudo(String titulo, int i) {
+        return i % 3 == 0 ? new Serie(titulo, "Gênero " + i % 4, 1990 + i % 30, 1 + i % 5, 10)
+                : new Filme(titulo, "Gênero " + i % 4, 1990 + i % 30, "Diretor", 80 + i % 60);
+    }
+
+    //Sair e entrar de novo muitas vezes não pode deixar os ids (e o que é percorrido por eles) crescerem sem limite
+    @Test
+    void idsNaoCrescemComRemocoesERecolocacoes() {
+        Catalogo catalogo = new Catalogo();
+        List<String> esperados = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(catalogo.adicionar(conteudo("Título " + i, i)));
+            esperados.add("Título " + i);
+        }
+        for (int ciclo = 0; ciclo < 20_000; ciclo++) {
+            int i = (ciclo * 37) % 100;
+            String titulo = "Título " + i;
+            assertNotNull(catalogo.remover(titulo));
+            assertTrue(catalogo.adicionar(conteudo(titulo, i))); //volta com um id novo, no fim da ordem
+            esperados.remove(titulo);
+            esperados.add(titulo);
+        }
+
+        assertEquals(100, catalogo.tamanho());
+        List<String> ordem = new ArrayList<>();
+        for (Conteudo conteudo : catalogo.listar()) {
+            ordem.add(conteudo.getTitulo());
+            assertTrue(conteudo.getId() < 100 + 64 + 1, "id " + conteudo.getId());
+            assertSame(conteudo, catalogo.buscarPorId(conteudo.getId()));
+            assertTrue(catalogo.contem(conteudo));
+        }
+        assertEquals(esperados, ordem); //a compactação mantém a ordem de inserção
+    }
+
+    @Test
+    void indicesContinuamCoerentesDepoisDaCompactacao() {
+        Catalogo catalogo = new Catalogo();
+        for (int i = 0; i < 1_000; i++) {
+            catalogo.adicionar(conteudo("Título " + i, i));
+        }
+        catalogo.filtrar(new FiltroConteudos()); //índice de filtros montado antes da compactação
+        Conteudo removidoAntes = catalogo.buscarPorTitulo("Título 0").orElseThrow();
+        for (int i = 0; i < 1_000; i += 2) {
+            catalogo.remover("Título " + i);
+        }
+        assertFalse(catalogo.contem(removidoAntes));
+
+        assertEquals(500, catalogo.tamanho());
+        assertEquals(500, catalogo.filtrar(new FiltroConteudos()).total());
+        int filmes = 0, series = 0, generoUm = 0;
+        for (int i = 1; i < 1_000; i += 2) {
+            if (i % 3 == 0) series++;
+            else filmes++;
+            if (i % 4 == 1) generoUm++;
+            assertTrue(catalogo.contem("título " + i));
+        }
+        assertEquals(filmes, catalogo.listarPorTipo(TipoConteudo.FILME).size());
+        assertEquals(series, catalogo.listarPorTipo(TipoConteudo.SERIE).size());
+        assertEquals(generoUm, catalogo.listarPorGenero("gênero 1").size());
+        assertEquals(series, catalogo.filtrar(new FiltroConteudos().tipo(TipoConteudo.SERIE)).total());
+        assertEquals(List.of("Título 1", "Título 3"),
+                catalogo.pesquisarPorTitulo("título", 0, 2).stream().map(Conteudo::getTitulo).toList());
+        assertEquals(List.of("Título 999"),
+                catalogo.pesquisarPorTitulo("tulo 999", 0, 10).stream().map(Conteudo::getTitulo).toList());
+    }
+}
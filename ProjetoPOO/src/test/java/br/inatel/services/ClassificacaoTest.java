@@ -0,0 +1,69 @@
+package br.inatel.services;
+
+import br.inatel.models.Conteudo;
+import br.inatel.models.Filme;
+import br.inatel.models.Usuario;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassificacaoTest {
+
+    private static Gerenciador catalogo(int quantidade) {
+        Gerenciador gerenciador = new Gerenciador();
+        gerenciador.setCacheConsultasAtivo(false);
+        for (int i = 0; i < quantidade; i++) {
+            gerenciador.adicionarConteudo(new Filme("Filme " + i, "Gênero " + i % 4, 2000, "Diretor", 90));
+        }
+        return gerenciador;
+    }
+
+    private static void conferirOrdemPorMedia(List<Conteudo> ordem) {
+        for (int i = 1; i < ordem.size(); i++) {
+            assertTrue(ordem.get(i - 1).getNotaMedia() >= ordem.get(i).getNotaMedia(),
+                    ordem.get(i - 1).getTitulo() + " antes de " + ordem.get(i).getTitulo());
+        }
+    }
+
+    @Test
+    void acompanhaAsAvaliacoes() {
+        Gerenciador gerenciador = catalogo(50);
+        Usuario usuario = gerenciador.obterUsuario("Ana", "ana@exemplo.com");
+        List<Conteudo> conteudos = gerenciador.getConteudos();
+        gerenciador.recomendarTop(5, Rankings.MEDIA); //classificação montada antes das avaliações
+        for (int i = 0; i < 500; i++) {
+            gerenciador.avaliar(conteudos.get(i % 50), usuario, 1 + (i * 7) % 5, "c");
+        }
+        List<Conteudo> ordem = gerenciador.recomendarTop(50, Rankings.MEDIA);
+        assertEquals(50, ordem.size());
+        conferirOrdemPorMedia(ordem);
+    }
+
+    //As avaliações que chegam enquanto a classificação é montada também contam
+    @Test
+    void avaliacoesDuranteAMontagemNaoSePerdem() throws InterruptedException {
+        for (int rodada = 0; rodada < 10; rodada++) {
+            Gerenciador gerenciador = catalogo(2_000);
+            Usuario usuario = gerenciador.obterUsuario("Ana", "ana@exemplo.com");
+            List<Conteudo> conteudos = gerenciador.getConteudos();
+            AtomicBoolean parar = new AtomicBoolean();
+            Thread avaliadora = new Thread(() -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                while (!parar.get()) {
+                    gerenciador.avaliar(conteudos.get(aleatorio.nextInt(conteudos.size())), usuario,
+                            1 + aleatorio.nextInt(5), "c");
+                }
+            });
+            avaliadora.start();
+            Thread.sleep(5);
+            gerenciador.recomendarTop(1, Rankings.MEDIA); //monta a classificação com a avaliadora rodando
+            parar.set(true);
+            avaliadora.join();
+            conferirOrdemPorMedia(gerenciador.recomendarTop(conteudos.size(), Rankings.MEDIA));
+        }
+    }
+}
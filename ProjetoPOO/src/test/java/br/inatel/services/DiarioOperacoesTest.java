@@ -0,0 +1,98 @@
+package br.inatel.services;
+
+import br.inatel.models.Conteudo;
+import br.inatel.models.Filme;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiarioOperacoesTest {
+
+    @TempDir
+    Path pasta;
+
+    private Path gravar(String... dados) throws IOException {
+        Path path = pasta.resolve("diario.log");
+        try (DiarioOperacoes diario = DiarioOperacoes.abrir(path)) {
+            for (int i = 0; i < dados.length; i++) {
+                diario.registrar(i + 1, DiarioOperacoes.AVALIAR, dados[i]);
+            }
+            diario.sincronizar();
+        }
+        return path;
+    }
+
+    private static List<String> reproduzir(Path path, long aPartirDe) throws IOException {
+        List<String> aplicados = new ArrayList<>();
+        DiarioOperacoes.reproduzir(path, aPartirDe, (operacao, dados) -> aplicados.add(dados));
+        return aplicados;
+    }
+
+    @Test
+    void quebrasDeLinhaEBarrasVoltamIguais() throws IOException {
+        Path path = gravar("simples", "duas\nlinhas", "com\r\nwindows", "barra \\n literal");
+        assertEquals(List.of("simples", "duas\nlinhas", "com\r\nwindows", "barra \\n literal"), reproduzir(path, 0));
+    }
+
+    @Test
+    void linhaCorrompidaNoMeioNaoDescartaAsSeguintes() throws IOException {
+        Path path = gravar("primeira", "segunda", "terceira");
+        String texto = Files.readString(path, StandardCharsets.UTF_8);
+        Files.writeString(path, texto.replace("segunda", "segundX"), StandardCharsets.UTF_8);
+        long tamanho = Files.size(path);
+
+        assertEquals(List.of("primeira", "terceira"), reproduzir(path, 0));
+        assertEquals(tamanho, Files.size(path)); //só um final incompleto é cortado
+    }
+
+    @Test
+    void finalIncompletoTruncado() throws IOException {
+        Path path = gravar("primeira", "segunda");
+        long tamanho = Files.size(path);
+        Files.writeString(path, "abc;3;AVALIAR;pela met", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        assertEquals(List.of("primeira", "segunda"), reproduzir(path, 0));
+        assertEquals(tamanho, Files.size(path));
+    }
+
+    @Test
+    void pulaOQueOSnapshotJaTem() throws IOException {
+        Path path = gravar("um", "dois", "tres");
+        List<String> aplicados = new ArrayList<>();
+        long ultima = DiarioOperacoes.reproduzir(path, 2, (operacao, dados) -> aplicados.add(dados));
+        assertEquals(List.of("tres"), aplicados);
+        assertEquals(3, ultima);
+    }
+
+    @Test
+    void gerenciadorReaplicaODiarioAoReabrir() throws IOException {
+        String diario = pasta.resolve("ops.log").toString();
+        String snapshot = pasta.resolve("snapshot.txt").toString();
+
+        Gerenciador antes = new Gerenciador();
+        antes.abrirDiario(diario, snapshot, 3600, Long.MAX_VALUE);
+        antes.adicionarConteudo(new Filme("Matrix", "Ação", 1999, "Wachowski", 136));
+        antes.adicionarConteudo(new Filme("Fica", "Drama", 2000, "Alguém", 90));
+        Conteudo matrix = antes.buscarPorTitulo("Matrix").orElseThrow();
+        antes.avaliar(matrix, antes.obterUsuario("Ana", "ana@exemplo.com"), 5, "comentário; com ponto e vírgula");
+        antes.removerConteudo("Fica");
+        antes.fecharDiario();
+
+        Gerenciador depois = new Gerenciador();
+        depois.abrirDiario(diario, snapshot, 3600, Long.MAX_VALUE);
+        assertEquals(1, depois.getQuantidadeConteudos());
+        Conteudo recuperado = depois.buscarPorTitulo("Matrix").orElseThrow();
+        assertEquals(1, recuperado.getTotalAvaliacoes());
+        assertEquals("comentário; com ponto e vírgula", recuperado.getAvaliacoes().get(0).getComentario());
+        depois.fecharDiario();
+    }
+}
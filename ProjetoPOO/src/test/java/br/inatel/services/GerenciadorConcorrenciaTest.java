@@ -0,0 +1,120 @@
+package br.inatel.services;
+
+import br.inatel.exceptions.ConteudoNaoEncontradoException;
+import br.inatel.models.Avaliacao;
+import br.inatel.models.Conteudo;
+import br.inatel.models.Filme;
+import br.inatel.models.Usuario;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Versão limitada de br.inatel.benchmark.EstresseConcorrencia (que roda por tempo, fora do mvn test):
+//threads misturando consultas, avaliações, entradas e saídas por um número fixo de operações
+class GerenciadorConcorrenciaTest {
+    private static final int THREADS = 4;
+    private static final int OPERACOES_POR_THREAD = 3_000;
+    private static final int CONTEUDOS = 500;
+
+    @Test
+    void contadoresBatemComAsListasDepoisDaDisputa() throws InterruptedException {
+        Gerenciador gerenciador = new Gerenciador();
+        for (int i = 0; i < CONTEUDOS; i++) {
+            Filme filme = new Filme("Filme " + i, "Gênero " + i % 10, 1950 + i % 70, "Diretor", 90);
+            filme.adicionarAvaliacao(new Avaliacao(gerenciador.obterUsuario("Usuário " + i % 50,
+                    "usuario" + i % 50 + "@exemplo.com"), 1 + i % 5, "inicial"));
+            gerenciador.adicionarConteudo(filme);
+        }
+        List<Conteudo> iniciais = gerenciador.getConteudos();
+        long avaliacoesIniciais = gerenciador.getTotalAvaliacoes();
+
+        ConcurrentLinkedQueue<Throwable> falhas = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<String> criados = new ConcurrentLinkedQueue<>();
+        AtomicLong avaliacoesFeitas = new AtomicLong();
+        AtomicInteger proximoTitulo = new AtomicInteger();
+
+        Thread[] trabalhadoras = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int numero = t;
+            trabalhadoras[t] = new Thread(() -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                Usuario usuario = gerenciador.obterUsuario("Estresse " + numero, "estresse" + numero + "@exemplo.com");
+                for (int op = 0; op < OPERACOES_POR_THREAD; op++) {
+                    try {
+                        switch (aleatorio.nextInt(8)) {
+                            case 0 -> gerenciador.recomendarTop(10);
+                            case 1 -> gerenciador.recomendarPorGenero("Gênero " + aleatorio.nextInt(10), Rankings.MEDIA, 0, 20);
+                            case 2 -> gerenciador.pesquisarPorTitulo("Filme " + aleatorio.nextInt(CONTEUDOS), 0, 20);
+                            case 3 -> gerenciador.avaliacoesDoUsuario(usuario.getEmail());
+                            case 4 -> {
+                                String titulo = "Estresse " + proximoTitulo.getAndIncrement();
+                                if (gerenciador.adicionarConteudo(new Filme(titulo, "Gênero 0", 2000, "Diretor", 90))) {
+                                    criados.add(titulo);
+                                }
+                            }
+                            case 5 -> {
+                                String titulo = criados.poll();
+                                if (titulo != null) gerenciador.removerConteudo(titulo);
+                            }
+                            case 6 -> {
+                                String titulo = criados.peek();
+                                Conteudo criado = titulo == null ? null : gerenciador.buscarPorTitulo(titulo).orElse(null);
+                                if (criado != null) {
+                                    try {
+                                        gerenciador.avaliar(criado, usuario, 1 + aleatorio.nextInt(5), "estresse");
+                                    } catch (ConteudoNaoEncontradoException e) {
+                                        //removido entre a busca e a avaliação
+                                    }
+                                }
+                            }
+                            default -> {
+                                Conteudo conteudo = iniciais.get(aleatorio.nextInt(iniciais.size()));
+                                gerenciador.avaliar(conteudo, usuario, 1 + aleatorio.nextInt(5), "estresse");
+                                avaliacoesFeitas.incrementAndGet();
+                            }
+                        }
+                    } catch (Throwable e) {
+                        falhas.add(e);
+                    }
+                }
+            }, "estresse-" + t);
+            trabalhadoras[t].start();
+        }
+        for (Thread trabalhadora : trabalhadoras) {
+            trabalhadora.join();
+        }
+
+        assertTrue(falhas.isEmpty(), () -> "Falhas: " + falhas);
+        for (Conteudo conteudo : gerenciador.getConteudos()) {
+            List<Avaliacao> avaliacoes = conteudo.getAvaliacoes();
+            int[] porNota = new int[5];
+            long soma = 0;
+            for (Avaliacao avaliacao : avaliacoes) {
+                porNota[avaliacao.getNota() - 1]++;
+                soma += avaliacao.getNota();
+            }
+            for (int nota = 1; nota <= 5; nota++) {
+                assertEquals(porNota[nota - 1], conteudo.getQuantidadePorNota(nota), conteudo.getTitulo());
+            }
+            assertEquals(avaliacoes.size(), conteudo.getTotalAvaliacoes(), conteudo.getTitulo());
+            assertEquals(soma, conteudo.getSomaNotas(), conteudo.getTitulo());
+        }
+        for (int t = 0; t < THREADS; t++) {
+            for (Avaliacao avaliacao : gerenciador.obterUsuario("Estresse " + t, "estresse" + t + "@exemplo.com").getAvaliacoes()) {
+                assertFalse(avaliacao.getConteudo().isRemovido(), "avaliação viva de " + avaliacao.getConteudo().getTitulo());
+            }
+        }
+
+        long total = gerenciador.getTotalAvaliacoes();
+        for (String titulo : criados) { //os criados que ficaram no catálogo não entram na conta
+            total -= gerenciador.buscarPorTitulo(titulo).map(Conteudo::getTotalAvaliacoes).orElse(0);
+        }
+        assertEquals(avaliacoesIniciais + avaliacoesFeitas.get(), total);
+    }
+}
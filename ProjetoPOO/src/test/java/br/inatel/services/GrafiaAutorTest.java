@@ -0,0 +1,53 @@
+package br.inatel.services;
+
+import br.inatel.models.Avaliacao;
+import br.inatel.models.Conteudo;
+import br.inatel.models.Filme;
+import br.inatel.models.Usuario;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//O registro junta os usuários por email, mas cada avaliação volta para o arquivo com o nome e o email digitados
+class GrafiaAutorTest {
+
+    @TempDir
+    Path pasta;
+
+    @Test
+    void avaliacaoGuardaONomeDigitadoMesmoComUsuarioJaRegistrado() throws IOException {
+        Gerenciador gerenciador = new Gerenciador();
+        gerenciador.adicionarConteudo(new Filme("Matrix", "Ação", 1999, "Wachowski", 136));
+        Conteudo matrix = gerenciador.buscarPorTitulo("Matrix").orElseThrow();
+        Usuario primeiro = gerenciador.obterUsuario("Ana", "ana@exemplo.com");
+        gerenciador.avaliar(matrix, primeiro, 5, "primeira");
+
+        Usuario mesmo = gerenciador.obterUsuario("Ana Maria", "ANA@exemplo.com");
+        assertSame(primeiro, mesmo);
+        gerenciador.avaliar(matrix, mesmo, "Ana Maria", "ANA@exemplo.com", 4, "segunda");
+
+        Avaliacao segunda = matrix.getAvaliacoes().get(1);
+        assertEquals("Ana Maria", segunda.getNomeAutor());
+        assertEquals("ANA@exemplo.com", segunda.getEmailAutor());
+
+        Path arquivo = pasta.resolve("dados.txt");
+        gerenciador.salvarConteudosComoTexto(arquivo.toString());
+        assertEquals(List.of(
+                "Filme;Matrix;Ação;1999;Wachowski;136",
+                "Avaliacao;Ana;5;ana@exemplo.com;primeira",
+                "Avaliacao;Ana Maria;4;ANA@exemplo.com;segunda"), Files.readAllLines(arquivo, StandardCharsets.UTF_8));
+
+        Gerenciador recarregado = new Gerenciador();
+        recarregado.carregarConteudosDeTexto(arquivo.toString());
+        Path denovo = pasta.resolve("denovo.txt");
+        recarregado.salvarConteudosComoTexto(denovo.toString());
+        assertEquals(Files.readString(arquivo, StandardCharsets.UTF_8), Files.readString(denovo, StandardCharsets.UTF_8));
+    }
+}
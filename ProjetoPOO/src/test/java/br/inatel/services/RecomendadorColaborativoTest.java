@@ -0,0 +1,68 @@
+package br.inatel.services;
+
+import br.inatel.models.Conteudo;
+import br.inatel.models.Filme;
+import br.inatel.models.Usuario;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecomendadorColaborativoTest {
+    private static final int USUARIOS = 30;
+
+    private static int nota(int usuario, int item) {
+        return 1 + (usuario * 7 + item * 3 + usuario * item) % 5;
+    }
+
+    //Avalia os conteúdos [inicio, fim) e deixa de fora o último de cada usuário, para haver o que recomendar
+    private static void avaliar(Gerenciador gerenciador, int inicio, int fim) {
+        for (int u = 0; u < USUARIOS; u++) {
+            Usuario usuario = gerenciador.obterUsuario("U" + u, "u" + u + "@exemplo.com");
+            for (int i = inicio; i < fim; i++) {
+                if ((i + u) % 10 == 0) continue;
+                gerenciador.avaliar(gerenciador.buscarPorTitulo("Filme " + i).orElseThrow(), usuario, nota(u, i), "c");
+            }
+        }
+    }
+
+    private static Set<String> titulos(List<Conteudo> conteudos) {
+        return conteudos.stream().map(Conteudo::getTitulo).collect(Collectors.toSet());
+    }
+
+    //Depois de remover conteúdos o bastante para compactar, recomenda o mesmo que um recomendador montado do zero
+    @Test
+    void compactacaoNaoMudaAsRecomendacoes() {
+        Gerenciador gerenciador = new Gerenciador();
+        for (int i = 0; i < 130; i++) {
+            gerenciador.adicionarConteudo(new Filme("Filme " + i, "Drama", 2000, "Diretor", 90));
+        }
+        gerenciador.recomendarParaUsuario("u0@exemplo.com", 1); //ativa o recomendador
+        avaliar(gerenciador, 0, 130);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(gerenciador.removerConteudo("Filme " + i));
+        }
+
+        Gerenciador novo = new Gerenciador();
+        for (int i = 100; i < 130; i++) {
+            novo.adicionarConteudo(new Filme("Filme " + i, "Drama", 2000, "Diretor", 90));
+        }
+        avaliar(novo, 100, 130);
+
+        Set<String> algum = new HashSet<>();
+        for (int u = 0; u < USUARIOS; u++) {
+            String email = "u" + u + "@exemplo.com";
+            List<Conteudo> recomendados = gerenciador.recomendarParaUsuario(email, 100);
+            for (Conteudo conteudo : recomendados) {
+                assertTrue(gerenciador.contemConteudo(conteudo.getTitulo()), conteudo.getTitulo());
+            }
+            assertEquals(titulos(novo.recomendarParaUsuario(email, 100)), titulos(recomendados), email);
+            algum.addAll(titulos(recomendados));
+        }
+        assertFalse(algum.isEmpty());
+    }
+}
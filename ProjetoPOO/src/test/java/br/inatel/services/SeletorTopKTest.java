@@ -0,0 +1,61 @@
+package br.inatel.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeletorTopKTest {
+
+    //Só a dezena conta na ordem, então há muitos empates: eles ficam na ordem da lista
+    private static final Comparator<Integer> POR_DEZENA = Comparator.comparingInt(n -> -(n / 10));
+
+    private static List<Integer> aleatorios(int quantidade) {
+        Random aleatorio = new Random(7);
+        List<Integer> itens = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            itens.add(aleatorio.nextInt(1000));
+        }
+        return itens;
+    }
+
+    private static List<Integer> esperado(List<Integer> itens, int k) {
+        return itens.stream().sorted(POR_DEZENA).limit(k).toList();
+    }
+
+    @Test
+    void sequencialIgualAOrdenacaoEstavel() {
+        List<Integer> itens = aleatorios(5_000);
+        for (int k : new int[]{0, 1, 7, 100, 5_000, 6_000}) {
+            assertEquals(esperado(itens, k), SeletorTopK.selecionarSequencial(itens, k, POR_DEZENA), "k=" + k);
+        }
+    }
+
+    @Test
+    void paraleloIgualAoSequencial() {
+        List<Integer> itens = aleatorios(120_000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int k : new int[]{1, 10, 1_000}) {
+                assertEquals(esperado(itens, k), SeletorTopK.selecionarEmParalelo(itens, k, POR_DEZENA, pool), "k=" + k);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void listaVazia() {
+        assertTrue(SeletorTopK.selecionar(List.<Integer>of(), 5, POR_DEZENA).isEmpty());
+    }
+
+    @Test
+    void quantidadeNegativaRecusada() {
+        assertThrows(IllegalArgumentException.class, () -> SeletorTopK.selecionar(List.of(1, 2), -1, POR_DEZENA));
+    }
+}
@@ -0,0 +1,71 @@
+package br.inatel.services;
+
+import br.inatel.models.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotBinarioTest {
+
+    @TempDir
+    Path pasta;
+
+    @Test
+    void camposNulosVoltamNulos() throws IOException {
+        Gerenciador origem = new Gerenciador();
+        Filme filme = new Filme("Sem diretor", "Drama", 2001, null, 95);
+        filme.adicionarAvaliacao(new Avaliacao(origem.obterUsuario("Ana", "ana@exemplo.com"), 4, null));
+        origem.adicionarConteudo(filme);
+        origem.adicionarConteudo(new Livro("Sem autor", "Ficção", 1990, null, null));
+        String binario = pasta.resolve("nulos.bin").toString();
+        origem.salvarSnapshotBinario(binario);
+
+        Gerenciador destino = new Gerenciador();
+        destino.carregarSnapshotBinario(binario);
+        Filme lido = (Filme) destino.buscarPorTitulo("Sem diretor").orElseThrow();
+        assertNull(lido.getDiretor());
+        assertEquals(95, lido.getDuracao());
+        assertNull(lido.getAvaliacoes().get(0).getComentario());
+        Livro livro = (Livro) destino.buscarPorTitulo("Sem autor").orElseThrow();
+        assertNull(livro.getAutor());
+        assertNull(livro.getEditora());
+    }
+
+    @Test
+    void textoBinarioTextoIgual() throws IOException {
+        Path texto = pasta.resolve("dados.txt");
+        Files.writeString(texto, """
+                Filme;Ação à noite;Ação;1999;Zé Ninguém;136
+                Avaliacao;Ana;5;ana@exemplo.com;ótimo; com ponto e vírgula
+                Avaliacao;Ana Maria;3;ANA@exemplo.com;mesmo email, outro nome
+                Serie;Dark;Suspense;2017;3;26
+                Livro;Dom Casmurro;Romance;1899;Machado de Assis;Garnier
+                Avaliacao;Bia;1;bia@exemplo.com;
+                """, StandardCharsets.UTF_8);
+        Gerenciador doTexto = new Gerenciador();
+        doTexto.carregarConteudosDeTexto(texto.toString());
+        Path primeiraSalva = pasta.resolve("primeira.txt");
+        doTexto.salvarConteudosComoTexto(primeiraSalva.toString());
+
+        Path binario = pasta.resolve("dados.bin");
+        SnapshotBinario.converterTextoParaBinario(texto.toString(), binario.toString());
+        Path segundaSalva = pasta.resolve("segunda.txt");
+        SnapshotBinario.converterBinarioParaTexto(binario.toString(), segundaSalva.toString());
+
+        assertEquals(Files.readString(texto, StandardCharsets.UTF_8), Files.readString(primeiraSalva, StandardCharsets.UTF_8));
+        assertEquals(Files.readString(primeiraSalva, StandardCharsets.UTF_8), Files.readString(segundaSalva, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void arquivoQueNaoESnapshotRecusado() throws IOException {
+        Path qualquer = pasta.resolve("qualquer.bin");
+        Files.writeString(qualquer, "Filme;X;Y;2000;Z;90\n");
+        assertThrows(IOException.class, () -> SnapshotBinario.carregar(qualquer, new RegistroUsuarios()));
+    }
+}
@@ -0,0 +1,71 @@
+package br.inatel.services;
+
+import br.inatel.models.Conteudo;
+import br.inatel.models.Filme;
+import br.inatel.models.Livro;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//O que entra pelo Gerenciador tem que voltar igual do snapshot de texto que substitui o diário
+class ValidacaoCamposTest {
+
+    @TempDir
+    Path pasta;
+
+    @Test
+    void pontoEVirgulaEQuebraDeLinhaRecusadosNosCamposDoConteudo() {
+        Gerenciador gerenciador = new Gerenciador();
+        assertThrows(IllegalArgumentException.class,
+                () -> gerenciador.adicionarConteudo(new Filme("A;B", "Drama", 2000, "Diretor", 90)));
+        assertThrows(IllegalArgumentException.class,
+                () -> gerenciador.adicionarConteudo(new Filme("A", "Dra\nma", 2000, "Diretor", 90)));
+        assertThrows(IllegalArgumentException.class,
+                () -> gerenciador.adicionarConteudo(new Livro("A", "Drama", 2000, "Autor", "Edi\rtora")));
+        assertEquals(0, gerenciador.getQuantidadeConteudos());
+    }
+
+    @Test
+    void comentarioSoNaoPodeTerQuebraDeLinha() {
+        Gerenciador gerenciador = new Gerenciador();
+        gerenciador.adicionarConteudo(new Filme("Matrix", "Ação", 1999, "Wachowski", 136));
+        Conteudo matrix = gerenciador.buscarPorTitulo("Matrix").orElseThrow();
+        assertThrows(IllegalArgumentException.class, () -> gerenciador.avaliar(matrix,
+                gerenciador.obterUsuario("Ana", "ana@exemplo.com"), 5, "duas\nlinhas"));
+        assertThrows(IllegalArgumentException.class, () -> gerenciador.avaliar(matrix,
+                gerenciador.obterUsuario("Bia;Ana", "bia@exemplo.com"), 5, "ok"));
+        assertEquals(0, matrix.getTotalAvaliacoes());
+    }
+
+    @Test
+    void aceitosVoltamIguaisDepoisDaCompactacaoDoDiario() throws IOException {
+        String diario = pasta.resolve("ops.log").toString();
+        String snapshot = pasta.resolve("dados.txt").toString();
+        Files.writeString(Path.of(snapshot), "", StandardCharsets.UTF_8);
+
+        Gerenciador antes = new Gerenciador();
+        antes.carregarConteudosDeTexto(snapshot);
+        antes.abrirDiario(diario, snapshot, 3600, Long.MAX_VALUE);
+        antes.adicionarConteudo(new Filme("Ação à meia-noite", "Suspense", 2010, "Zé", 100));
+        Conteudo filme = antes.buscarPorTitulo("Ação à meia-noite").orElseThrow();
+        antes.avaliar(filme, antes.obterUsuario("Ana", "ana@exemplo.com"), 4, "bom; mas longo \\ demais");
+        antes.compactarDiario(); //o diário fica vazio, só o snapshot guarda o que entrou
+        antes.fecharDiario();
+        assertEquals(0, Files.size(Path.of(diario)));
+
+        Gerenciador depois = new Gerenciador();
+        depois.carregarConteudosDeTexto(snapshot);
+        depois.abrirDiario(diario, snapshot, 3600, Long.MAX_VALUE);
+        Conteudo recuperado = depois.buscarPorTitulo("Ação à meia-noite").orElseThrow();
+        assertEquals("Zé", ((Filme) recuperado).getDiretor());
+        assertEquals(1, recuperado.getTotalAvaliacoes());
+        assertEquals("bom; mas longo \\ demais", recuperado.getAvaliacoes().get(0).getComentario());
+        depois.fecharDiario();
+    }
+}